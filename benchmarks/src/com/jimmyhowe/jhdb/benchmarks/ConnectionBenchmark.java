@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.benchmarks;
+
+import com.jimmyhowe.jhdb.core.Connection;
+import com.jimmyhowe.jhdb.core.DB;
+import com.jimmyhowe.jhdb.core.Plugin;
+import com.jimmyhowe.jhdb.mysql.MySQLPlugin;
+import com.jimmyhowe.jhdb.sqlite.SQLitePlugin;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per query latency of a fresh Connection per call against the connection cached by the DB registry.
+ *
+ * The MySQL parameter expects a server on localhost:3306 with a "jhdb" database, run with "-p database=sqlite" to
+ * skip it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectionBenchmark
+{
+    private static final String KEY = "benchmark";
+
+    private static final String QUERY = "SELECT 1";
+
+    @Param({"sqlite", "mysql"})
+    public String database;
+
+    private Plugin plugin;
+
+    private File file;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        if ( database.equals("mysql") )
+        {
+            plugin = new MySQLPlugin();
+        } else
+        {
+            file = File.createTempFile("jhdb-benchmark", ".sqlite");
+
+            plugin = new SQLitePlugin(file.getAbsolutePath());
+        }
+
+        DB.flushPlugins();
+        DB.register(KEY, plugin);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        DB.flushPlugins();
+
+        if ( file != null )
+        {
+            file.delete();
+        }
+    }
+
+    /**
+     * What every DB call paid before the registry: a new Connection and a new JDBC link.
+     */
+    @Benchmark
+    public boolean freshConnectionPerQuery() throws SQLException
+    {
+        Connection connection = plugin.getConnection();
+
+        try
+        {
+            return consume(connection.select(QUERY));
+        } finally
+        {
+            connection.closeConnection();
+        }
+    }
+
+    /**
+     * The same query through the connection cached by the registry.
+     */
+    @Benchmark
+    public boolean registryConnection() throws SQLException
+    {
+        return consume(DB.connection(KEY).select(QUERY));
+    }
+
+    private boolean consume(ResultSet resultSet) throws SQLException
+    {
+        return resultSet != null && resultSet.next();
+    }
+}
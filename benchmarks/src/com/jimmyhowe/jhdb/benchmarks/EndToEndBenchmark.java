@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.benchmarks;
+
+import com.jimmyhowe.jhdb.core.DB;
+import com.jimmyhowe.jhdb.core.tables.rows.Row;
+import com.jimmyhowe.jhdb.core.tables.rows.Rows;
+import com.jimmyhowe.jhdb.sqlite.SQLitePlugin;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries through DB.table(...) from building the query to the processed rows, against a file backed and an in
+ * memory SQLite database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EndToEndBenchmark
+{
+    private static final String KEY = "benchmark";
+
+    @Param({"memory", "file"})
+    public String storage;
+
+    @Param({"100", "10000"})
+    public int rows;
+
+    private File file;
+
+    private int id;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        DB.flushPlugins();
+
+        if ( storage.equals("file") )
+        {
+            file = File.createTempFile("jhdb-end-to-end", ".sqlite");
+
+            DB.register(KEY, new SQLitePlugin(file.getAbsolutePath()));
+        } else
+        {
+            DB.register(KEY, new SQLitePlugin().inMemory());
+        }
+
+        Fixtures.createUsers(DB.connection(KEY), rows);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        DB.flushPlugins();
+
+        if ( file != null )
+        {
+            file.delete();
+        }
+    }
+
+    /**
+     * Every row of the table.
+     */
+    @Benchmark
+    public Rows get()
+    {
+        return DB.table("users", KEY).get();
+    }
+
+    /**
+     * Number of rows in the table, counted by the database.
+     */
+    @Benchmark
+    public long count()
+    {
+        return DB.table("users", KEY).count();
+    }
+
+    /**
+     * One row by primary key, a different one each time.
+     */
+    @Benchmark
+    public Row firstById()
+    {
+        id = id % rows + 1;
+
+        return DB.table("users", KEY).where("id", id).first();
+    }
+
+    /**
+     * One row by primary key through the row cache, a different one each time.
+     */
+    @Benchmark
+    public Row find()
+    {
+        id = id % rows + 1;
+
+        return DB.table("users", KEY).find(id);
+    }
+}
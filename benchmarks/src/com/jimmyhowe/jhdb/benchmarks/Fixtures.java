@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.benchmarks;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test data shared by the benchmarks.
+ */
+final class Fixtures
+{
+    static final String CREATE_USERS = "CREATE TABLE users (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR(255), "
+            + "email VARCHAR(255), age INTEGER, score DOUBLE, active BOOLEAN)";
+
+    static final String[] USER_FIELDS = {"name", "email", "age", "score", "active"};
+
+    private Fixtures()
+    {
+    }
+
+    /**
+     * Creates a users table with a mix of integer, real and text columns.
+     *
+     * @param connection JDBC Connection
+     * @param rows       Number of rows
+     *
+     * @throws SQLException When the table cant be created
+     */
+    static void createUsers(Connection connection, int rows) throws SQLException
+    {
+        try ( Statement statement = connection.createStatement() )
+        {
+            statement.execute("DROP TABLE IF EXISTS users");
+            statement.execute(CREATE_USERS);
+        }
+
+        connection.setAutoCommit(false);
+
+        try ( PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users (name, email, age, score, active) VALUES (?, ?, ?, ?, ?)") )
+        {
+            for ( int i = 0; i < rows; i++ )
+            {
+                Object[] user = user(i);
+
+                for ( int field = 0; field < user.length; field++ )
+                {
+                    insert.setObject(field + 1, user[field]);
+                }
+
+                insert.addBatch();
+
+                if ( i % 10000 == 9999 )
+                {
+                    insert.executeBatch();
+                }
+            }
+
+            insert.executeBatch();
+        }
+
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    /**
+     * Creates the users table through a JHDB connection, inserting the rows with insertMany.
+     *
+     * @param connection JHDB Connection
+     * @param rows       Number of rows
+     */
+    static void createUsers(com.jimmyhowe.jhdb.core.Connection connection, int rows)
+    {
+        connection.execute("DROP TABLE IF EXISTS users");
+        connection.execute(CREATE_USERS);
+
+        if ( rows > 0 )
+        {
+            connection.table("users").insertInto(USER_FIELDS).insertMany(users(rows));
+        }
+    }
+
+    /**
+     * @param rows Number of rows
+     *
+     * @return Values of the users, in USER_FIELDS order
+     */
+    static List<Object[]> users(int rows)
+    {
+        List<Object[]> users = new ArrayList<>(rows);
+
+        for ( int i = 0; i < rows; i++ )
+        {
+            users.add(user(i));
+        }
+
+        return users;
+    }
+
+    /**
+     * @param i Number of the user
+     *
+     * @return Values of the user, in USER_FIELDS order
+     */
+    private static Object[] user(int i)
+    {
+        return new Object[]{"User " + i, "user" + i + "@example.com", 18 + i % 60, (i % 1000) / 10.0, i % 2 == 0};
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.benchmarks;
+
+import com.jimmyhowe.jhdb.core.DB;
+import com.jimmyhowe.jhdb.sqlite.SQLitePlugin;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows inserted per second one INSERT at a time against insertMany, through the query builder.
+ *
+ * Each operation inserts ROWS rows and counts as ROWS operations. Outside a transaction a file database syncs every
+ * single row insert to disk, which is what singleRowInserts shows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InsertBenchmark
+{
+    private static final String KEY = "benchmark";
+
+    private static final int ROWS = 100;
+
+    @Param({"memory", "file"})
+    public String storage;
+
+    private File file;
+
+    private List<Object[]> users;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        DB.flushPlugins();
+
+        if ( storage.equals("file") )
+        {
+            file = File.createTempFile("jhdb-insert", ".sqlite");
+
+            DB.register(KEY, new SQLitePlugin(file.getAbsolutePath()));
+        } else
+        {
+            DB.register(KEY, new SQLitePlugin().inMemory());
+        }
+
+        users = Fixtures.users(ROWS);
+    }
+
+    /**
+     * Starts every iteration on an empty table so it does not grow for the whole run.
+     */
+    @Setup(Level.Iteration)
+    public void emptyTable()
+    {
+        Fixtures.createUsers(DB.connection(KEY), 0);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        DB.flushPlugins();
+
+        if ( file != null )
+        {
+            file.delete();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int singleRowInserts()
+    {
+        int inserted = 0;
+
+        for ( Object[] user : users )
+        {
+            inserted += DB.table("users", KEY).insertInto(Fixtures.USER_FIELDS).values(user);
+        }
+
+        return inserted;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int singleRowInsertsInTransaction()
+    {
+        return DB.connection(KEY).transaction(connection -> singleRowInserts());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int insertMany()
+    {
+        return DB.table("users", KEY).insertInto(Fixtures.USER_FIELDS).insertMany(users).getAffectedRows();
+    }
+}
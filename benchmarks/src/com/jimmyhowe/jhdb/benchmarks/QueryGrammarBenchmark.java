@@ -0,0 +1,170 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.benchmarks;
+
+import com.jimmyhowe.jhdb.core.queries.QueryBuilder;
+import com.jimmyhowe.jhdb.core.queries.QueryGrammar;
+import com.jimmyhowe.jhdb.core.queries.components.OrWhere;
+import com.jimmyhowe.jhdb.core.queries.components.Where;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL compilation cost of each statement type, without a database.
+ *
+ * compileSelect goes through the shape cache, compileSelectUncached compiles every time as it would for a shape seen
+ * for the first time. Selects are measured for a bare select all, a filtered select and a wide query with nested
+ * wheres, several orders and paging.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryGrammarBenchmark
+{
+    private final ExposedGrammar grammar = new ExposedGrammar();
+
+    private QueryBuilder update;
+
+    private QueryBuilder insert;
+
+    private List<Object[]> rows;
+
+    @Setup
+    public void setUp()
+    {
+        update = new QueryBuilder(null, grammar, null)
+                .from("users")
+                .set("name", "Jimmy")
+                .set("email", "jimmy@example.com")
+                .set("age", 33)
+                .where("id", 1);
+
+        insert = new QueryBuilder(null, grammar, null).from("users").insertInto("name", "email", "age", "score");
+        insert.insertValues = new Object[]{"Jimmy", "jimmy@example.com", 33, 9.5};
+
+        rows = new ArrayList<>();
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            rows.add(new Object[]{"User " + i, "user" + i + "@example.com", i, i / 10.0});
+        }
+    }
+
+    @Benchmark
+    public String compileSelect(Select select)
+    {
+        return grammar.compileSelect(select.query);
+    }
+
+    @Benchmark
+    public String compileSelectUncached(Select select)
+    {
+        return grammar.compileUncached(select.query);
+    }
+
+    @Benchmark
+    public String compileUpdate()
+    {
+        return grammar.compileUpdate(update);
+    }
+
+    @Benchmark
+    public String compileInsert()
+    {
+        return grammar.compileInsert(insert);
+    }
+
+    /**
+     * A 100 row insert, as sent by insertMany.
+     */
+    @Benchmark
+    public String compileInsertMany()
+    {
+        return grammar.compileInsert(insert, rows);
+    }
+
+    /**
+     * Select queries of different shapes
+     */
+    @State(Scope.Benchmark)
+    public static class Select
+    {
+        @Param({"all", "filtered", "wide"})
+        public String shape;
+
+        QueryBuilder query;
+
+        @Setup
+        public void setUp(QueryGrammarBenchmark benchmark)
+        {
+            query = new QueryBuilder(null, benchmark.grammar, null).from("users");
+
+            if ( shape.equals("filtered") )
+            {
+                query.select("id", "name", "email as contact", "users.age")
+                     .where("active", true)
+                     .andWhere(new Where("age", ">", 18), new OrWhere("score", ">=", 50))
+                     .orderByDesc("score")
+                     .limit(20);
+            } else if ( shape.equals("wide") )
+            {
+                String[] columns = new String[24];
+
+                for ( int i = 0; i < columns.length; i++ )
+                {
+                    columns[i] = i % 4 == 0 ? "users.column_" + i : "column_" + i + " as alias_" + i;
+                }
+
+                query.select(columns)
+                     .where("active", true)
+                     .andWhere(new Where("age", ">", 18), new OrWhere("score", ">=", 50))
+                     .andWhere(new Where("country", "GB"), new OrWhere("country", "IE"), new OrWhere("country", "FR"))
+                     .orWhere("name", "LIKE", "J%")
+                     .orderBy("country")
+                     .orderByDesc("score")
+                     .orderBy("id")
+                     .limit(50)
+                     .offset(100);
+            }
+        }
+    }
+
+    /**
+     * Exposes the select compilation behind the cache.
+     */
+    static class ExposedGrammar extends QueryGrammar
+    {
+        String compileUncached(QueryBuilder query)
+        {
+            return compileSelectComponents(query);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.benchmarks;
+
+import com.jimmyhowe.jhdb.core.processors.BeanProcessor;
+import com.jimmyhowe.jhdb.core.processors.ColumnarProcessor;
+import com.jimmyhowe.jhdb.core.processors.TableProcessor;
+import com.jimmyhowe.jhdb.core.tables.batches.ColumnBatch;
+import com.jimmyhowe.jhdb.core.tables.columns.Column;
+import com.jimmyhowe.jhdb.core.tables.columns.Columns;
+import com.jimmyhowe.jhdb.core.tables.rows.ResultLayout;
+import com.jimmyhowe.jhdb.core.tables.rows.Row;
+import com.jimmyhowe.jhdb.core.tables.rows.Rows;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and allocation of turning a large SQLite result into Rows.
+ *
+ * Run with "-prof gc" to see the allocation per operation, and "-p rows=100000" for a quicker run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ResultProcessingBenchmark
+{
+    private static final String QUERY = "SELECT id, name, email, age, score, active FROM users";
+
+    private static final String NUMERIC_QUERY = "SELECT id, age, score FROM users";
+
+    @Param({"1000000"})
+    public int rows;
+
+    private File file;
+
+    private Connection connection;
+
+    private final TableProcessor processor = new TableProcessor();
+
+    @Setup
+    public void setUp() throws IOException, SQLException
+    {
+        file = File.createTempFile("jhdb-results", ".sqlite");
+        connection = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+
+        Fixtures.createUsers(connection, rows);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException
+    {
+        connection.close();
+        file.delete();
+    }
+
+    /**
+     * Row processing as it was, reading the meta data again for every row.
+     */
+    @Benchmark
+    public Rows perRowMetadata() throws SQLException
+    {
+        try ( PreparedStatement statement = connection.prepareStatement(QUERY);
+              ResultSet resultSet = statement.executeQuery() )
+        {
+            Rows result = new Rows();
+
+            while ( resultSet.next() )
+            {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+
+                Columns columns = new Columns();
+
+                for ( int columnIndex = 1; columnIndex <= metaData.getColumnCount(); columnIndex++ )
+                {
+                    String columnName = metaData.getColumnName(columnIndex);
+                    Object value = resultSet.getObject(columnIndex);
+                    String sqlType = metaData.getColumnTypeName(columnIndex);
+
+                    columns.add(new Column(columnName, value));
+                }
+
+                result.add(new Row(columns));
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * The TableProcessor, which reads the layout once per result.
+     */
+    @Benchmark
+    public Rows tableProcessor() throws SQLException
+    {
+        try ( PreparedStatement statement = connection.prepareStatement(QUERY);
+              ResultSet resultSet = statement.executeQuery() )
+        {
+            return processor.processCollection(resultSet);
+        }
+    }
+
+    /**
+     * The TableProcessor on numeric columns only, which are kept unboxed, summed through the primitive getters.
+     */
+    @Benchmark
+    public double numericColumns() throws SQLException
+    {
+        try ( PreparedStatement statement = connection.prepareStatement(NUMERIC_QUERY);
+              ResultSet resultSet = statement.executeQuery() )
+        {
+            double total = 0;
+
+            for ( Row row : processor.processCollection(resultSet).data() )
+            {
+                total += row.getLong(0) + row.getInt(1) + row.getDouble(2);
+            }
+
+            return total;
+        }
+    }
+
+    /**
+     * The same numeric columns read through a trusted layout, as for drivers that type each column, so the values are
+     * read with the primitive getters rather than checked through getObject. Compare the allocation with -prof gc.
+     */
+    @Benchmark
+    public double numericColumnsTrusted() throws SQLException
+    {
+        try ( PreparedStatement statement = connection.prepareStatement(NUMERIC_QUERY);
+              ResultSet resultSet = statement.executeQuery() )
+        {
+            ResultLayout layout = ResultLayout.of(resultSet.getMetaData(), false);
+            Rows rows = new Rows(layout);
+
+            while ( resultSet.next() )
+            {
+                rows.add(processor.processRow(resultSet, layout));
+            }
+
+            double total = 0;
+
+            for ( Row row : rows.data() )
+            {
+                total += row.getLong(0) + row.getInt(1) + row.getDouble(2);
+            }
+
+            return total;
+        }
+    }
+
+    /**
+     * The whole result read column by column by the ColumnarProcessor.
+     */
+    @Benchmark
+    public ColumnBatch columnar() throws SQLException
+    {
+        try ( PreparedStatement statement = connection.prepareStatement(QUERY);
+              ResultSet resultSet = statement.executeQuery() )
+        {
+            return new ColumnarProcessor().processBatch(resultSet);
+        }
+    }
+
+    /**
+     * Users mapped onto beans by the BeanProcessor.
+     */
+    @Benchmark
+    public List<User> beanProcessor() throws SQLException
+    {
+        try ( PreparedStatement statement = connection.prepareStatement(QUERY);
+              ResultSet resultSet = statement.executeQuery() )
+        {
+            return BeanProcessor.of(User.class).processBeans(resultSet);
+        }
+    }
+
+    /**
+     * The same beans filled by hand, the floor for the BeanProcessor.
+     */
+    @Benchmark
+    public List<User> handwritten() throws SQLException
+    {
+        try ( PreparedStatement statement = connection.prepareStatement(QUERY);
+              ResultSet resultSet = statement.executeQuery() )
+        {
+            List<User> users = new ArrayList<>();
+
+            while ( resultSet.next() )
+            {
+                User user = new User();
+
+                user.setId(resultSet.getLong(1));
+                user.setName(resultSet.getString(2));
+                user.setEmail(resultSet.getString(3));
+                user.setAge(resultSet.getInt(4));
+                user.setScore(resultSet.getDouble(5));
+                user.setActive(resultSet.getBoolean(6));
+
+                users.add(user);
+            }
+
+            return users;
+        }
+    }
+
+    public static class User
+    {
+        private long id;
+
+        private String name;
+
+        private String email;
+
+        private int age;
+
+        private double score;
+
+        private boolean active;
+
+        public void setId(long id)
+        {
+            this.id = id;
+        }
+
+        public void setName(String name)
+        {
+            this.name = name;
+        }
+
+        public void setEmail(String email)
+        {
+            this.email = email;
+        }
+
+        public void setAge(int age)
+        {
+            this.age = age;
+        }
+
+        public void setScore(double score)
+        {
+            this.score = score;
+        }
+
+        public void setActive(boolean active)
+        {
+            this.active = active;
+        }
+    }
+}
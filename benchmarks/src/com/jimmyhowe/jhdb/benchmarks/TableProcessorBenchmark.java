@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.benchmarks;
+
+import com.jimmyhowe.jhdb.core.processors.TableProcessor;
+import com.jimmyhowe.jhdb.core.tables.rows.Rows;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TableProcessor.processCollection over in memory SQLite results of different widths and heights.
+ *
+ * The width is the number of columns selected, taken in order from id, age, name, score, email, active so each width
+ * adds a different type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TableProcessorBenchmark
+{
+    private static final String[] COLUMNS = {"id", "age", "name", "score", "email", "active"};
+
+    @Param({"1", "3", "6"})
+    public int width;
+
+    @Param({"10", "1000", "100000"})
+    public int height;
+
+    private Connection connection;
+
+    private String query;
+
+    private final TableProcessor processor = new TableProcessor();
+
+    @Setup
+    public void setUp() throws SQLException
+    {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+
+        Fixtures.createUsers(connection, height);
+
+        StringBuilder columns = new StringBuilder();
+
+        for ( int i = 0; i < width; i++ )
+        {
+            columns.append(i > 0 ? ", " : "").append(COLUMNS[i]);
+        }
+
+        query = "SELECT " + columns + " FROM users";
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException
+    {
+        connection.close();
+    }
+
+    @Benchmark
+    public Rows processCollection() throws SQLException
+    {
+        try ( PreparedStatement statement = connection.prepareStatement(query);
+              ResultSet resultSet = statement.executeQuery() )
+        {
+            return processor.processCollection(resultSet);
+        }
+    }
+}
@@ -26,8 +26,11 @@ package com.jimmyhowe.jhdb;
 
 import com.jimmyhowe.colorconsole.Console;
 import com.jimmyhowe.jhdb.core.DB;
+import com.jimmyhowe.jhdb.core.events.LogLevel;
 import com.jimmyhowe.jhdb.mysql.MySQLPlugin;
 
+import java.util.concurrent.TimeUnit;
+
 public class Main
 {
     public static void main(String[] args)
@@ -41,6 +44,8 @@ public class Main
 
         DB.use(mySQLPlugin);
 
+        DB.logQueries(LogLevel.INFO);
+
 //        Schema.create("users", new Blueprint()
 //        {
 //            @Override
@@ -62,6 +67,7 @@ public class Main
 
 //        System.out.println(result);
 
+        DB.getQueryEvents().flush(1, TimeUnit.SECONDS);
         DB.getDefaultConnection().getQueryLog().toConsole();
         DB.getRunningLog().toConsole();
     }
@@ -24,35 +24,49 @@
 
 package com.jimmyhowe.jhdb.core;
 
+import com.jimmyhowe.jhdb.core.exceptions.InvalidArgumentException;
 import com.jimmyhowe.jhdb.core.utilities.Expression;
-import com.jimmyhowe.support.Str;
+import com.jimmyhowe.jhdb.core.utilities.LruCache;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * Base SQL Grammar
  */
 public abstract class BaseGrammar
 {
+    /**
+     * Wrapped identifiers kept per grammar
+     */
+    private static final int WRAP_CACHE_SIZE = 1024;
+
     /**
      * Grammar table prefix
      */
     protected String tablePrefix = "";
 
+    /**
+     * Wrapped identifiers by their unwrapped value, columns are wrapped the same way every time
+     */
+    @NotNull
+    private final LruCache<String, String> wrapped = new LruCache<>(WRAP_CACHE_SIZE);
+
     /**
      * Wrap an array of values
      */
     public List<String> wrapArray(@NotNull List<String> values)
     {
-        return values.stream()
-                     .map(this::wrap)
-                     .collect(Collectors.toList());
+        List<String> wrapped = new ArrayList<>(values.size());
+
+        for ( String value : values )
+        {
+            wrapped.add(wrap(value));
+        }
+
+        return wrapped;
     }
 
     /**
@@ -83,6 +97,33 @@ public abstract class BaseGrammar
      */
     @NotNull
     public String wrap(@NotNull String value, boolean prefixAlias)
+    {
+        // Aliases of tables take the table prefix, which can change, so only columns are remembered.
+        if ( prefixAlias )
+        {
+            return compileWrap(value, true);
+        }
+
+        String sql = wrapped.get(value);
+
+        if ( sql == null )
+        {
+            sql = compileWrap(value, false);
+
+            wrapped.put(value, sql);
+        }
+
+        return sql;
+    }
+
+    /**
+     * @param value       Value to wrap
+     * @param prefixAlias Prefix the alias with the table prefix
+     *
+     * @return Wrapped Value
+     */
+    @NotNull
+    private String compileWrap(@NotNull String value, boolean prefixAlias)
     {
         // If the value being wrapped has a column alias we will need to separate out
         // the pieces so we can wrap each of the segments of the expression on it
@@ -92,7 +133,25 @@ public abstract class BaseGrammar
             return wrapAliasedValue(value, prefixAlias);
         }
 
-        return wrapSegments(Arrays.asList(Str.explode(".", value)));
+        if ( value.indexOf('.') < 0 )
+        {
+            return wrapValue(value);
+        }
+
+        List<String> segments = new ArrayList<>();
+
+        int start = 0;
+
+        for ( int dot = value.indexOf('.'); dot >= 0; dot = value.indexOf('.', start) )
+        {
+            segments.add(value.substring(start, dot));
+
+            start = dot + 1;
+        }
+
+        segments.add(value.substring(start));
+
+        return wrapSegments(segments);
     }
 
     /**
@@ -104,7 +163,80 @@ public abstract class BaseGrammar
      */
     public boolean hasAliasedValue(@NotNull String value)
     {
-        return Pattern.compile("(?i)\\s+as+\\s", Pattern.CASE_INSENSITIVE).matcher(value).find();
+        return findAlias(value, 0) >= 0;
+    }
+
+    /**
+     * Finds the next " as " connector, matching whitespace, "a", one or more "s" and one whitespace in any case.
+     *
+     * @param value Value
+     * @param from  Index to search from
+     *
+     * @return Index the connector starts at, or -1
+     */
+    private static int findAlias(@NotNull String value, int from)
+    {
+        return findAlias(value, from, false);
+    }
+
+    /**
+     * @param value Value
+     * @param from  Index to search from
+     * @param end   Return the index after the connector instead of where it starts
+     *
+     * @return Index of the connector, or -1
+     */
+    private static int findAlias(@NotNull String value, int from, boolean end)
+    {
+        int length = value.length();
+
+        for ( int i = from; i < length; i++ )
+        {
+            if ( ! isSpace(value.charAt(i)) )
+            {
+                continue;
+            }
+
+            int start = i;
+
+            while ( i < length && isSpace(value.charAt(i)) )
+            {
+                i++;
+            }
+
+            if ( i + 2 >= length || (value.charAt(i) | 0x20) != 'a' || (value.charAt(i + 1) | 0x20) != 's' )
+            {
+                i--;
+
+                continue;
+            }
+
+            int after = i + 2;
+
+            while ( after < length && (value.charAt(after) | 0x20) == 's' )
+            {
+                after++;
+            }
+
+            if ( after < length && isSpace(value.charAt(after)) )
+            {
+                return end ? after + 1 : start;
+            }
+
+            i--;
+        }
+
+        return -1;
+    }
+
+    /**
+     * @param c Character
+     *
+     * @return True for the whitespace a regex \s matches
+     */
+    private static boolean isSpace(char c)
+    {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
     }
 
     /**
@@ -139,17 +271,27 @@ public abstract class BaseGrammar
     @NotNull
     public String wrapAliasedValue(@NotNull String value, boolean prefixAlias)
     {
-        String[] segments = value.split("(?i)\\s+as+\\s");
+        int start = findAlias(value, 0);
+
+        if ( start < 0 )
+        {
+            throw new InvalidArgumentException("No alias in " + value);
+        }
+
+        int aliasStart = findAlias(value, start, true);
+        int aliasEnd = findAlias(value, aliasStart);
+
+        String alias = value.substring(aliasStart, aliasEnd < 0 ? value.length() : aliasEnd);
 
         // If we are wrapping a table we need to prefix the alias with the table prefix
         // as well in order to generate proper syntax. If this is a column of course
         // no prefix is necessary. The condition will be true when from wrapTable.
         if ( prefixAlias )
         {
-            segments[1] = tablePrefix + segments[1];
+            alias = tablePrefix + alias;
         }
 
-        return wrap(segments[0]) + " AS " + wrapValue(segments[1]);
+        return wrap(value.substring(0, start)) + " AS " + wrapValue(alias);
     }
 
     /**
@@ -179,20 +321,25 @@ public abstract class BaseGrammar
 //                : $this->wrapValue($segment);
 //        })->implode('.');
 
-        List<String> newSegments = new ArrayList<>();
+        StringBuilder sql = new StringBuilder();
 
         for ( int i = 0; i < segments.size(); i++ )
         {
             if ( i == 0 && segments.size() > 1 )
             {
-                newSegments.add(this.wrapTable(segments.get(i)));
+                sql.append(this.wrapTable(segments.get(i)));
             } else
             {
-                newSegments.add(this.wrapValue(segments.get(i)));
+                if ( i > 0 )
+                {
+                    sql.append('.');
+                }
+
+                sql.append(this.wrapValue(segments.get(i)));
             }
         }
 
-        return Str.implode(".", newSegments);
+        return sql.toString();
     }
 
     /**
@@ -233,8 +380,8 @@ public abstract class BaseGrammar
 
 
     /**
-     * Convert an array of column names into a delimited string. This method calls the implode method from the Str
-     * library. Each of the passed strings are separated into columns after being processed by the wrap function.
+     * Convert an array of column names into a delimited string. Each of the passed strings are separated into columns
+     * after being processed by the wrap function.
      *
      * @param columns List of columns
      *
@@ -243,7 +390,19 @@ public abstract class BaseGrammar
     @NotNull
     public String columnize(@NotNull List<String> columns)
     {
-        return Str.implode(", ", columns.stream().map(this::wrap).collect(Collectors.toList()));
+        StringBuilder sql = new StringBuilder();
+
+        for ( int i = 0; i < columns.size(); i++ )
+        {
+            if ( i > 0 )
+            {
+                sql.append(", ");
+            }
+
+            sql.append(wrap(columns.get(i), false));
+        }
+
+        return sql.toString();
     }
 
     /**
@@ -254,9 +413,21 @@ public abstract class BaseGrammar
      * @return string
      */
     @NotNull
-    public String parameterize(@NotNull List<String> values)
+    public String parameterize(@NotNull List<?> values)
     {
-        return Str.implode(", ", values.stream().map(this::parameter).collect(Collectors.toList()));
+        StringBuilder sql = new StringBuilder();
+
+        for ( int i = 0; i < values.size(); i++ )
+        {
+            if ( i > 0 )
+            {
+                sql.append(", ");
+            }
+
+            sql.append(parameter(values.get(i)));
+        }
+
+        return sql.toString();
     }
 
     /**
@@ -278,9 +449,14 @@ public abstract class BaseGrammar
      */
     public List<String> wrap(@NotNull List<Object> columns)
     {
-        return columns.stream()
-                      .map(this::wrap)
-                      .collect(Collectors.toList());
+        List<String> wrapped = new ArrayList<>(columns.size());
+
+        for ( Object column : columns )
+        {
+            wrapped.add(wrap(column));
+        }
+
+        return wrapped;
     }
 
     /**
@@ -321,6 +497,19 @@ public abstract class BaseGrammar
         return "?";
     }
 
+    /**
+     * Get the appropriate query parameter place-holder for a value, raw expressions are written as they are.
+     *
+     * @param value Value
+     *
+     * @return string
+     */
+    @NotNull
+    public String parameter(Object value)
+    {
+        return value instanceof Expression ? getValue((Expression) value) : "?";
+    }
+
     /**
      * Get the format for database stored dates.
      *
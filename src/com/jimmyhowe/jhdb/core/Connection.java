@@ -24,20 +24,44 @@
 
 package com.jimmyhowe.jhdb.core;
 
+import com.jimmyhowe.jhdb.core.events.LogLevel;
+import com.jimmyhowe.jhdb.core.events.QueryEvent;
+import com.jimmyhowe.jhdb.core.events.QueryEvents;
 import com.jimmyhowe.jhdb.core.exceptions.ConnectionException;
 import com.jimmyhowe.jhdb.core.processors.PostProcessor;
+import com.jimmyhowe.jhdb.core.queries.Cursor;
+import com.jimmyhowe.jhdb.core.queries.InsertResult;
 import com.jimmyhowe.jhdb.core.processors.TableProcessor;
 import com.jimmyhowe.jhdb.core.queries.QueryBuilder;
 import com.jimmyhowe.jhdb.core.queries.QueryGrammar;
 import com.jimmyhowe.jhdb.core.schema.SchemaGrammar;
+import com.jimmyhowe.jhdb.core.support.ResultCallback;
 import com.jimmyhowe.jhdb.core.support.RunCallback;
+import com.jimmyhowe.jhdb.core.support.TransactionCallback;
+import com.jimmyhowe.jhdb.core.tables.batches.ColumnBatch;
+import com.jimmyhowe.jhdb.core.tables.rows.Rows;
 import com.jimmyhowe.jhdb.core.utilities.QueryLog;
+import com.jimmyhowe.jhdb.core.utilities.ResultCache;
+import com.jimmyhowe.jhdb.core.utilities.RowCache;
+import com.jimmyhowe.jhdb.core.utilities.SlowQueryLog;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * JDBC Connector
@@ -49,12 +73,38 @@ public abstract class Connection
      */
     private final QueryLog queryLog = new QueryLog();
 
+    /**
+     * Queries that ran over the slow query threshold.
+     */
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog();
+
+    /**
+     * Rows of remembered queries.
+     */
+    private final ResultCache resultCache = new ResultCache();
+
+    /**
+     * Rows found by their primary key.
+     */
+    private final RowCache rowCache = new RowCache();
+
+    /**
+     * Time in nanoseconds from which a query counts as slow, -1 when slow queries are not recorded.
+     */
+    private volatile long slowQueryThreshold = -1;
+
     /**
      * The adapter used to make the connection.
      */
     @NotNull
     private Plugin plugin;
 
+    /**
+     * Name the connection is known by in query events, the key it was registered under
+     */
+    @NotNull
+    private String name;
+
     /**
      * Connector
      */
@@ -73,26 +123,22 @@ public abstract class Connection
     private QueryGrammar queryGrammar;
 
     /**
-     * The JHDB connection.
+     * The pool JDBC connections are borrowed from, created on first use.
      */
     @Nullable
-    private java.sql.Connection connection;
+    private volatile ConnectionPool pool;
 
     /**
-     * The result set of a run select query.
+     * The pooled connection held by the current thread, while a query runs or for a whole transaction.
      */
-    @Nullable
-    private ResultSet cachedResults;
+    private final ThreadLocal<PooledConnection> lease = new ThreadLocal<>();
 
     /**
-     * The status of a run query.
+     * Prepared statement cache counters, across every pooled connection.
      */
-    private boolean queryStatus;
+    private final AtomicLong statementCacheHits = new AtomicLong();
 
-    /**
-     * The number of updated records after an insert, update or delete query.
-     */
-    private int updatedRecords;
+    private final AtomicLong statementCacheMisses = new AtomicLong();
 
     /**
      * The post processor instance
@@ -128,80 +174,457 @@ public abstract class Connection
     private void Initialize(@NotNull Plugin plugin)
     {
         this.plugin = plugin;
+        this.name = plugin.getClass().getSimpleName();
         this.connector = plugin.getConnector();
         this.schemaGrammar = plugin.getSchemaGrammar();
         this.queryGrammar = plugin.getQueryGrammar();
     }
 
     /**
-     * Makes a connection to the Database
+     * Returns the connection pool, creating it from the plugin settings on first use.
      *
-     * @param url
+     * @return Connection Pool
      */
-    private void connect(@NotNull Plugin url)
+    @NotNull
+    public ConnectionPool getPool()
     {
-        DB.getRunningLog().info("Attempting connection... (" + plugin.getDriver() + ")");
+        ConnectionPool current = pool;
+
+        if ( current == null )
+        {
+            synchronized ( this )
+            {
+                current = pool;
+
+                if ( current == null )
+                {
+                    DB.getRunningLog().info("Creating connection pool... (" + plugin.getDriver() + ")");
 
-        this.connection = this.connector.connect(plugin.getProperties());
+                    current = pool = new ConnectionPool(connector, plugin.getProperties());
+                }
+            }
+        }
+
+        return current;
     }
 
     /**
-     * Runs a query against the connection
+     * Runs a query without bindings against the connection
      *
      * @param query    SQL Query
      * @param callback Run Callback
      *
-     * @return Connection query was run against
+     * @return The callback result, or null when the query failed
      */
-    @NotNull
-    public Connection run(@Nullable String query, @NotNull RunCallback callback)
+    @Nullable
+    public <T> T run(@Nullable String query, @NotNull RunCallback<T> callback)
     {
-        System.out.println(query);
+        return run(query, Collections.emptyList(), callback);
+    }
 
+    /**
+     * Runs a query against the connection
+     *
+     * A JDBC connection is borrowed from the pool for the duration of the callback and then returned, unless the
+     * current thread is inside a transaction, in which case the transaction's connection is used. The statement is
+     * prepared with the bindings and closed or cached afterwards, so the callback must read any ResultSet it opens
+     * rather than return it. The query is published whether it completes, fails or the callback throws.
+     *
+     * @param query    SQL Query
+     * @param bindings Values for the query placeholders
+     * @param callback Run Callback
+     *
+     * @return The callback result, or null when the query failed
+     */
+    @Nullable
+    public <T> T run(@Nullable String query, @NotNull List<Object> bindings, @NotNull RunCallback<T> callback)
+    {
         if ( query == null )
         {
             throw new ConnectionException("Connection: NULL Query Provided.");
         }
 
-        if ( connection == null )
+        long start = System.nanoTime();
+
+        PooledConnection pooled = lease.get();
+        boolean borrowed = pooled == null;
+
+        if ( borrowed )
         {
-            connect(plugin);
+            pooled = getPool().borrow();
         }
 
-        long start = System.nanoTime();
-
         // Connection is null when no wamp
 
-        if ( connection != null )
+        if ( pooled == null )
+        {
+            DB.getDispatcher().dispatch("cant-connect");
+
+            return null;
+        }
+
+        lease.set(pooled);
+
+        boolean lost = false;
+        boolean completed = false;
+        T result = null;
+        Throwable failure = null;
+        PreparedStatement statement = null;
+
+        try
+        {
+            statement = prepare(pooled, query);
+            bindValues(statement, bindings);
+            result = callback.run(this, statement);
+            completed = true;
+        } catch ( SQLException e )
+        {
+            failure = e;
+            lost = getPool().causedByLostConnections(e);
+
+            e.printStackTrace();
+        } catch ( RuntimeException | Error e )
+        {
+            failure = e;
+
+            throw e;
+        } finally
         {
-            try
+            if ( statement != null )
             {
-                Statement statement = getStatement(query);
-                callback.run(this, statement);
-            } catch ( SQLException e )
+                if ( completed )
+                {
+                    pooled.returnStatement(query, statement);
+                } else
+                {
+                    closeStatement(statement);
+                }
+            }
+
+            if ( borrowed )
             {
-                e.printStackTrace();
+                lease.remove();
+
+                if ( lost )
+                {
+                    getPool().invalidate(pooled);
+                } else
+                {
+                    getPool().release(pooled);
+                }
             }
-        } else
+
+            publish(query, bindings, start, completed ? rows(result) : -1, failure);
+        }
+
+        return result;
+    }
+
+    /**
+     * Publishes a query event when the level allows, building nothing when it does not, and records it in the slow
+     * query log, bindings and all, when it took longer than the threshold.
+     *
+     * @param query    SQL Query
+     * @param bindings Bound values
+     * @param start    System.nanoTime() when the query started
+     * @param rows     Rows returned or affected, -1 when not known
+     * @param failure  What the query or its callback threw, null when it completed
+     */
+    private void publish(@NotNull String query, @NotNull List<Object> bindings, long start, long rows,
+                         @Nullable Throwable failure)
+    {
+        boolean failed = failure != null;
+        long threshold = slowQueryThreshold;
+
+        if ( threshold >= 0 )
         {
-            DB.getDispatcher().dispatch("cant-connect");
+            long elapsed = System.nanoTime() - start;
+
+            if ( elapsed >= threshold )
+            {
+                slowQueryLog.record(new QueryEvent(this, query, new ArrayList<>(bindings), elapsed, rows, failed,
+                                                  failure));
+            }
         }
 
-        queryLog.query(query, getElapsedTime(start));
+        QueryEvents events = DB.getQueryEvents();
 
-        return this;
+        if ( ! events.isEnabled(failed ? LogLevel.ERROR : LogLevel.INFO) )
+        {
+            return;
+        }
+
+        List<Object> logged = events.isEnabled(LogLevel.DEBUG) ? bindings : Collections.emptyList();
+
+        events.publish(new QueryEvent(this, query, logged, System.nanoTime() - start, rows, failed, failure));
+    }
+
+    /**
+     * @param result Callback result
+     *
+     * @return Rows the result holds or the number affected, -1 when not known
+     */
+    private static long rows(@Nullable Object result)
+    {
+        if ( result instanceof Integer )
+        {
+            return (Integer) result;
+        }
+
+        if ( result instanceof CachedRowSet )
+        {
+            return ((CachedRowSet) result).size();
+        }
+
+        if ( result instanceof Rows )
+        {
+            return ((Rows) result).count();
+        }
+
+        if ( result instanceof ColumnBatch )
+        {
+            return ((ColumnBatch) result).getRowCount();
+        }
+
+        if ( result instanceof java.util.Collection )
+        {
+            return ((java.util.Collection<?>) result).size();
+        }
+
+        if ( result instanceof InsertResult )
+        {
+            return ((InsertResult) result).getAffectedRows();
+        }
+
+        return -1;
+    }
+
+    /**
+     * Describes how the database would run a query, without running it.
+     *
+     * The EXPLAIN runs on a connection of its own from the pool rather than the one held by the current thread, so it
+     * neither shows up in the query events nor joins an open transaction, and waits when the pool is exhausted.
+     *
+     * @param query    SQL Query
+     * @param bindings Values for the query placeholders
+     *
+     * @return One line per plan row with its columns separated by " | ", or null when it can't be explained
+     */
+    @Nullable
+    public String explain(@NotNull String query, @NotNull List<Object> bindings)
+    {
+        QueryGrammar grammar = getQueryGrammar();
+
+        if ( grammar == null || ! grammar.isExplainable(query) )
+        {
+            return null;
+        }
+
+        PooledConnection pooled = getPool().borrow();
+
+        if ( pooled == null )
+        {
+            return null;
+        }
+
+        boolean lost = false;
+
+        try ( PreparedStatement statement = pooled.getConnection().prepareStatement(grammar.compileExplain(query)) )
+        {
+            bindValues(statement, bindings);
+
+            try ( ResultSet resultSet = statement.executeQuery() )
+            {
+                int columns = resultSet.getMetaData().getColumnCount();
+                StringBuilder plan = new StringBuilder();
+
+                while ( resultSet.next() )
+                {
+                    if ( plan.length() > 0 )
+                    {
+                        plan.append('\n');
+                    }
+
+                    for ( int i = 1; i <= columns; i++ )
+                    {
+                        if ( i > 1 )
+                        {
+                            plan.append(" | ");
+                        }
+
+                        plan.append(resultSet.getString(i));
+                    }
+                }
+
+                return plan.toString();
+            }
+        } catch ( SQLException e )
+        {
+            lost = getPool().causedByLostConnections(e);
+
+            DB.getRunningLog().error("Failed to explain query: " + e.getMessage());
+
+            return null;
+        } finally
+        {
+            if ( lost )
+            {
+                getPool().invalidate(pooled);
+            } else
+            {
+                getPool().release(pooled);
+            }
+        }
     }
 
     /**
-     * @param query
+     * Takes the statement for the query from the pooled connection's cache, preparing it on a miss.
      *
-     * @return JDBC Statement
+     * @param pooled Pooled Connection the query runs on
+     * @param query  SQL Query
+     *
+     * @return Prepared JDBC Statement
+     *
+     * @throws SQLException When statement cant be prepared
+     */
+    @NotNull
+    private PreparedStatement prepare(@NotNull PooledConnection pooled, @NotNull String query) throws SQLException
+    {
+        PreparedStatement statement = pooled.takeStatement(query);
+
+        if ( statement != null )
+        {
+            statementCacheHits.incrementAndGet();
+
+            return statement;
+        }
+
+        statementCacheMisses.incrementAndGet();
+
+        return getStatement(query);
+    }
+
+    /**
+     * @return Number of queries that reused a cached statement
+     */
+    public long getStatementCacheHits()
+    {
+        return statementCacheHits.get();
+    }
+
+    /**
+     * @return Number of queries that had to prepare their statement
+     */
+    public long getStatementCacheMisses()
+    {
+        return statementCacheMisses.get();
+    }
+
+    /**
+     * @param query SQL Query
+     *
+     * @return Prepared JDBC Statement
      *
      * @throws SQLException When statement cant run
      */
-    protected Statement getStatement(String query) throws SQLException
+    protected PreparedStatement getStatement(String query) throws SQLException
     {
-        return getConnection().createStatement();
+        return getConnection().prepareStatement(query);
+    }
+
+    /**
+     * Binds values to their placeholders in the prepared statement.
+     *
+     * @param statement Prepared Statement
+     * @param bindings  Values in placeholder order
+     *
+     * @throws SQLException When a value cant be bound
+     */
+    public void bindValues(@NotNull PreparedStatement statement, @NotNull List<Object> bindings) throws SQLException
+    {
+        for ( int i = 0; i < bindings.size(); i++ )
+        {
+            bindValue(statement, i + 1, bindings.get(i));
+        }
+    }
+
+    /**
+     * Binds a single value with the setter matching its type.
+     *
+     * @param statement Prepared Statement
+     * @param index     Placeholder index, starting at 1
+     * @param value     Value
+     *
+     * @throws SQLException When the value cant be bound
+     */
+    protected void bindValue(@NotNull PreparedStatement statement, int index, @Nullable Object value) throws SQLException
+    {
+        if ( value == null )
+        {
+            statement.setNull(index, Types.NULL);
+        } else if ( value instanceof String )
+        {
+            statement.setString(index, (String) value);
+        } else if ( value instanceof Integer )
+        {
+            statement.setInt(index, (Integer) value);
+        } else if ( value instanceof Long )
+        {
+            statement.setLong(index, (Long) value);
+        } else if ( value instanceof Double )
+        {
+            statement.setDouble(index, (Double) value);
+        } else if ( value instanceof Float )
+        {
+            statement.setFloat(index, (Float) value);
+        } else if ( value instanceof Short )
+        {
+            statement.setShort(index, (Short) value);
+        } else if ( value instanceof Byte )
+        {
+            statement.setByte(index, (Byte) value);
+        } else if ( value instanceof Boolean )
+        {
+            statement.setBoolean(index, (Boolean) value);
+        } else if ( value instanceof BigDecimal )
+        {
+            statement.setBigDecimal(index, (BigDecimal) value);
+        } else if ( value instanceof java.sql.Date )
+        {
+            statement.setDate(index, (java.sql.Date) value);
+        } else if ( value instanceof Time )
+        {
+            statement.setTime(index, (Time) value);
+        } else if ( value instanceof Timestamp )
+        {
+            statement.setTimestamp(index, (Timestamp) value);
+        } else if ( value instanceof java.util.Date )
+        {
+            statement.setTimestamp(index, new Timestamp(((java.util.Date) value).getTime()));
+        } else if ( value instanceof byte[] )
+        {
+            statement.setBytes(index, (byte[]) value);
+        } else if ( value instanceof Character || value instanceof Enum )
+        {
+            statement.setString(index, value.toString());
+        } else
+        {
+            statement.setObject(index, value);
+        }
+    }
+
+    /**
+     * @param statement Statement to close
+     */
+    private void closeStatement(@NotNull PreparedStatement statement)
+    {
+        try
+        {
+            statement.close();
+        } catch ( SQLException e )
+        {
+            DB.getRunningLog().error("Failed to close statement: " + e.getMessage());
+        }
     }
 
     /**
@@ -213,7 +636,9 @@ public abstract class Connection
      */
     public boolean execute(@NotNull String query)
     {
-        return run(query, (me, statement) -> queryStatus = ! statement.execute(query)).queryStatus();
+        Boolean status = run(query, (me, statement) -> ! statement.execute());
+
+        return status != null && status;
     }
 
     /**
@@ -226,17 +651,30 @@ public abstract class Connection
     @Nullable
     public ResultSet statement(String query)
     {
-        return run(query, (me, statement) ->
-        {
-            if ( me.pretend )
-            {
-                cachedResults = null;
+        return statement(query, Collections.emptyList());
+    }
 
-                return;
-            }
+    /**
+     * Runs an SQL statement with bindings against the connection
+     *
+     * The results are copied into a disconnected CachedRowSet, so the statement and connection are given back before
+     * it returns. Use select with a callback or a cursor to read large results without the copy.
+     *
+     * @param query    SQL Query
+     * @param bindings Bindings
+     *
+     * @return Results
+     */
+    @Nullable
+    public ResultSet statement(String query, @NotNull List<Object> bindings)
+    {
+        return select(query, bindings, resultSet -> {
+            CachedRowSet rows = RowSetProvider.newFactory().createCachedRowSet();
+
+            rows.populate(resultSet);
 
-            cachedResults = statement.executeQuery(query);
-        }).cachedResults();
+            return rows;
+        });
     }
 
     /**
@@ -248,7 +686,22 @@ public abstract class Connection
      */
     public int affectingStatement(String query)
     {
-        return run(query, (me, statement) -> updatedRecords = statement.executeUpdate(query)).updatedRecords();
+        return affectingStatement(query, Collections.emptyList());
+    }
+
+    /**
+     * Performs an affecting statement with bindings
+     *
+     * @param query    SQL Query
+     * @param bindings Bindings
+     *
+     * @return Number of affected rows
+     */
+    public int affectingStatement(String query, @NotNull List<Object> bindings)
+    {
+        Integer updatedRecords = run(query, bindings, (me, statement) -> statement.executeUpdate());
+
+        return updatedRecords != null ? updatedRecords : 0;
     }
 
     /**
@@ -270,25 +723,170 @@ public abstract class Connection
      * @param query    SQL query
      * @param bindings Bindings
      *
-     * @return
+     * @return Results
      */
     @Nullable
     public ResultSet select(String query, Object... bindings)
     {
-        return statement(queryWithBindings(query, bindings));
+        return statement(query, Arrays.asList(bindings));
     }
 
     /**
-     * Add bindings to query
+     * Perform a SELECT query with bindings.
      *
      * @param query    SQL query
      * @param bindings Bindings
      *
-     * @return SQL
+     * @return Results
      */
-    private String queryWithBindings(String query, Object[] bindings)
+    @Nullable
+    public ResultSet select(String query, @NotNull List<Object> bindings)
     {
-        return null;
+        return statement(query, bindings);
+    }
+
+    /**
+     * Perform a SELECT query and hand the results to a callback while the connection is still held, so the
+     * ResultSet and its statement can be closed straight after.
+     *
+     * @param query    SQL query
+     * @param bindings Bindings
+     * @param callback Result Callback
+     *
+     * @return The callback result, or null when the query failed
+     */
+    @Nullable
+    public <T> T select(String query, @NotNull List<Object> bindings, @NotNull ResultCallback<T> callback)
+    {
+        return run(query, bindings, (me, statement) ->
+        {
+            if ( me.pretend )
+            {
+                return null;
+            }
+
+            try ( ResultSet resultSet = statement.executeQuery() )
+            {
+                return callback.handle(resultSet);
+            }
+        });
+    }
+
+    /**
+     * Opens a cursor over the results of a SELECT query.
+     *
+     * The connection is held by the current thread until the cursor is closed, so queries run while iterating share
+     * it. Close the cursor on the thread that opened it.
+     *
+     * @param query     SQL query
+     * @param bindings  Bindings
+     * @param processor Post Processor used to build each Row
+     * @param fetchSize JDBC fetch size, 0 for the connection default
+     *
+     * @return Open Cursor, or null when the query failed
+     */
+    @Nullable
+    public Cursor cursor(@Nullable String query, @NotNull List<Object> bindings, @NotNull PostProcessor processor,
+                         int fetchSize)
+    {
+        if ( query == null )
+        {
+            throw new ConnectionException("Connection: NULL Query Provided.");
+        }
+
+        long start = System.nanoTime();
+
+        PooledConnection pooled = lease.get();
+        boolean borrowed = pooled == null;
+
+        if ( borrowed )
+        {
+            pooled = getPool().borrow();
+
+            if ( pooled == null )
+            {
+                DB.getDispatcher().dispatch("cant-connect");
+
+                return null;
+            }
+
+            lease.set(pooled);
+        }
+
+        PreparedStatement statement = null;
+
+        try
+        {
+            statement = getStatement(query);
+            statement.setFetchSize(fetchSize != 0 ? fetchSize : getCursorFetchSize());
+            bindValues(statement, bindings);
+
+            ResultSet resultSet = statement.executeQuery();
+
+            publish(query, bindings, start, -1, null);
+
+            PooledConnection held = pooled;
+            PreparedStatement opened = statement;
+
+            return new Cursor(query, resultSet, processor, () -> closeCursor(held, opened, borrowed));
+        } catch ( SQLException e )
+        {
+            e.printStackTrace();
+
+            publish(query, bindings, start, -1, e);
+
+            if ( statement != null )
+            {
+                closeStatement(statement);
+            }
+
+            if ( borrowed )
+            {
+                lease.remove();
+
+                if ( getPool().causedByLostConnections(e) )
+                {
+                    getPool().invalidate(pooled);
+                } else
+                {
+                    getPool().release(pooled);
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Closes a cursor's statement and returns its connection to the pool when the cursor borrowed it.
+     *
+     * @param pooled    Pooled Connection the cursor ran on
+     * @param statement Cursor Statement
+     * @param borrowed  True if the cursor borrowed the connection
+     */
+    private void closeCursor(@NotNull PooledConnection pooled, @NotNull PreparedStatement statement, boolean borrowed)
+    {
+        closeStatement(statement);
+
+        if ( borrowed )
+        {
+            if ( lease.get() == pooled )
+            {
+                lease.remove();
+            }
+
+            getPool().release(pooled);
+        }
+    }
+
+    /**
+     * The fetch size cursors use unless the query sets its own, 0 leaves it to the driver.
+     *
+     * @return JDBC fetch size
+     */
+    public int getCursorFetchSize()
+    {
+        return 0;
     }
 
     /**
@@ -303,6 +901,64 @@ public abstract class Connection
         return affectingStatement(query);
     }
 
+    /**
+     * Performs an INSERT statement with bindings.
+     *
+     * @param query    SQL Query
+     * @param bindings Bindings
+     *
+     * @return Number of affected rows
+     */
+    public int insert(String query, @NotNull List<Object> bindings)
+    {
+        return affectingStatement(query, bindings);
+    }
+
+    /**
+     * Performs an INSERT statement and reads back the keys it generated.
+     *
+     * @param query    SQL Query
+     * @param bindings Bindings
+     *
+     * @return Affected rows and generated keys, or null when the query failed
+     */
+    @Nullable
+    public InsertResult insertWithKeys(String query, @NotNull List<Object> bindings)
+    {
+        return run(query, bindings, (me, statement) ->
+        {
+            int affected = statement.executeUpdate();
+
+            return new InsertResult(affected, me.readGeneratedKeys(statement, affected));
+        });
+    }
+
+    /**
+     * Reads the keys generated by an INSERT statement that has just run.
+     *
+     * @param statement Executed statement
+     * @param affected  Rows it inserted
+     *
+     * @return Generated keys in insert order
+     *
+     * @throws SQLException When the keys cant be read
+     */
+    @NotNull
+    protected List<Long> readGeneratedKeys(@NotNull PreparedStatement statement, int affected) throws SQLException
+    {
+        List<Long> keys = new ArrayList<>();
+
+        try ( ResultSet resultSet = statement.getGeneratedKeys() )
+        {
+            while ( resultSet.next() )
+            {
+                keys.add(resultSet.getLong(1));
+            }
+        }
+
+        return keys;
+    }
+
     /**
      * Performs an UPDATE statement.
      *
@@ -315,6 +971,19 @@ public abstract class Connection
         return affectingStatement(query);
     }
 
+    /**
+     * Performs an UPDATE statement with bindings.
+     *
+     * @param query    SQL Query
+     * @param bindings Bindings
+     *
+     * @return Number of affected rows
+     */
+    public int update(String query, @NotNull List<Object> bindings)
+    {
+        return affectingStatement(query, bindings);
+    }
+
     /**
      * Performs a DELETE statement.
      *
@@ -327,6 +996,19 @@ public abstract class Connection
         return affectingStatement(query);
     }
 
+    /**
+     * Performs a DELETE statement with bindings.
+     *
+     * @param query    SQL
+     * @param bindings Bindings
+     *
+     * @return Number of affected rows
+     */
+    public int delete(String query, @NotNull List<Object> bindings)
+    {
+        return affectingStatement(query, bindings);
+    }
+
     /**
      * Gets the adapter on the connection.
      *
@@ -339,89 +1021,119 @@ public abstract class Connection
     }
 
     /**
-     * Gets the JDBC Connection
+     * Gets the JDBC Connection held by the current thread, while a query runs or a transaction is open.
      *
      * @return The JDBC Connection
      */
     @Nullable
     public java.sql.Connection getConnection()
     {
-        return connection;
+        PooledConnection pooled = lease.get();
+
+        return pooled != null ? pooled.getConnection() : null;
     }
 
     /**
-     * Closes the connection.
+     * Closes the connection pool and every idle JDBC connection in it.
      */
-    public void closeConnection()
+    public synchronized void closeConnection()
     {
-//        if ( connection != null )
-//        {
-//            try
-//            {
-//                connection.close();
-//            } catch ( SQLException e )
-//            {
-//                e.printStackTrace();
-//            }
-//        }
+        if ( pool != null )
+        {
+            pool.close();
+
+            pool = null;
+        }
     }
 
     /**
-     * Returns the result set.
-     *
-     * @return Cached ResultSet
+     * @return Name the connection is known by in query events
      */
-    @Nullable
-    private ResultSet cachedResults()
+    @NotNull
+    public String getName()
     {
-        return cachedResults;
+        return name;
     }
 
     /**
-     * Returns the query status.
+     * @param name Name the connection is known by in query events
      *
-     * @return if the query is not result set
+     * @return this
+     */
+    @NotNull
+    public Connection setName(@NotNull String name)
+    {
+        this.name = name;
+
+        return this;
+    }
+
+    /**
+     * Returns the query log for this connection, filled when DB.getQueryEvents() is at the INFO level or above.
      *
-     * @implNote Needs renaming
+     * @return Query Log
      */
-    private boolean queryStatus()
+    @NotNull
+    public QueryLog getQueryLog()
     {
-        return queryStatus;
+        return queryLog;
     }
 
     /**
-     * Returns the number of updated records.
+     * Returns the slow query log for this connection, filled once a slow query threshold is set.
      *
-     * @return Number of Updated records
+     * @return Slow Query Log
      */
-    private int updatedRecords()
+    @NotNull
+    public SlowQueryLog getSlowQueryLog()
     {
-        return updatedRecords;
+        return slowQueryLog;
     }
 
     /**
-     * Returns the elapsed time
+     * Returns the cache holding the rows of queries run with QueryBuilder.remember().
      *
-     * @param start Start time
+     * @return Result Cache
+     */
+    @NotNull
+    public ResultCache getResultCache()
+    {
+        return resultCache;
+    }
+
+    /**
+     * Returns the cache holding the rows found with QueryBuilder.find() and findMany().
      *
-     * @return Elapsed time in microseconds
+     * @return Row Cache
      */
-    private long getElapsedTime(long start)
+    @NotNull
+    public RowCache getRowCache()
     {
-        long end = System.nanoTime();
+        return rowCache;
+    }
 
-        return (end - start) / 1000;
+    /**
+     * @return Time in nanoseconds from which a query counts as slow, -1 when slow queries are not recorded
+     */
+    public long getSlowQueryThreshold()
+    {
+        return slowQueryThreshold;
     }
 
     /**
-     * Returns the query log for this connection.
+     * Records every query taking at least this long in the slow query log, and captures its plan.
      *
-     * @return Query Log
+     * @param threshold Time from which a query counts as slow, negative to stop recording
+     * @param unit      Unit of the threshold
+     *
+     * @return this
      */
     @NotNull
-    public QueryLog getQueryLog()
+    public Connection setSlowQueryThreshold(long threshold, @NotNull TimeUnit unit)
     {
-        return queryLog;
+        this.slowQueryThreshold = threshold < 0 ? -1 : unit.toNanos(threshold);
+
+        return this;
     }
 
     /**
@@ -461,42 +1173,144 @@ public abstract class Connection
 
     /**
      * Begins a transaction on this connection.
+     *
+     * A JDBC connection is borrowed and held by the current thread until the transaction is committed or rolled back,
+     * so every query in between runs on it.
      */
     public void beginTransaction()
     {
+        if ( lease.get() != null )
+        {
+            throw new ConnectionException("A transaction or cursor is already open on this thread.");
+        }
+
+        PooledConnection pooled = getPool().borrow();
+
+        if ( pooled == null )
+        {
+            DB.getDispatcher().dispatch("cant-connect");
+
+            return;
+        }
+
         try
         {
-            this.getConnection().setAutoCommit(false);
+            pooled.getConnection().setAutoCommit(false);
+
+            lease.set(pooled);
         } catch ( SQLException e )
         {
+            getPool().invalidate(pooled);
+
             e.printStackTrace();
         }
     }
 
     /**
-     * Rolls back an transaction on this connection.
+     * Runs the callback inside a transaction, committing when it returns and rolling back when it throws.
+     *
+     * When the current thread already has a transaction open the callback simply joins it.
+     *
+     * @param callback Work to run
+     *
+     * @return The callback result
      */
-    public void rollbackTransaction()
+    public <T> T transaction(@NotNull TransactionCallback<T> callback)
+    {
+        if ( inTransaction() )
+        {
+            return callback.run(this);
+        }
+
+        beginTransaction();
+
+        if ( ! inTransaction() )
+        {
+            throw new ConnectionException("Could not begin a transaction.");
+        }
+
+        T result;
+
+        try
+        {
+            result = callback.run(this);
+        } catch ( RuntimeException e )
+        {
+            rollbackTransaction();
+
+            throw e;
+        }
+
+        commitTransaction();
+
+        return result;
+    }
+
+    /**
+     * @return True if the current thread has a transaction open on this connection
+     */
+    public boolean inTransaction()
     {
+        PooledConnection pooled = lease.get();
+
         try
         {
-            this.getConnection().rollback();
+            return pooled != null && ! pooled.getConnection().getAutoCommit();
         } catch ( SQLException e )
         {
-            e.printStackTrace();
+            return false;
         }
     }
 
+    /**
+     * Rolls back an transaction on this connection.
+     */
+    public void rollbackTransaction()
+    {
+        endTransaction(false);
+    }
+
     /**
      * Commits a transaction stored on this connection.
      */
     public void commitTransaction()
     {
+        endTransaction(true);
+    }
+
+    /**
+     * Commits or rolls back the current thread's transaction and returns its connection to the pool.
+     *
+     * @param commit True to commit, false to roll back
+     */
+    private void endTransaction(boolean commit)
+    {
+        PooledConnection pooled = lease.get();
+
+        if ( pooled == null )
+        {
+            return;
+        }
+
+        lease.remove();
+
         try
         {
-            this.getConnection().commit();
+            if ( commit )
+            {
+                pooled.getConnection().commit();
+            } else
+            {
+                pooled.getConnection().rollback();
+            }
+
+            pooled.getConnection().setAutoCommit(true);
+
+            getPool().release(pooled);
         } catch ( SQLException e )
         {
+            getPool().invalidate(pooled);
+
             e.printStackTrace();
         }
     }
@@ -0,0 +1,493 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core;
+
+import com.jimmyhowe.jhdb.core.exceptions.ConnectionException;
+import com.jimmyhowe.jhdb.core.exceptions.InvalidArgumentException;
+import com.jimmyhowe.jhdb.core.support.DetectsLostConnections;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection Pool
+ *
+ * Keeps a bounded set of JDBC connections opened by a Connector so queries can borrow one instead of connecting each
+ * time. Settings are read from the plugin properties, see the key constants below. Timeouts are in milliseconds and a
+ * value of 0 disables the idle timeout or max lifetime.
+ */
+public class ConnectionPool implements DetectsLostConnections
+{
+    /**
+     * Connections kept open even when idle
+     */
+    public static final String MIN_SIZE = "pool.minSize";
+
+    /**
+     * Maximum number of open connections
+     */
+    public static final String MAX_SIZE = "pool.maxSize";
+
+    /**
+     * Idle time before a connection above the minimum is closed
+     */
+    public static final String IDLE_TIMEOUT = "pool.idleTimeout";
+
+    /**
+     * Time after which a connection is retired
+     */
+    public static final String MAX_LIFETIME = "pool.maxLifetime";
+
+    /**
+     * Time to wait for a free connection before giving up
+     */
+    public static final String BORROW_TIMEOUT = "pool.borrowTimeout";
+
+    /**
+     * Prepared statements cached on each connection, 0 to disable
+     */
+    public static final String STATEMENT_CACHE_SIZE = "pool.statementCacheSize";
+
+    /**
+     * Connections used more recently than this are handed out without validation.
+     */
+    private static final long VALIDATION_BYPASS = 500;
+
+    /**
+     * Seconds given to a connection to answer its validation check.
+     */
+    private static final int VALIDATION_TIMEOUT = 5;
+
+    /**
+     * Housekeeping interval in milliseconds.
+     */
+    private static final long HOUSEKEEPING_INTERVAL = 30000;
+
+    /**
+     * Shared housekeeping thread for every pool.
+     */
+    @Nullable
+    private static ScheduledExecutorService housekeeper;
+
+    /**
+     * Connector used to open new connections.
+     */
+    @NotNull
+    private final Connector connector;
+
+    /**
+     * Connection config passed to the connector.
+     */
+    @Nullable
+    private final Properties config;
+
+    /**
+     * Idle connections, most recently used first.
+     */
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+
+    /**
+     * One permit per connection that may still be handed out.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Number of open connections, idle or borrowed.
+     */
+    private final AtomicInteger total = new AtomicInteger();
+
+    private final int minSize;
+
+    private final int maxSize;
+
+    private final long idleTimeout;
+
+    private final long maxLifetime;
+
+    private final long borrowTimeout;
+
+    private final int statementCacheSize;
+
+    @Nullable
+    private ScheduledFuture<?> housekeeping;
+
+    private volatile boolean closed = false;
+
+    /**
+     * @param connector Connector
+     * @param config    Plugin properties
+     */
+    public ConnectionPool(@NotNull Connector connector, @Nullable Properties config)
+    {
+        this.connector = connector;
+        this.config = config;
+
+        this.maxSize = Math.max(1, (int) setting(MAX_SIZE, 10));
+        this.minSize = Math.min(maxSize, Math.max(0, (int) setting(MIN_SIZE, 0)));
+        this.idleTimeout = setting(IDLE_TIMEOUT, 600000);
+        this.maxLifetime = setting(MAX_LIFETIME, 1800000);
+        this.borrowTimeout = setting(BORROW_TIMEOUT, 30000);
+        this.statementCacheSize = Math.max(0, (int) setting(STATEMENT_CACHE_SIZE, 64));
+
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the borrow timeout for one to be returned when the pool is exhausted.
+     *
+     * @return Pooled Connection, or null when the connector could not connect
+     *
+     * @throws ConnectionException When the pool is closed or the borrow timed out
+     */
+    @Nullable
+    public PooledConnection borrow()
+    {
+        if ( closed )
+        {
+            throw new ConnectionException("Connection pool is closed.");
+        }
+
+        startHousekeeping();
+
+        try
+        {
+            if ( ! permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS) )
+            {
+                throw new ConnectionException("Timed out after " + borrowTimeout + "ms waiting for a pooled connection.");
+            }
+        } catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+
+            throw new ConnectionException("Interrupted while waiting for a pooled connection.");
+        }
+
+        try
+        {
+            PooledConnection pooled;
+
+            while ( (pooled = idle.pollFirst()) != null )
+            {
+                if ( isExpired(pooled) || ! validate(pooled) )
+                {
+                    destroy(pooled);
+
+                    continue;
+                }
+
+                pooled.touch();
+
+                return pooled;
+            }
+
+            pooled = create();
+
+            if ( pooled == null )
+            {
+                permits.release();
+            }
+
+            return pooled;
+        } catch ( RuntimeException e )
+        {
+            permits.release();
+
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a healthy connection to the pool.
+     *
+     * @param pooled Pooled Connection
+     */
+    public void release(@NotNull PooledConnection pooled)
+    {
+        pooled.touch();
+
+        if ( closed || isExpired(pooled) )
+        {
+            destroy(pooled);
+        } else
+        {
+            idle.offerFirst(pooled);
+        }
+
+        permits.release();
+    }
+
+    /**
+     * Discards a borrowed connection that is broken, for example after a lost connection error.
+     *
+     * @param pooled Pooled Connection
+     */
+    public void invalidate(@NotNull PooledConnection pooled)
+    {
+        destroy(pooled);
+
+        permits.release();
+    }
+
+    /**
+     * Closes all idle connections and stops handing out new ones. Borrowed connections are closed when returned.
+     */
+    public void close()
+    {
+        closed = true;
+
+        if ( housekeeping != null )
+        {
+            housekeeping.cancel(false);
+        }
+
+        PooledConnection pooled;
+
+        while ( (pooled = idle.pollFirst()) != null )
+        {
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * @return Number of open connections
+     */
+    public int getTotalConnections()
+    {
+        return total.get();
+    }
+
+    /**
+     * @return Number of idle connections
+     */
+    public int getIdleConnections()
+    {
+        return idle.size();
+    }
+
+    /**
+     * @return Maximum number of connections
+     */
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * @return Prepared statements cached per connection
+     */
+    public int getStatementCacheSize()
+    {
+        return statementCacheSize;
+    }
+
+    /**
+     * Closes connections that have been idle too long or lived too long, then tops the pool back up to its minimum.
+     */
+    void evict()
+    {
+        List<PooledConnection> retired = new ArrayList<>();
+
+        for ( PooledConnection pooled : idle )
+        {
+            boolean idleTooLong = idleTimeout > 0 && pooled.getIdleTime() > idleTimeout
+                    && total.get() - retired.size() > minSize;
+
+            if ( (idleTooLong || isExpired(pooled)) && idle.remove(pooled) )
+            {
+                retired.add(pooled);
+            }
+        }
+
+        retired.forEach(this::destroy);
+
+        while ( ! closed && total.get() < minSize && permits.tryAcquire() )
+        {
+            PooledConnection pooled = create();
+
+            if ( pooled != null )
+            {
+                idle.offerLast(pooled);
+            }
+
+            permits.release();
+
+            if ( pooled == null )
+            {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Checks the connection is still alive, skipping the check for connections that were just used.
+     *
+     * @param pooled Pooled Connection
+     *
+     * @return True if the connection can be used
+     */
+    private boolean validate(@NotNull PooledConnection pooled)
+    {
+        if ( pooled.getIdleTime() < VALIDATION_BYPASS )
+        {
+            return true;
+        }
+
+        try
+        {
+            try
+            {
+                return pooled.getConnection().isValid(VALIDATION_TIMEOUT);
+            } catch ( SQLFeatureNotSupportedException | AbstractMethodError e )
+            {
+                try ( Statement statement = pooled.getConnection().createStatement() )
+                {
+                    statement.execute("SELECT 1");
+
+                    return true;
+                }
+            }
+        } catch ( SQLException e )
+        {
+            if ( causedByLostConnections(e) )
+            {
+                DB.getRunningLog().info("Discarding pooled connection, connection was lost.");
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * @param pooled Pooled Connection
+     *
+     * @return True if the connection has outlived the max lifetime
+     */
+    private boolean isExpired(@NotNull PooledConnection pooled)
+    {
+        return maxLifetime > 0 && pooled.getAge() > maxLifetime;
+    }
+
+    /**
+     * Opens a new connection through the connector.
+     *
+     * @return Pooled Connection or null when the connector failed
+     */
+    @Nullable
+    private PooledConnection create()
+    {
+        java.sql.Connection connection = connector.connect(config);
+
+        if ( connection == null )
+        {
+            return null;
+        }
+
+        total.incrementAndGet();
+
+        DB.getDispatcher().dispatch("connector.created");
+
+        return new PooledConnection(connection, statementCacheSize);
+    }
+
+    /**
+     * @param pooled Pooled Connection
+     */
+    private void destroy(@NotNull PooledConnection pooled)
+    {
+        total.decrementAndGet();
+
+        pooled.close();
+    }
+
+    /**
+     * Registers this pool with the shared housekeeping thread.
+     */
+    private synchronized void startHousekeeping()
+    {
+        if ( housekeeping != null )
+        {
+            return;
+        }
+
+        housekeeping = getHousekeeper().scheduleWithFixedDelay(
+                this::evict, HOUSEKEEPING_INTERVAL, HOUSEKEEPING_INTERVAL, TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * @return The shared housekeeping executor
+     */
+    @NotNull
+    private static synchronized ScheduledExecutorService getHousekeeper()
+    {
+        if ( housekeeper == null )
+        {
+            housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "jhdb-pool-housekeeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        return housekeeper;
+    }
+
+    /**
+     * @param key          Property key
+     * @param defaultValue Default value
+     *
+     * @return Numeric setting
+     */
+    private long setting(@NotNull String key, long defaultValue)
+    {
+        String value = config != null ? config.getProperty(key) : null;
+
+        if ( value == null || value.isEmpty() )
+        {
+            return defaultValue;
+        }
+
+        try
+        {
+            return Long.parseLong(value.trim());
+        } catch ( NumberFormatException e )
+        {
+            throw new InvalidArgumentException("Pool setting " + key + " must be a number, got '" + value + "'.");
+        }
+    }
+}
@@ -26,16 +26,22 @@ package com.jimmyhowe.jhdb.core;
 
 import com.jimmyhowe.dispatcher.Dispatcher;
 import com.jimmyhowe.dispatcher.Listener;
+import com.jimmyhowe.jhdb.core.events.ConsoleQuerySink;
+import com.jimmyhowe.jhdb.core.events.LogLevel;
+import com.jimmyhowe.jhdb.core.events.QueryEvents;
 import com.jimmyhowe.jhdb.core.exceptions.InvalidArgumentException;
 import com.jimmyhowe.jhdb.core.queries.QueryBuilder;
+import com.jimmyhowe.jhdb.core.support.TransactionCallback;
 import com.jimmyhowe.jhlog.Log;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.sql.ResultSet;
 import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Database Facade
@@ -48,7 +54,7 @@ public class DB
     public static final String DEFAULT_PLUGIN_KEY = "_default";
 
     /**
-     * Outputs queries before performing
+     * Outputs queries after performing
      */
     public static boolean liveQueries = false;
 
@@ -70,10 +76,12 @@ public class DB
     private static LinkedHashMap<String, Plugin> plugins = new LinkedHashMap<>();
 
     /**
-     * List of Connections
+     * List of Connections, keyed by the plugin they were resolved from. Lookups don't lock, and computeIfAbsent
+     * creates a plugin's connection only once even when first requested from several threads. Flushing and forgetting
+     * connections lock the map so they don't close a connection twice.
      */
     @NotNull
-    private static LinkedHashMap<String, Connection> connections = new LinkedHashMap<>();
+    private static final ConcurrentMap<String, Connection> connections = new ConcurrentHashMap<>();
 
     /**
      * Default Plugin Key
@@ -86,6 +94,12 @@ public class DB
     @NotNull
     private static Log runningLog = new Log();
 
+    /**
+     * Query events of every connection
+     */
+    @NotNull
+    private static final QueryEvents queryEvents = new QueryEvents();
+
     /**
      * This registers the default connection using the provided adapter and stores it in the list of connections.
      *
@@ -139,6 +153,8 @@ public class DB
 
         plugins.put(key, plugin);
 
+        forgetConnection(key);
+
         DB.getRunningLog().info("Registered " + plugin.getClass().getSimpleName() + " plugin as '" + key + "'.");
 
         return plugins.get(key);
@@ -163,6 +179,8 @@ public class DB
 
         plugins.put(key, plugin);
 
+        forgetConnection(key);
+
         DB.getRunningLog().info("Registered " + plugin.getClass().getSimpleName() + " plugin as '" + key + "'.");
 
         return plugin;
@@ -206,12 +224,7 @@ public class DB
             throw new InvalidArgumentException("Plugin '" + key + "' does not exist.");
         }
 
-        if ( ! connections.containsKey(key) )
-        {
-            throw new InvalidArgumentException("Connection '" + key + "' does not exist.");
-        }
-
-        return connections.get(key);
+        return resolveConnectionFromPlugin(key);
     }
 
     /**
@@ -238,7 +251,7 @@ public class DB
             throw new InvalidArgumentException("Default plugin is not set.");
         }
 
-        return plugins.get(defaultPluginKey).getConnection();
+        return resolveConnectionFromPlugin(defaultPluginKey);
     }
 
     /**
@@ -253,13 +266,19 @@ public class DB
 
         DB.getDispatcher().dispatch("flushing");
 
-        for ( Map.Entry<String, Connection> entries : connections.entrySet() )
+        synchronized ( connections )
         {
-            entries.getValue().closeConnection();
+            for ( String key : connections.keySet() )
+            {
+                Connection connection = connections.remove(key);
+
+                if ( connection != null )
+                {
+                    connection.closeConnection();
+                }
+            }
         }
 
-        connections = new LinkedHashMap<>();
-
         DB.getDispatcher().dispatch("flushed");
     }
 
@@ -310,6 +329,20 @@ public class DB
         return getDefaultConnection().select(query);
     }
 
+    /**
+     * Performs a select query with bindings against the default connection.
+     *
+     * @param query    SQL
+     * @param bindings Values for the query placeholders
+     *
+     * @return Results
+     */
+    @Nullable
+    public static ResultSet select(String query, Object... bindings)
+    {
+        return getDefaultConnection().select(query, bindings);
+    }
+
     /**
      * Performs an insert on the default connection.
      *
@@ -346,6 +379,18 @@ public class DB
         return getDefaultConnection().delete(query);
     }
 
+    /**
+     * Runs the callback inside a transaction on the default connection.
+     *
+     * @param callback Work to run
+     *
+     * @return The callback result
+     */
+    public static <T> T transaction(@NotNull TransactionCallback<T> callback)
+    {
+        return getDefaultConnection().transaction(callback);
+    }
+
     /**
      * Begins a transaction on the default connection.
      */
@@ -383,11 +428,43 @@ public class DB
 //    }
 
     /**
-     * Outputs queries to the stdout before processing
+     * Outputs queries to the stdout once they have run, printed from the query events thread.
      */
-    public static void liveQueries()
+    public static synchronized void liveQueries()
     {
+        if ( liveQueries )
+        {
+            return;
+        }
+
         liveQueries = true;
+
+        logQueries(LogLevel.INFO);
+
+        queryEvents.addSink(new ConsoleQuerySink());
+    }
+
+    /**
+     * Publishes query events at the level, filling each connection's query log and the sinks. Never lowers a level
+     * that is already more detailed.
+     *
+     * @param level Level
+     */
+    public static void logQueries(@NotNull LogLevel level)
+    {
+        if ( queryEvents.getLevel().compareTo(level) < 0 )
+        {
+            queryEvents.setLevel(level);
+        }
+    }
+
+    /**
+     * @return Query events of every connection
+     */
+    @NotNull
+    public static QueryEvents getQueryEvents()
+    {
+        return queryEvents;
     }
 
     /**
@@ -469,20 +546,58 @@ public class DB
     }
 
     /**
+     * Returns the connection registered for the plugin, creating it from the plugin on first use. Every later call
+     * for the same key returns the same Connection, so its JDBC link is opened once and then reused.
+     *
      * @param plugin Plugin name
      *
      * @return Connection
      */
     public static Connection resolveConnectionFromPlugin(String plugin)
     {
-        return getPlugin(plugin).getConnection();
+        Connection connection = connections.get(plugin);
+
+        if ( connection != null )
+        {
+            return connection;
+        }
+
+        return connections.computeIfAbsent(plugin, key ->
+        {
+            Connection created = getPlugin(key).getConnection();
+            created.setName(key);
+
+            DB.getRunningLog().debug("Created connection for '" + key + "'.");
+
+            return created;
+        });
+    }
+
+    /**
+     * Closes and removes the cached connection for a plugin key, if there is one.
+     *
+     * @param key Plugin key
+     */
+    private static void forgetConnection(String key)
+    {
+        synchronized ( connections )
+        {
+            Connection connection = connections.remove(key);
+
+            if ( connection != null )
+            {
+                connection.closeConnection();
+            }
+        }
     }
 
     /**
-     * Empties the plugins
+     * Empties the plugins, closing any connections created from them.
      */
     public static void flushPlugins()
     {
+        flushConnections();
+
         plugins = new LinkedHashMap<>();
     }
 
@@ -491,6 +606,6 @@ public class DB
      */
     public static Set<String> getConnectionList()
     {
-        return connections.keySet();
+        return new LinkedHashSet<>(connections.keySet());
     }
 }
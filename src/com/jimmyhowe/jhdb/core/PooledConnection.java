@@ -0,0 +1,194 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core;
+
+import com.jimmyhowe.jhdb.core.utilities.LruCache;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * A JDBC connection owned by a ConnectionPool
+ *
+ * Keeps the timestamps the pool needs to decide when the connection has been idle or alive for too long, and the
+ * prepared statements cached on it, which live and die with the physical connection.
+ */
+public class PooledConnection
+{
+    /**
+     * The physical JDBC connection.
+     */
+    @NotNull
+    private final java.sql.Connection connection;
+
+    /**
+     * When the connection was opened, in nanoseconds.
+     */
+    private final long createdAt;
+
+    /**
+     * When the connection was last handed out or returned, in nanoseconds.
+     */
+    private volatile long lastUsedAt;
+
+    /**
+     * Prepared statements by SQL, closed when evicted.
+     */
+    @NotNull
+    private final LruCache<String, PreparedStatement> statements;
+
+    /**
+     * @param connection JDBC Connection
+     */
+    PooledConnection(@NotNull java.sql.Connection connection)
+    {
+        this(connection, 0);
+    }
+
+    /**
+     * @param connection         JDBC Connection
+     * @param statementCacheSize Number of prepared statements to keep, 0 to disable
+     */
+    PooledConnection(@NotNull java.sql.Connection connection, int statementCacheSize)
+    {
+        this.connection = connection;
+        this.createdAt = System.nanoTime();
+        this.lastUsedAt = createdAt;
+        this.statements = new LruCache<>(statementCacheSize, PooledConnection::closeStatement);
+    }
+
+    /**
+     * @return The JDBC Connection
+     */
+    @NotNull
+    public java.sql.Connection getConnection()
+    {
+        return connection;
+    }
+
+    /**
+     * Takes a cached statement for the SQL out of the cache, so a nested query with the same SQL can't use it at the
+     * same time.
+     *
+     * @param sql SQL Query
+     *
+     * @return Prepared Statement, or null when not cached
+     */
+    @Nullable
+    PreparedStatement takeStatement(@NotNull String sql)
+    {
+        return statements.remove(sql);
+    }
+
+    /**
+     * Puts a statement back in the cache once its results have been read, or closes it when it can't be reused.
+     *
+     * @param sql       SQL Query
+     * @param statement Prepared Statement
+     */
+    void returnStatement(@NotNull String sql, @NotNull PreparedStatement statement)
+    {
+        try
+        {
+            statement.clearParameters();
+        } catch ( SQLException e )
+        {
+            closeStatement(statement);
+
+            return;
+        }
+
+        PreparedStatement previous = statements.put(sql, statement);
+
+        if ( previous != null && previous != statement )
+        {
+            closeStatement(previous);
+        }
+    }
+
+    /**
+     * @return Number of cached statements
+     */
+    int getCachedStatements()
+    {
+        return statements.size();
+    }
+
+    /**
+     * Marks the connection as used now.
+     */
+    void touch()
+    {
+        lastUsedAt = System.nanoTime();
+    }
+
+    /**
+     * @return Milliseconds since the connection was opened
+     */
+    long getAge()
+    {
+        return (System.nanoTime() - createdAt) / 1000000;
+    }
+
+    /**
+     * @return Milliseconds since the connection was last used
+     */
+    long getIdleTime()
+    {
+        return (System.nanoTime() - lastUsedAt) / 1000000;
+    }
+
+    /**
+     * Closes the cached statements and the physical connection.
+     */
+    void close()
+    {
+        statements.clear();
+
+        try
+        {
+            connection.close();
+        } catch ( SQLException e )
+        {
+            DB.getRunningLog().error("Failed to close pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @param statement Statement to close
+     */
+    private static void closeStatement(@NotNull PreparedStatement statement)
+    {
+        try
+        {
+            statement.close();
+        } catch ( SQLException e )
+        {
+            DB.getRunningLog().error("Failed to close cached statement: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.events;
+
+import com.jimmyhowe.jhdb.core.Connection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A query that ran, published to the QueryEvents pipeline once it finished.
+ *
+ * Nothing is formatted when the event is made, toString() is only called by whoever reads it.
+ */
+public final class QueryEvent
+{
+    @NotNull
+    private final Connection connection;
+
+    @NotNull
+    private final String sql;
+
+    @NotNull
+    private final List<Object> bindings;
+
+    private final long elapsedNanos;
+
+    private final long rows;
+
+    private final boolean failed;
+
+    @Nullable
+    private final Throwable exception;
+
+    private final long timestamp = System.currentTimeMillis();
+
+    /**
+     * @param connection   Connection the query ran on
+     * @param sql          SQL Query
+     * @param bindings     Bound values, empty below the DEBUG level unless the query was slow
+     * @param elapsedNanos Time the query took
+     * @param rows         Rows returned or affected, -1 when not known
+     * @param failed       True if the query threw
+     */
+    public QueryEvent(@NotNull Connection connection, @NotNull String sql, @NotNull List<Object> bindings,
+                      long elapsedNanos, long rows, boolean failed)
+    {
+        this(connection, sql, bindings, elapsedNanos, rows, failed, null);
+    }
+
+    /**
+     * @param connection   Connection the query ran on
+     * @param sql          SQL Query
+     * @param bindings     Bound values, empty below the DEBUG level unless the query was slow
+     * @param elapsedNanos Time the query took
+     * @param rows         Rows returned or affected, -1 when not known
+     * @param failed       True if the query threw
+     * @param exception    What the query or its callback threw, or null
+     */
+    public QueryEvent(@NotNull Connection connection, @NotNull String sql, @NotNull List<Object> bindings,
+                      long elapsedNanos, long rows, boolean failed, @Nullable Throwable exception)
+    {
+        this.connection = connection;
+        this.sql = sql;
+        this.bindings = bindings;
+        this.elapsedNanos = elapsedNanos;
+        this.rows = rows;
+        this.failed = failed;
+        this.exception = exception;
+    }
+
+    /**
+     * @return Connection the query ran on
+     */
+    @NotNull
+    public Connection getConnection()
+    {
+        return connection;
+    }
+
+    /**
+     * @return Key the connection was registered under
+     */
+    @NotNull
+    public String getConnectionName()
+    {
+        return connection.getName();
+    }
+
+    /**
+     * @return SQL Query
+     */
+    @NotNull
+    public String getSql()
+    {
+        return sql;
+    }
+
+    /**
+     * @return Bound values, empty below the DEBUG level unless the query was slow
+     */
+    @NotNull
+    public List<Object> getBindings()
+    {
+        return bindings;
+    }
+
+    /**
+     * @return Time the query took in nanoseconds
+     */
+    public long getElapsedNanos()
+    {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return Time the query took in microseconds
+     */
+    public long getElapsedMicros()
+    {
+        return TimeUnit.NANOSECONDS.toMicros(elapsedNanos);
+    }
+
+    /**
+     * @return Rows returned or affected, -1 when not known such as for a ResultSet handed to the caller
+     */
+    public long getRows()
+    {
+        return rows;
+    }
+
+    /**
+     * @return True if the query threw
+     */
+    public boolean isFailed()
+    {
+        return failed;
+    }
+
+    /**
+     * @return What the query or its callback threw, or null
+     */
+    @Nullable
+    public Throwable getException()
+    {
+        return exception;
+    }
+
+    /**
+     * @return When the query finished, in epoch milliseconds
+     */
+    public long getTimestamp()
+    {
+        return timestamp;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder line = new StringBuilder("> [").append(getConnectionName()).append("] ").append(sql);
+
+        if ( ! bindings.isEmpty() )
+        {
+            line.append(' ').append(bindings);
+        }
+
+        line.append(" - ").append(getElapsedMicros()).append(" microseconds");
+
+        if ( failed )
+        {
+            line.append(", failed");
+
+            if ( exception != null )
+            {
+                line.append(": ").append(exception);
+            }
+        } else if ( rows >= 0 )
+        {
+            line.append(", ").append(rows).append(rows == 1 ? " row" : " rows");
+        }
+
+        return line.toString();
+    }
+}
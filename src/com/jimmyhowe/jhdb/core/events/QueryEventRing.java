@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.events;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock free queue of query events, written by any thread and read by one.
+ *
+ * Each slot carries a sequence number that tells a writer whether the slot is free for its lap around the ring and the
+ * reader whether it has been filled, so neither side ever takes a lock or waits. A full ring rejects the event rather
+ * than blocking the query that made it.
+ */
+final class QueryEventRing
+{
+    private final int mask;
+
+    @NotNull
+    private final AtomicReferenceArray<QueryEvent> events;
+
+    @NotNull
+    private final AtomicLongArray sequences;
+
+    /**
+     * Next position to write, claimed by writers
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Next position to read, only moved by the reader
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity Events held, rounded up to a power of two
+     */
+    QueryEventRing(int capacity)
+    {
+        int size = 2;
+
+        while ( size < capacity )
+        {
+            size <<= 1;
+        }
+
+        this.mask = size - 1;
+        this.events = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+
+        for ( int i = 0; i < size; i++ )
+        {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @param event Query Event
+     *
+     * @return False if the ring is full
+     */
+    boolean offer(@NotNull QueryEvent event)
+    {
+        long position = tail.get();
+
+        while ( true )
+        {
+            int index = (int) position & mask;
+            long lap = sequences.get(index) - position;
+
+            if ( lap == 0 )
+            {
+                if ( tail.compareAndSet(position, position + 1) )
+                {
+                    events.lazySet(index, event);
+                    sequences.lazySet(index, position + 1);
+
+                    return true;
+                }
+
+                position = tail.get();
+            } else if ( lap < 0 )
+            {
+                return false;
+            } else
+            {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest event, only called by the reader thread.
+     *
+     * @return Oldest event, or null when empty or the next one is still being written
+     */
+    @Nullable
+    QueryEvent poll()
+    {
+        long position = head.get();
+        int index = (int) position & mask;
+
+        if ( sequences.get(index) != position + 1 )
+        {
+            return null;
+        }
+
+        QueryEvent event = events.get(index);
+
+        events.lazySet(index, null);
+        sequences.lazySet(index, position + mask + 1);
+        head.lazySet(position + 1);
+
+        return event;
+    }
+
+    /**
+     * @return Events held
+     */
+    int capacity()
+    {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.events;
+
+import com.jimmyhowe.jhdb.core.exceptions.InvalidArgumentException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Query Event Pipeline
+ *
+ * Connections publish an event for each query into a bounded lock free ring, and a background thread drains it into
+ * the connection's QueryLog and the registered sinks, so printing or storing queries never holds up the query itself.
+ *
+ * Publishing is gated by the level. At OFF, the default, a query only pays a volatile read, and when the ring is full
+ * events are dropped and counted rather than blocking.
+ */
+public class QueryEvents
+{
+    /**
+     * Events held before new ones are dropped
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * Longest the drain thread sleeps when there is nothing to deliver
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @NotNull
+    private final QueryEventRing ring;
+
+    @NotNull
+    private final List<QueryEventSink> sinks = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong published = new AtomicLong();
+
+    private final AtomicLong delivered = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    @NotNull
+    private volatile LogLevel level = LogLevel.OFF;
+
+    /**
+     * Drain thread, started by the first published event
+     */
+    private volatile Thread drain;
+
+    /**
+     * True while the drain thread is parked and needs waking
+     */
+    private volatile boolean idle;
+
+    public QueryEvents()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Events held before new ones are dropped, rounded up to a power of two
+     */
+    public QueryEvents(int capacity)
+    {
+        if ( capacity < 1 )
+        {
+            throw new InvalidArgumentException("The query event capacity must be at least 1.");
+        }
+
+        this.ring = new QueryEventRing(capacity);
+    }
+
+    /**
+     * @return Current level
+     */
+    @NotNull
+    public LogLevel getLevel()
+    {
+        return level;
+    }
+
+    /**
+     * @param level Level to publish at
+     *
+     * @return this
+     */
+    @NotNull
+    public QueryEvents setLevel(@NotNull LogLevel level)
+    {
+        this.level = level;
+
+        return this;
+    }
+
+    /**
+     * @param level Level of an event
+     *
+     * @return True if events of the level are published
+     */
+    public boolean isEnabled(@NotNull LogLevel level)
+    {
+        return level != LogLevel.OFF && this.level.compareTo(level) >= 0;
+    }
+
+    /**
+     * @param sink Sink to hand every event to
+     *
+     * @return this
+     */
+    @NotNull
+    public QueryEvents addSink(@NotNull QueryEventSink sink)
+    {
+        sinks.add(sink);
+
+        return this;
+    }
+
+    /**
+     * @param sink Sink to stop handing events to
+     *
+     * @return this
+     */
+    @NotNull
+    public QueryEvents removeSink(@NotNull QueryEventSink sink)
+    {
+        sinks.remove(sink);
+
+        return this;
+    }
+
+    /**
+     * Queues an event for the drain thread, check isEnabled first so disabled levels build no event.
+     *
+     * @param event Query Event
+     *
+     * @return False if the ring was full and the event was dropped
+     */
+    public boolean publish(@NotNull QueryEvent event)
+    {
+        if ( ! ring.offer(event) )
+        {
+            dropped.incrementAndGet();
+
+            return false;
+        }
+
+        published.incrementAndGet();
+
+        Thread thread = drain;
+
+        if ( thread == null )
+        {
+            startDrain();
+        } else if ( idle )
+        {
+            LockSupport.unpark(thread);
+        }
+
+        return true;
+    }
+
+    /**
+     * Waits for the events published so far to be delivered.
+     *
+     * @param timeout Longest to wait
+     * @param unit    Unit of the timeout
+     *
+     * @return False if they were not all delivered in time
+     */
+    public boolean flush(long timeout, @NotNull TimeUnit unit)
+    {
+        long target = published.get();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        while ( delivered.get() < target )
+        {
+            if ( System.nanoTime() >= deadline )
+            {
+                return false;
+            }
+
+            Thread thread = drain;
+
+            if ( thread != null )
+            {
+                LockSupport.unpark(thread);
+            }
+
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+
+        return true;
+    }
+
+    /**
+     * @return Events queued since created
+     */
+    public long getPublished()
+    {
+        return published.get();
+    }
+
+    /**
+     * @return Events handed to the sinks
+     */
+    public long getDelivered()
+    {
+        return delivered.get();
+    }
+
+    /**
+     * @return Events dropped because the ring was full
+     */
+    public long getDropped()
+    {
+        return dropped.get();
+    }
+
+    /**
+     * @return Events held before new ones are dropped
+     */
+    public int getCapacity()
+    {
+        return ring.capacity();
+    }
+
+    /**
+     * Starts the drain thread once.
+     */
+    private synchronized void startDrain()
+    {
+        if ( drain != null )
+        {
+            return;
+        }
+
+        Thread thread = new Thread(this::drainLoop, "jhdb-query-events");
+        thread.setDaemon(true);
+
+        drain = thread;
+
+        thread.start();
+    }
+
+    /**
+     * Delivers events as they arrive, parking when the ring is empty.
+     */
+    private void drainLoop()
+    {
+        while ( true )
+        {
+            QueryEvent event = ring.poll();
+
+            if ( event == null )
+            {
+                idle = true;
+
+                // An event published before idle was set would not have unparked us
+                event = ring.poll();
+
+                if ( event == null )
+                {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+
+                    idle = false;
+
+                    continue;
+                }
+
+                idle = false;
+            }
+
+            deliver(event);
+
+            delivered.incrementAndGet();
+        }
+    }
+
+    /**
+     * @param event Query Event
+     */
+    private void deliver(@NotNull QueryEvent event)
+    {
+        try
+        {
+            event.getConnection().getQueryLog().record(event);
+        } catch ( RuntimeException e )
+        {
+            e.printStackTrace();
+        }
+
+        for ( QueryEventSink sink : sinks )
+        {
+            try
+            {
+                sink.accept(event);
+            } catch ( RuntimeException e )
+            {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,947 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.processors;
+
+import com.jimmyhowe.jhdb.core.exceptions.InvalidArgumentException;
+import com.jimmyhowe.jhdb.core.tables.rows.ResultLayout;
+import com.jimmyhowe.jhdb.core.tables.rows.Row;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * How the rows of one result layout are mapped onto one class
+ *
+ * Built once by the BeanProcessor and cached. Public setters and constructors of public classes are called through
+ * lambdas spun by the LambdaMetafactory, anything else through method handles, so mapping a row costs a handful of
+ * direct calls and never goes through reflection.
+ *
+ * @param <T> Mapped class
+ */
+final class BeanPlan<T>
+{
+    interface LongSetter
+    {
+        void set(Object bean, long value);
+    }
+
+    interface IntSetter
+    {
+        void set(Object bean, int value);
+    }
+
+    interface DoubleSetter
+    {
+        void set(Object bean, double value);
+    }
+
+    interface BooleanSetter
+    {
+        void set(Object bean, boolean value);
+    }
+
+    interface ObjectSetter
+    {
+        void set(Object bean, Object value);
+    }
+
+    /**
+     * Writes one column onto a bean, read from a Row or straight from the ResultSet
+     */
+    private abstract static class Writer
+    {
+        /**
+         * Column index, starting at 0
+         */
+        final int column;
+
+        Writer(int column)
+        {
+            this.column = column;
+        }
+
+        abstract void write(Object bean, Row row);
+
+        abstract void read(Object bean, ResultSet resultSet) throws SQLException;
+    }
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * Values for NULLs read into primitives
+     */
+    private static final Map<Class<?>, Object> DEFAULTS = new HashMap<>();
+
+    static
+    {
+        DEFAULTS.put(long.class, 0L);
+        DEFAULTS.put(int.class, 0);
+        DEFAULTS.put(short.class, (short) 0);
+        DEFAULTS.put(byte.class, (byte) 0);
+        DEFAULTS.put(double.class, 0.0);
+        DEFAULTS.put(float.class, 0.0f);
+        DEFAULTS.put(boolean.class, false);
+        DEFAULTS.put(char.class, '\0');
+    }
+
+    @NotNull
+    private final Class<T> type;
+
+    /**
+     * Creates the bean when it has a no argument constructor
+     */
+    @Nullable
+    private final Supplier<Object> factory;
+
+    /**
+     * Constructor taking an Object[] of arguments when there is no factory
+     */
+    @Nullable
+    private final MethodHandle constructor;
+
+    /**
+     * Column index and type of each constructor argument
+     */
+    @Nullable
+    private final int[] argumentColumns;
+
+    @Nullable
+    private final Class<?>[] argumentTypes;
+
+    @NotNull
+    private final Writer[] writers;
+
+    private BeanPlan(@NotNull Class<T> type, @Nullable Supplier<Object> factory, @Nullable MethodHandle constructor,
+                     @Nullable int[] argumentColumns, @Nullable Class<?>[] argumentTypes, @NotNull Writer[] writers)
+    {
+        this.type = type;
+        this.factory = factory;
+        this.constructor = constructor;
+        this.argumentColumns = argumentColumns;
+        this.argumentTypes = argumentTypes;
+        this.writers = writers;
+    }
+
+    /**
+     * Maps a row onto a new instance.
+     *
+     * @param row Row read with the layout the plan was built for
+     *
+     * @return Instance
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    T map(@NotNull Row row)
+    {
+        Object bean;
+
+        if ( factory != null )
+        {
+            bean = factory.get();
+        } else
+        {
+            Object[] arguments = new Object[argumentColumns.length];
+
+            for ( int i = 0; i < arguments.length; i++ )
+            {
+                arguments[i] = convert(row.getObject(argumentColumns[i]), argumentTypes[i]);
+            }
+
+            bean = construct(arguments);
+        }
+
+        for ( Writer writer : writers )
+        {
+            writer.write(bean, row);
+        }
+
+        return (T) bean;
+    }
+
+    /**
+     * Maps the record the ResultSet is positioned on onto a new instance, without building a Row.
+     *
+     * @param resultSet Result Set with the layout the plan was built for
+     *
+     * @return Instance
+     *
+     * @throws SQLException When can retrieve results
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    T map(@NotNull ResultSet resultSet) throws SQLException
+    {
+        Object bean;
+
+        if ( factory != null )
+        {
+            bean = factory.get();
+        } else
+        {
+            Object[] arguments = new Object[argumentColumns.length];
+
+            for ( int i = 0; i < arguments.length; i++ )
+            {
+                arguments[i] = convert(resultSet.getObject(argumentColumns[i] + 1), argumentTypes[i]);
+            }
+
+            bean = construct(arguments);
+        }
+
+        for ( Writer writer : writers )
+        {
+            writer.read(bean, resultSet);
+        }
+
+        return (T) bean;
+    }
+
+    /**
+     * @param arguments Constructor arguments
+     *
+     * @return Instance built through the constructor
+     */
+    @NotNull
+    private Object construct(@NotNull Object[] arguments)
+    {
+        try
+        {
+            return (Object) constructor.invokeExact(arguments);
+        } catch ( RuntimeException | Error e )
+        {
+            throw e;
+        } catch ( Throwable e )
+        {
+            throw new InvalidArgumentException("Failed to construct " + type.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Plans the mapping of a layout onto a class.
+     *
+     * @param type   Class to map to
+     * @param layout Result Layout
+     * @param <T>    Mapped class
+     *
+     * @return Plan
+     *
+     * @throws InvalidArgumentException When the class can't be built from the layout
+     */
+    @NotNull
+    static <T> BeanPlan<T> create(@NotNull Class<T> type, @NotNull ResultLayout layout)
+    {
+        Map<String, Member> members = members(type);
+        Set<String> assigned = new HashSet<>();
+        List<Writer> writers = new ArrayList<>();
+
+        Constructor<?> empty = null;
+
+        for ( Constructor<?> candidate : type.getDeclaredConstructors() )
+        {
+            if ( candidate.getParameterCount() == 0 )
+            {
+                empty = candidate;
+            }
+        }
+
+        Supplier<Object> factory = null;
+        MethodHandle constructor = null;
+        int[] argumentColumns = null;
+        Class<?>[] argumentTypes = null;
+
+        if ( empty != null )
+        {
+            factory = factory(type, empty);
+        } else
+        {
+            Constructor<?> chosen = null;
+
+            for ( Constructor<?> candidate : type.getDeclaredConstructors() )
+            {
+                argumentColumns = argumentColumns(candidate, layout);
+
+                if ( argumentColumns != null )
+                {
+                    chosen = candidate;
+
+                    break;
+                }
+            }
+
+            if ( chosen == null )
+            {
+                throw new InvalidArgumentException(type.getName() + " needs a no argument constructor or one taking "
+                        + "the columns of the result.");
+            }
+
+            argumentTypes = chosen.getParameterTypes();
+            constructor = spreader(chosen);
+
+            for ( int column : argumentColumns )
+            {
+                assigned.add(normalize(layout.getName(column)));
+            }
+        }
+
+        for ( int column = 0; column < layout.getColumnCount(); column++ )
+        {
+            String name = normalize(layout.getName(column));
+            Member member = members.get(name);
+
+            if ( member != null && assigned.add(name) )
+            {
+                writers.add(writer(type, member, column, layout.getName(column)));
+            }
+        }
+
+        return new BeanPlan<>(type, factory, constructor, argumentColumns, argumentTypes,
+                writers.toArray(new Writer[0]));
+    }
+
+    /**
+     * A setter method or field
+     */
+    private static final class Member
+    {
+        @NotNull
+        final Class<?> valueType;
+
+        @NotNull
+        final MethodHandle setter;
+
+        /**
+         * The setter method when it is public, so it can be bound to a lambda
+         */
+        @Nullable
+        final Method method;
+
+        Member(@NotNull Class<?> valueType, @NotNull MethodHandle setter, @Nullable Method method)
+        {
+            this.valueType = valueType;
+            this.setter = setter;
+            this.method = method;
+        }
+    }
+
+    /**
+     * Finds the public setters and the fields of a class, setters first, by normalized name.
+     *
+     * @param type Class
+     *
+     * @return Members by normalized name
+     */
+    @NotNull
+    private static Map<String, Member> members(@NotNull Class<?> type)
+    {
+        Map<String, Member> members = new HashMap<>();
+
+        for ( Method method : type.getMethods() )
+        {
+            String name = method.getName();
+
+            if ( name.length() > 3 && name.startsWith("set") && method.getParameterCount() == 1
+                    && ! Modifier.isStatic(method.getModifiers()) )
+            {
+                try
+                {
+                    members.putIfAbsent(normalize(name.substring(3)),
+                            new Member(method.getParameterTypes()[0], LOOKUP.unreflect(method), method));
+                } catch ( IllegalAccessException ignored )
+                {
+                    // A public method of a class we can't reach, the field may still be usable
+                }
+            }
+        }
+
+        for ( Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass() )
+        {
+            for ( Field field : current.getDeclaredFields() )
+            {
+                int modifiers = field.getModifiers();
+
+                if ( Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic() )
+                {
+                    continue;
+                }
+
+                String name = normalize(field.getName());
+
+                if ( members.containsKey(name) )
+                {
+                    continue;
+                }
+
+                try
+                {
+                    field.setAccessible(true);
+
+                    members.put(name, new Member(field.getType(), LOOKUP.unreflectSetter(field), null));
+                } catch ( IllegalAccessException | RuntimeException ignored )
+                {
+                    // Not open to us, the column is skipped
+                }
+            }
+        }
+
+        return members;
+    }
+
+    /**
+     * Matches constructor parameters to columns, by name when the class was compiled with -parameters, otherwise by
+     * position when the counts match.
+     *
+     * @param constructor Constructor
+     * @param layout      Result Layout
+     *
+     * @return Column of each parameter, or null when the constructor doesn't fit
+     */
+    @Nullable
+    private static int[] argumentColumns(@NotNull Constructor<?> constructor, @NotNull ResultLayout layout)
+    {
+        Parameter[] parameters = constructor.getParameters();
+        int[] columns = new int[parameters.length];
+
+        if ( parameters.length > 0 && parameters[0].isNamePresent() )
+        {
+            Map<String, Integer> byName = new HashMap<>();
+
+            for ( int column = 0; column < layout.getColumnCount(); column++ )
+            {
+                byName.putIfAbsent(normalize(layout.getName(column)), column);
+            }
+
+            for ( int i = 0; i < parameters.length; i++ )
+            {
+                Integer column = byName.get(normalize(parameters[i].getName()));
+
+                if ( column == null )
+                {
+                    return null;
+                }
+
+                columns[i] = column;
+            }
+
+            return columns;
+        }
+
+        if ( parameters.length != layout.getColumnCount() )
+        {
+            return null;
+        }
+
+        for ( int i = 0; i < columns.length; i++ )
+        {
+            columns[i] = i;
+        }
+
+        return columns;
+    }
+
+    /**
+     * @param type        Class
+     * @param constructor No argument constructor
+     *
+     * @return Factory for new instances
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> factory(@NotNull Class<?> type, @NotNull Constructor<?> constructor)
+    {
+        MethodHandle handle = unreflect(constructor);
+
+        if ( isPublic(type, constructor.getModifiers()) )
+        {
+            try
+            {
+                return (Supplier<Object>) LambdaMetafactory.metafactory(
+                        LOOKUP, "get", MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class), handle, handle.type()
+                ).getTarget().invoke();
+            } catch ( Throwable ignored )
+            {
+                // Fall back to the method handle
+            }
+        }
+
+        MethodHandle generic = handle.asType(MethodType.methodType(Object.class));
+
+        return () -> {
+            try
+            {
+                return (Object) generic.invokeExact();
+            } catch ( Throwable e )
+            {
+                throw rethrow("Failed to construct " + type.getName(), e);
+            }
+        };
+    }
+
+    /**
+     * @param constructor Constructor
+     *
+     * @return Handle taking the arguments as an Object[] and returning Object
+     */
+    @NotNull
+    private static MethodHandle spreader(@NotNull Constructor<?> constructor)
+    {
+        return unreflect(constructor)
+                .asSpreader(Object[].class, constructor.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
+    /**
+     * @param constructor Constructor
+     *
+     * @return Method Handle
+     */
+    @NotNull
+    private static MethodHandle unreflect(@NotNull Constructor<?> constructor)
+    {
+        try
+        {
+            if ( ! Modifier.isPublic(constructor.getModifiers()) )
+            {
+                constructor.setAccessible(true);
+            }
+
+            return LOOKUP.unreflectConstructor(constructor);
+        } catch ( IllegalAccessException | RuntimeException e )
+        {
+            throw new InvalidArgumentException("Can't access the constructor of " + constructor.getDeclaringClass()
+                    .getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Builds the writer for a column, reading primitives unboxed when the member takes a primitive.
+     *
+     * @param type   Mapped class
+     * @param member Setter or field
+     * @param column Column index
+     * @param name   Column name, for errors
+     *
+     * @return Writer
+     */
+    @NotNull
+    private static Writer writer(@NotNull Class<?> type, @NotNull Member member, int column, @NotNull String name)
+    {
+        Class<?> target = member.valueType;
+
+        if ( target == long.class )
+        {
+            LongSetter setter = setter(type, member, LongSetter.class, long.class);
+
+            return new Writer(column)
+            {
+                @Override
+                void write(Object bean, Row row)
+                {
+                    setter.set(bean, row.getLong(column));
+                }
+
+                @Override
+                void read(Object bean, ResultSet resultSet) throws SQLException
+                {
+                    setter.set(bean, resultSet.getLong(column + 1));
+                }
+            };
+        }
+
+        if ( target == int.class || target == short.class || target == byte.class )
+        {
+            IntSetter setter = setter(type, member, IntSetter.class, int.class);
+
+            return new Writer(column)
+            {
+                @Override
+                void write(Object bean, Row row)
+                {
+                    setter.set(bean, row.getInt(column));
+                }
+
+                @Override
+                void read(Object bean, ResultSet resultSet) throws SQLException
+                {
+                    setter.set(bean, resultSet.getInt(column + 1));
+                }
+            };
+        }
+
+        if ( target == double.class || target == float.class )
+        {
+            DoubleSetter setter = setter(type, member, DoubleSetter.class, double.class);
+
+            return new Writer(column)
+            {
+                @Override
+                void write(Object bean, Row row)
+                {
+                    setter.set(bean, row.getDouble(column));
+                }
+
+                @Override
+                void read(Object bean, ResultSet resultSet) throws SQLException
+                {
+                    setter.set(bean, resultSet.getDouble(column + 1));
+                }
+            };
+        }
+
+        if ( target == boolean.class )
+        {
+            BooleanSetter setter = setter(type, member, BooleanSetter.class, boolean.class);
+
+            return new Writer(column)
+            {
+                @Override
+                void write(Object bean, Row row)
+                {
+                    setter.set(bean, row.getBoolean(column));
+                }
+
+                @Override
+                void read(Object bean, ResultSet resultSet) throws SQLException
+                {
+                    setter.set(bean, resultSet.getBoolean(column + 1));
+                }
+            };
+        }
+
+        ObjectSetter setter = setter(type, member, ObjectSetter.class, Object.class);
+
+        if ( target == String.class )
+        {
+            return new Writer(column)
+            {
+                @Override
+                void write(Object bean, Row row)
+                {
+                    setter.set(bean, row.getString(column));
+                }
+
+                @Override
+                void read(Object bean, ResultSet resultSet) throws SQLException
+                {
+                    setter.set(bean, resultSet.getString(column + 1));
+                }
+            };
+        }
+
+        return new Writer(column)
+        {
+            @Override
+            void write(Object bean, Row row)
+            {
+                set(bean, row.getObject(column));
+            }
+
+            @Override
+            void read(Object bean, ResultSet resultSet) throws SQLException
+            {
+                set(bean, resultSet.getObject(column + 1));
+            }
+
+            private void set(Object bean, Object value)
+            {
+                try
+                {
+                    setter.set(bean, convert(value, target));
+                } catch ( ClassCastException | IllegalArgumentException e )
+                {
+                    throw new InvalidArgumentException("Column " + name + " can't be assigned to " + target.getName()
+                            + " on " + type.getName() + ".");
+                }
+            }
+        };
+    }
+
+    /**
+     * Binds a setter to one of the setter interfaces, through a generated lambda when the member is a public setter
+     * taking exactly the interface's value type, otherwise through its method handle.
+     *
+     * @param type      Mapped class
+     * @param member    Setter or field
+     * @param setter    Setter interface
+     * @param valueType Value type of the interface
+     *
+     * @return Setter
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private static <S> S setter(@NotNull Class<?> type, @NotNull Member member, @NotNull Class<S> setter,
+                                @NotNull Class<?> valueType)
+    {
+        boolean exact = valueType.isPrimitive() ? member.valueType == valueType : ! member.valueType.isPrimitive();
+
+        if ( exact && member.method != null && isPublic(member.method.getDeclaringClass(), 0) )
+        {
+            try
+            {
+                return (S) LambdaMetafactory.metafactory(
+                        LOOKUP, "set", MethodType.methodType(setter),
+                        MethodType.methodType(void.class, Object.class, valueType), member.setter, member.setter.type()
+                ).getTarget().invoke();
+            } catch ( Throwable ignored )
+            {
+                // Fall back to the method handle
+            }
+        }
+
+        MethodHandle handle = MethodHandles.explicitCastArguments(
+                member.setter, MethodType.methodType(void.class, Object.class, valueType)
+        );
+
+        String name = type.getName();
+
+        if ( setter == LongSetter.class )
+        {
+            return (S) (LongSetter) (bean, value) -> {
+                try
+                {
+                    handle.invokeExact(bean, value);
+                } catch ( Throwable e )
+                {
+                    throw rethrow("Failed to set a value on " + name, e);
+                }
+            };
+        }
+
+        if ( setter == IntSetter.class )
+        {
+            return (S) (IntSetter) (bean, value) -> {
+                try
+                {
+                    handle.invokeExact(bean, value);
+                } catch ( Throwable e )
+                {
+                    throw rethrow("Failed to set a value on " + name, e);
+                }
+            };
+        }
+
+        if ( setter == DoubleSetter.class )
+        {
+            return (S) (DoubleSetter) (bean, value) -> {
+                try
+                {
+                    handle.invokeExact(bean, value);
+                } catch ( Throwable e )
+                {
+                    throw rethrow("Failed to set a value on " + name, e);
+                }
+            };
+        }
+
+        if ( setter == BooleanSetter.class )
+        {
+            return (S) (BooleanSetter) (bean, value) -> {
+                try
+                {
+                    handle.invokeExact(bean, value);
+                } catch ( Throwable e )
+                {
+                    throw rethrow("Failed to set a value on " + name, e);
+                }
+            };
+        }
+
+        return (S) (ObjectSetter) (bean, value) -> {
+            try
+            {
+                handle.invokeExact(bean, value);
+            } catch ( Throwable e )
+            {
+                throw rethrow("Failed to set a value on " + name, e);
+            }
+        };
+    }
+
+    /**
+     * Converts a value to the given type, boxed.
+     *
+     * @param value  Value as read from the result
+     * @param target Target type
+     *
+     * @return Value, the primitive default for a NULL read into a primitive
+     */
+    @Nullable
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object convert(@Nullable Object value, @NotNull Class<?> target)
+    {
+        if ( value == null )
+        {
+            return target.isPrimitive() ? DEFAULTS.get(target) : null;
+        }
+
+        if ( target.isInstance(value) )
+        {
+            return value;
+        }
+
+        if ( value instanceof Boolean && target != Boolean.class && target != boolean.class
+                && target != String.class )
+        {
+            value = (Boolean) value ? 1 : 0;
+        }
+
+        if ( target == String.class )
+        {
+            return value.toString();
+        }
+
+        if ( target == boolean.class || target == Boolean.class )
+        {
+            if ( value instanceof Number )
+            {
+                return ((Number) value).doubleValue() != 0;
+            }
+
+            String string = value.toString().trim();
+
+            return string.equalsIgnoreCase("true") || string.equals("1");
+        }
+
+        if ( target == char.class || target == Character.class )
+        {
+            String string = value.toString();
+
+            return string.isEmpty() ? '\0' : string.charAt(0);
+        }
+
+        if ( target.isEnum() )
+        {
+            return Enum.valueOf((Class<? extends Enum>) target, value.toString());
+        }
+
+        if ( (value instanceof Number || value instanceof String)
+                && (target.isPrimitive() || Number.class.isAssignableFrom(target)) )
+        {
+            String string = value.toString().trim();
+            Number number = value instanceof Number ? (Number) value : new BigDecimal(string);
+
+            if ( target == long.class || target == Long.class )
+            {
+                return number.longValue();
+            }
+
+            if ( target == int.class || target == Integer.class )
+            {
+                return number.intValue();
+            }
+
+            if ( target == short.class || target == Short.class )
+            {
+                return number.shortValue();
+            }
+
+            if ( target == byte.class || target == Byte.class )
+            {
+                return number.byteValue();
+            }
+
+            if ( target == double.class || target == Double.class )
+            {
+                return number.doubleValue();
+            }
+
+            if ( target == float.class || target == Float.class )
+            {
+                return number.floatValue();
+            }
+
+            if ( target == BigDecimal.class )
+            {
+                return new BigDecimal(string);
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * @param name Column, field or parameter name
+     *
+     * @return Name without case or underscores, so created_at matches createdAt
+     */
+    @NotNull
+    static String normalize(@NotNull String name)
+    {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param type      Class
+     * @param modifiers Member modifiers, 0 to only check the class
+     *
+     * @return True if the class and the member are public
+     */
+    private static boolean isPublic(@NotNull Class<?> type, int modifiers)
+    {
+        return Modifier.isPublic(type.getModifiers()) && (modifiers == 0 || Modifier.isPublic(modifiers));
+    }
+
+    /**
+     * @param message Message
+     * @param e       Thrown by a method handle
+     *
+     * @return Exception to throw
+     */
+    @NotNull
+    private static RuntimeException rethrow(@NotNull String message, @NotNull Throwable e)
+    {
+        if ( e instanceof RuntimeException )
+        {
+            return (RuntimeException) e;
+        }
+
+        if ( e instanceof Error )
+        {
+            throw (Error) e;
+        }
+
+        return new InvalidArgumentException(message + ": " + e.getMessage());
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.processors;
+
+import com.jimmyhowe.jhdb.core.exceptions.InvalidArgumentException;
+import com.jimmyhowe.jhdb.core.tables.rows.ResultLayout;
+import com.jimmyhowe.jhdb.core.tables.rows.Row;
+import com.jimmyhowe.jhdb.core.tables.rows.Rows;
+import com.jimmyhowe.jhdb.core.utilities.LruCache;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Processes ResultSet's into instances of a class
+ *
+ * Columns are matched to public setters or fields by name, ignoring case and underscores so "created_at" fills
+ * createdAt, and columns without a match are skipped. Classes without a no argument constructor are built through a
+ * constructor taking the columns, matched by parameter name when compiled with -parameters and by position otherwise.
+ *
+ * The mapping is planned once per result layout and cached, so each record only costs the calls that fill the
+ * instance, reading the values straight from the ResultSet with the getter matching each member's type.
+ * Still a PostProcessor, it builds Rows like the TableProcessor when used as one.
+ *
+ * @param <T> Mapped class
+ */
+public class BeanProcessor<T> extends TableProcessor
+{
+    /**
+     * Result layouts planned per class
+     */
+    private static final int PLAN_CACHE_SIZE = 16;
+
+    /**
+     * One processor per class. The processor and its plans hold the class strongly, so the cache doesn't let a class
+     * mapped through of() be unloaded.
+     */
+    private static final ClassValue<BeanProcessor<?>> processors = new ClassValue<BeanProcessor<?>>()
+    {
+        @Override
+        protected BeanProcessor<?> computeValue(Class<?> type)
+        {
+            return new BeanProcessor<>(type);
+        }
+    };
+
+    @NotNull
+    private final Class<T> type;
+
+    @NotNull
+    private final LruCache<ResultLayout, BeanPlan<T>> plans = new LruCache<>(PLAN_CACHE_SIZE);
+
+    /**
+     * @param type Class to map to
+     */
+    public BeanProcessor(@NotNull Class<T> type)
+    {
+        this.type = type;
+    }
+
+    /**
+     * @param type Class to map to
+     * @param <T>  Mapped class
+     *
+     * @return The shared processor for the class, classes from class loaders meant to be unloaded should be mapped
+     * with a processor of their own instead
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static <T> BeanProcessor<T> of(@NotNull Class<T> type)
+    {
+        return (BeanProcessor<T>) processors.get(type);
+    }
+
+    /**
+     * @return Class mapped to
+     */
+    @NotNull
+    public Class<T> getType()
+    {
+        return type;
+    }
+
+    /**
+     * Maps the first record
+     *
+     * @param resultSet Result Set
+     *
+     * @return Instance, or null when there are no records
+     *
+     * @throws SQLException When can retrieve results
+     */
+    @Nullable
+    public T processBean(@NotNull ResultSet resultSet) throws SQLException
+    {
+        if ( ! resultSet.next() )
+        {
+            return null;
+        }
+
+        return plan(layout(resultSet)).map(resultSet);
+    }
+
+    /**
+     * Maps every record
+     *
+     * @param resultSet Result Set
+     *
+     * @return Instances
+     *
+     * @throws SQLException When can retrieve results
+     */
+    @NotNull
+    public List<T> processBeans(@NotNull ResultSet resultSet) throws SQLException
+    {
+        BeanPlan<T> plan = plan(layout(resultSet));
+
+        List<T> beans = new ArrayList<>();
+
+        while ( resultSet.next() )
+        {
+            beans.add(plan.map(resultSet));
+        }
+
+        return beans;
+    }
+
+    /**
+     * Maps a row read from a result
+     *
+     * @param row Row
+     *
+     * @return Instance
+     *
+     * @throws InvalidArgumentException When the row was built by hand rather than read from a result
+     */
+    @NotNull
+    public T map(@NotNull Row row)
+    {
+        ResultLayout layout = row.getLayout();
+
+        if ( layout == null )
+        {
+            throw new InvalidArgumentException("Only rows read from a result can be mapped to " + type.getName() + ".");
+        }
+
+        return plan(layout).map(row);
+    }
+
+    /**
+     * Maps rows read from a result
+     *
+     * @param rows Rows
+     *
+     * @return Instances
+     */
+    @NotNull
+    public List<T> map(@NotNull Rows rows)
+    {
+        List<T> beans = new ArrayList<>(rows.count());
+
+        for ( Row row : rows.data() )
+        {
+            beans.add(map(row));
+        }
+
+        return beans;
+    }
+
+    /**
+     * @param layout Result Layout
+     *
+     * @return The cached plan for the layout, planned on first use
+     */
+    @NotNull
+    private BeanPlan<T> plan(@NotNull ResultLayout layout)
+    {
+        BeanPlan<T> plan = plans.get(layout);
+
+        if ( plan == null )
+        {
+            plan = BeanPlan.create(type, layout);
+
+            plans.put(layout, plan);
+        }
+
+        return plan;
+    }
+}
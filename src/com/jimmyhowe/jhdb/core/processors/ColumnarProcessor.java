@@ -0,0 +1,55 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.processors;
+
+import com.jimmyhowe.jhdb.core.tables.batches.ColumnBatch;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Processes ResultSet's column by column into a ColumnBatch
+ *
+ * Meant for analytical queries over many rows, where the values are scanned and aggregated rather than handled row
+ * by row. Still a PostProcessor, it builds Rows like the TableProcessor when used as one.
+ */
+public class ColumnarProcessor extends TableProcessor
+{
+    /**
+     * Reads every record into a batch
+     *
+     * @param resultSet Result Set
+     *
+     * @return Column Batch
+     *
+     * @throws SQLException When can retrieve results
+     */
+    @NotNull
+    public ColumnBatch processBatch(@NotNull ResultSet resultSet) throws SQLException
+    {
+        return ColumnBatch.read(resultSet, layout(resultSet));
+    }
+}
@@ -24,6 +24,7 @@
 
 package com.jimmyhowe.jhdb.core.processors;
 
+import com.jimmyhowe.jhdb.core.tables.rows.ResultLayout;
 import com.jimmyhowe.jhdb.core.tables.rows.Row;
 import com.jimmyhowe.jhdb.core.tables.rows.Rows;
 import org.jetbrains.annotations.NotNull;
@@ -73,6 +74,49 @@ public abstract class PostProcessor
     @NotNull
     public abstract Row processSingle(ResultSet resultSet) throws SQLException;
 
+    /**
+     * Reads the column layout of a result, to be shared by every row built from it
+     *
+     * @param resultSet Result Set
+     *
+     * @return Result Layout
+     *
+     * @throws SQLException When can retrieve results
+     */
+    @NotNull
+    public ResultLayout layout(@NotNull ResultSet resultSet) throws SQLException
+    {
+        return ResultLayout.of(resultSet.getMetaData());
+    }
+
+    /**
+     * Returns the record the ResultSet is currently positioned on
+     *
+     * @param resultSet Result Set
+     *
+     * @return Single Instance
+     *
+     * @throws SQLException When can retrieve results
+     */
+    @NotNull
+    public Row processRow(@NotNull ResultSet resultSet) throws SQLException
+    {
+        return processRow(resultSet, layout(resultSet));
+    }
+
+    /**
+     * Returns the record the ResultSet is currently positioned on
+     *
+     * @param resultSet Result Set
+     * @param layout    Layout of the result
+     *
+     * @return Single Instance
+     *
+     * @throws SQLException When can retrieve results
+     */
+    @NotNull
+    public abstract Row processRow(ResultSet resultSet, ResultLayout layout) throws SQLException;
+
     /**
      * Returns a collection of records
      *
@@ -24,18 +24,21 @@
 
 package com.jimmyhowe.jhdb.core.processors;
 
-import com.jimmyhowe.jhdb.core.tables.columns.Column;
-import com.jimmyhowe.jhdb.core.tables.columns.Columns;
+import com.jimmyhowe.jhdb.core.tables.rows.ResultLayout;
 import com.jimmyhowe.jhdb.core.tables.rows.Row;
 import com.jimmyhowe.jhdb.core.tables.rows.Rows;
 import org.jetbrains.annotations.NotNull;
 
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 
 /**
  * Processes ResultSet's into Row and Rows Objects
+ *
+ * The column layout is read once per ResultSet and shared by the rows built from it, each row only holds its values.
+ * Numeric and boolean values are kept unboxed and read with the primitive getters, so they are never boxed. When the
+ * layout is checked, as the driver types each value rather than each column, they are read with getObject instead so
+ * a value that doesn't match the type reported for its column is never truncated, and that row is built boxed.
  */
 public class TableProcessor extends PostProcessor
 {
@@ -52,56 +55,173 @@ public class TableProcessor extends PostProcessor
     {
         if ( resultSet.next() )
         {
-            return new Row(getColumns(resultSet));
+            return processRow(resultSet, layout(resultSet));
         }
 
         return new Row();
     }
 
     /**
-     * Returns a collection of records
+     * Returns the record the ResultSet is currently positioned on
      *
      * @param resultSet Result Set
      *
-     * @return Collection Instance
+     * @return Single Instance
      */
     @NotNull
     @Override
-    public Rows processCollection(@NotNull ResultSet resultSet) throws SQLException
+    public Row processRow(@NotNull ResultSet resultSet, @NotNull ResultLayout layout) throws SQLException
     {
-        Rows rows = new Rows();
+        if ( layout.isChecked() )
+        {
+            return processCheckedRow(resultSet, layout);
+        }
 
-        while ( resultSet.next() )
+        int count = layout.getColumnCount();
+
+        Object[] values = layout.getObjectCount() > 0 ? new Object[layout.getObjectCount()] : null;
+        long[] primitives = layout.getPrimitiveCount() > 0 ? new long[layout.getPrimitiveCount()] : null;
+        long[] nulls = null;
+
+        for ( int index = 0; index < count; index++ )
         {
-            rows.add(new Row(getColumns(resultSet)));
+            int slot = layout.getSlot(index);
+
+            switch ( layout.getStorage(index) )
+            {
+                case ResultLayout.LONG:
+                    primitives[slot] = resultSet.getLong(index + 1);
+                    break;
+                case ResultLayout.DOUBLE:
+                    primitives[slot] = Double.doubleToRawLongBits(resultSet.getDouble(index + 1));
+                    break;
+                case ResultLayout.BOOLEAN:
+                    primitives[slot] = resultSet.getBoolean(index + 1) ? 1 : 0;
+                    break;
+                default:
+                    values[slot] = resultSet.getObject(index + 1);
+                    continue;
+            }
+
+            if ( resultSet.wasNull() )
+            {
+                if ( nulls == null )
+                {
+                    nulls = new long[(count + 63) >>> 6];
+                }
+
+                nulls[index >>> 6] |= 1L << index;
+            }
         }
 
-        return rows;
+        return new Row(layout, values, primitives, nulls);
     }
 
     /**
-     * @param resultSet JDBC Result Set
+     * Reads the record of a checked layout, each value with getObject, keeping the ones that fit their storage unboxed.
      *
-     * @return Columns Collection
+     * @param resultSet Result Set
+     * @param layout    Checked layout of the result
      *
-     * @throws SQLException SQL Exception
+     * @return Single Instance
      */
     @NotNull
-    private Columns getColumns(@NotNull ResultSet resultSet) throws SQLException
+    private Row processCheckedRow(@NotNull ResultSet resultSet, @NotNull ResultLayout layout) throws SQLException
     {
-        ResultSetMetaData metaData = resultSet.getMetaData();
+        int count = layout.getColumnCount();
 
-        Columns columns = new Columns();
+        Object[] values = layout.getObjectCount() > 0 ? new Object[layout.getObjectCount()] : null;
+        long[] primitives = layout.getPrimitiveCount() > 0 ? new long[layout.getPrimitiveCount()] : null;
+        long[] nulls = null;
 
-        for ( int columnIndex = 1; columnIndex <= metaData.getColumnCount(); columnIndex++ )
+        for ( int index = 0; index < count; index++ )
         {
-            String columnName = metaData.getColumnName(columnIndex);
-            Object value = resultSet.getObject(columnIndex);
-            String sqlType = metaData.getColumnTypeName(columnIndex);
+            int slot = layout.getSlot(index);
+            int storage = layout.getStorage(index);
+            Object value = resultSet.getObject(index + 1);
 
-            columns.add(new Column(columnName, value));
+            if ( storage == ResultLayout.OBJECT )
+            {
+                values[slot] = value;
+            } else if ( value == null )
+            {
+                if ( nulls == null )
+                {
+                    nulls = new long[(count + 63) >>> 6];
+                }
+
+                nulls[index >>> 6] |= 1L << index;
+            } else if ( ! layout.fits(index, value) )
+            {
+                return processBoxedRow(resultSet, new Row(layout, values, primitives, nulls), index, value);
+            } else if ( storage == ResultLayout.DOUBLE )
+            {
+                primitives[slot] = Double.doubleToRawLongBits(((Number) value).doubleValue());
+            } else if ( storage == ResultLayout.BOOLEAN )
+            {
+                primitives[slot] = (Boolean) value ? 1 : 0;
+            } else
+            {
+                primitives[slot] = ((Number) value).longValue();
+            }
         }
 
-        return columns;
+        return new Row(layout, values, primitives, nulls);
+    }
+
+    /**
+     * Builds the record with every value kept as the object the driver returns. The columns before the one that didn't
+     * fit are taken from the partly read row, so no column is read twice.
+     *
+     * @param resultSet Result Set
+     * @param read      Row holding the columns read so far
+     * @param index     Index of the column that didn't fit
+     * @param value     Value of that column
+     *
+     * @return Single Instance
+     */
+    @NotNull
+    private Row processBoxedRow(@NotNull ResultSet resultSet, @NotNull Row read, int index, @NotNull Object value)
+            throws SQLException
+    {
+        ResultLayout layout = read.getLayout().boxed();
+        Object[] values = new Object[layout.getColumnCount()];
+
+        for ( int i = 0; i < index; i++ )
+        {
+            values[i] = read.getObject(i);
+        }
+
+        values[index] = value;
+
+        for ( int i = index + 1; i < values.length; i++ )
+        {
+            values[i] = resultSet.getObject(i + 1);
+        }
+
+        return new Row(layout, values);
+    }
+
+    /**
+     * Returns a collection of records
+     *
+     * @param resultSet Result Set
+     *
+     * @return Collection Instance
+     */
+    @NotNull
+    @Override
+    public Rows processCollection(@NotNull ResultSet resultSet) throws SQLException
+    {
+        ResultLayout layout = layout(resultSet);
+
+        Rows rows = new Rows(layout);
+
+        while ( resultSet.next() )
+        {
+            rows.add(processRow(resultSet, layout));
+        }
+
+        return rows;
     }
 }
@@ -0,0 +1,217 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.queries;
+
+import com.jimmyhowe.jhdb.core.exceptions.QueryException;
+import com.jimmyhowe.jhdb.core.processors.PostProcessor;
+import com.jimmyhowe.jhdb.core.support.Callback;
+import com.jimmyhowe.jhdb.core.tables.rows.ResultLayout;
+import com.jimmyhowe.jhdb.core.tables.rows.Row;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Cursor
+ *
+ * Iterates a live ResultSet one Row at a time, so only the rows the driver has fetched are held in memory. The
+ * connection stays busy until the cursor is closed, which happens on its own once the last row has been read.
+ */
+public class Cursor implements Iterator<Row>, AutoCloseable
+{
+    @NotNull
+    private final String sql;
+
+    @NotNull
+    private final ResultSet resultSet;
+
+    @NotNull
+    private final PostProcessor processor;
+
+    /**
+     * Closes the statement and hands the connection back.
+     */
+    @NotNull
+    private final Callback onClose;
+
+    /**
+     * Layout of the result, read with the first row.
+     */
+    @Nullable
+    private ResultLayout layout;
+
+    /**
+     * Whether the ResultSet has been advanced to a row that has not been returned yet.
+     */
+    private boolean fetched = false;
+
+    private boolean available = false;
+
+    private boolean closed = false;
+
+    /**
+     * @param sql       SQL Query
+     * @param resultSet Open Result Set
+     * @param processor Post Processor used to build each Row
+     * @param onClose   Called once when the cursor is closed
+     */
+    public Cursor(@NotNull String sql, @NotNull ResultSet resultSet, @NotNull PostProcessor processor,
+                  @NotNull Callback onClose)
+    {
+        this.sql = sql;
+        this.resultSet = resultSet;
+        this.processor = processor;
+        this.onClose = onClose;
+    }
+
+    /**
+     * @return True if there is another row
+     */
+    @Override
+    public boolean hasNext()
+    {
+        if ( closed )
+        {
+            return false;
+        }
+
+        if ( ! fetched )
+        {
+            try
+            {
+                available = resultSet.next();
+            } catch ( SQLException e )
+            {
+                throw failed(e);
+            }
+
+            fetched = true;
+
+            if ( ! available )
+            {
+                close();
+            }
+        }
+
+        return available;
+    }
+
+    /**
+     * @return The next row
+     */
+    @NotNull
+    @Override
+    public Row next()
+    {
+        if ( ! hasNext() )
+        {
+            throw new NoSuchElementException();
+        }
+
+        fetched = false;
+
+        try
+        {
+            if ( layout == null )
+            {
+                layout = processor.layout(resultSet);
+            }
+
+            return processor.processRow(resultSet, layout);
+        } catch ( SQLException e )
+        {
+            throw failed(e);
+        }
+    }
+
+    /**
+     * A sequential stream over the remaining rows that closes the cursor when the stream is closed.
+     *
+     * @return Stream of Rows
+     */
+    @NotNull
+    public Stream<Row> stream()
+    {
+        Spliterator<Row> spliterator = Spliterators.spliteratorUnknownSize(
+                this, Spliterator.ORDERED | Spliterator.NONNULL
+        );
+
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * @return True once the cursor has been closed
+     */
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+    /**
+     * Closes the ResultSet and statement and releases the connection.
+     */
+    @Override
+    public void close()
+    {
+        if ( closed )
+        {
+            return;
+        }
+
+        closed = true;
+
+        try
+        {
+            resultSet.close();
+        } catch ( SQLException e )
+        {
+            e.printStackTrace();
+        } finally
+        {
+            onClose.call();
+        }
+    }
+
+    /**
+     * @param e SQL Exception
+     *
+     * @return Exception to throw once the cursor is closed
+     */
+    @NotNull
+    private QueryException failed(@NotNull SQLException e)
+    {
+        close();
+
+        return new QueryException("Cursor failed: " + e.getMessage(), sql);
+    }
+}
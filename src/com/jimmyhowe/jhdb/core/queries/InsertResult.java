@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.queries;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Insert Result
+ *
+ * The rows affected by each INSERT statement that was run, and the keys generated for the inserted rows in order. A
+ * statement whose keys the database can't report adds none.
+ */
+public class InsertResult
+{
+    private final List<Integer> affectedCounts = new ArrayList<>();
+
+    private final List<Long> generatedKeys = new ArrayList<>();
+
+    public InsertResult()
+    {
+
+    }
+
+    /**
+     * @param affected      Rows affected by the statement
+     * @param generatedKeys Keys generated by the statement
+     */
+    public InsertResult(int affected, @NotNull List<Long> generatedKeys)
+    {
+        this.affectedCounts.add(affected);
+        this.generatedKeys.addAll(generatedKeys);
+    }
+
+    /**
+     * Appends the counts and keys of another result.
+     *
+     * @param result Insert Result
+     *
+     * @return This result
+     */
+    @NotNull
+    public InsertResult merge(@NotNull InsertResult result)
+    {
+        this.affectedCounts.addAll(result.affectedCounts);
+        this.generatedKeys.addAll(result.generatedKeys);
+
+        return this;
+    }
+
+    /**
+     * @return Rows affected by each statement
+     */
+    @NotNull
+    public List<Integer> getAffectedCounts()
+    {
+        return Collections.unmodifiableList(affectedCounts);
+    }
+
+    /**
+     * @return Total rows affected
+     */
+    public int getAffectedRows()
+    {
+        int total = 0;
+
+        for ( int affected : affectedCounts )
+        {
+            total += affected;
+        }
+
+        return total;
+    }
+
+    /**
+     * @return Generated keys in insert order
+     */
+    @NotNull
+    public List<Long> getGeneratedKeys()
+    {
+        return Collections.unmodifiableList(generatedKeys);
+    }
+}
@@ -25,21 +25,40 @@
 package com.jimmyhowe.jhdb.core.queries;
 
 import com.jimmyhowe.jhdb.core.Connection;
+import com.jimmyhowe.jhdb.core.exceptions.InvalidArgumentException;
+import com.jimmyhowe.jhdb.core.exceptions.QueryException;
+import com.jimmyhowe.jhdb.core.processors.BeanProcessor;
+import com.jimmyhowe.jhdb.core.processors.ColumnarProcessor;
 import com.jimmyhowe.jhdb.core.processors.PostProcessor;
 import com.jimmyhowe.jhdb.core.queries.components.*;
+import com.jimmyhowe.jhdb.core.support.ChunkCallback;
+import com.jimmyhowe.jhdb.core.support.JoinCallback;
+import com.jimmyhowe.jhdb.core.support.ResultCallback;
+import com.jimmyhowe.jhdb.core.tables.batches.ColumnBatch;
+import com.jimmyhowe.jhdb.core.tables.columns.Column;
+import com.jimmyhowe.jhdb.core.tables.rows.Row;
 import com.jimmyhowe.jhdb.core.tables.rows.Rows;
 import com.jimmyhowe.jhdb.core.utilities.Expression;
+import com.jimmyhowe.jhdb.core.utilities.ResultCache;
+import com.jimmyhowe.jhdb.core.utilities.RowCache;
 import com.jimmyhowe.support.collections.Collection;
-import com.jimmyhowe.support.stores.KeyValueStore;
 import com.jimmyhowe.support.stores.ObjectStore;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.sql.ResultSet;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Query Builder
@@ -56,10 +75,40 @@ public class QueryBuilder
      */
     public final List<OrderBy> orderBys = new ArrayList<>();
 
+    /**
+     * Join Clauses
+     */
+    public final List<JoinClause> joins = new ArrayList<>();
+
+    /**
+     * Related tables loaded with the rows
+     */
+    public final List<EagerLoad> eagerLoads = new ArrayList<>();
+
+    /**
+     * Group By Columns
+     */
+    public final List<String> groups = new ArrayList<>();
+
+    /**
+     * Having Statements
+     */
+    public final ObjectStore havings = new ObjectStore();
+
+    /**
+     * Selected columns that are raw SQL, written as they are instead of being wrapped
+     */
+    public final Set<String> rawColumns = new HashSet<>();
+
     /**
      * Update SET Component
      */
-    public final KeyValueStore sets = new KeyValueStore();
+    public final Map<String, Object> sets = new LinkedHashMap<>();
+
+    /**
+     * Value bindings by the clause they belong to, in the order the clauses are compiled
+     */
+    protected final Map<String, List<Object>> bindings = new LinkedHashMap<>();
 
     /**
      * Database Connector Instance
@@ -93,6 +142,27 @@ public class QueryBuilder
 
     public int offset;
 
+    /**
+     * Aggregate selected instead of the columns, while an aggregate runs
+     */
+    @Nullable
+    public Aggregate aggregate;
+
+    /**
+     * JDBC fetch size for cursors, 0 for the connection default
+     */
+    public int fetchSize = 0;
+
+    /**
+     * Time get() results are kept in the connection's result cache, 0 when they are not
+     */
+    public long rememberNanos = 0;
+
+    /**
+     * Primary key column, used by find and findMany
+     */
+    public String primaryKey = "id";
+
     public String[] insertFields;
 
     public Object[] insertValues;
@@ -111,6 +181,11 @@ public class QueryBuilder
         this.connection = connection;
         this.queryGrammar = queryGrammar;
         this.processor = processor;
+
+        for ( String type : new String[]{"select", "join", "where", "having", "order"} )
+        {
+            this.bindings.put(type, new ArrayList<>());
+        }
     }
 
     /**
@@ -154,6 +229,7 @@ public class QueryBuilder
     public QueryBuilder select()
     {
         this.columns = getDefaultSelectAll();
+        this.rawColumns.clear();
 
         return this;
     }
@@ -167,6 +243,7 @@ public class QueryBuilder
     public QueryBuilder select(String... columns)
     {
         this.columns = new ArrayList<>(Arrays.asList(columns));
+        this.rawColumns.clear();
 
         return this;
     }
@@ -180,10 +257,38 @@ public class QueryBuilder
     public QueryBuilder select(@NotNull Expression... raw)
     {
         this.columns = new ArrayList<>();
+        this.rawColumns.clear();
 
         for ( int i = 0; i < raw.length; i++ )
         {
-            this.columns.add(raw[i].toString());
+            this.addSelect(raw[i]);
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds a raw SQL column, such as an aggregate, to the select. It replaces the default select all, so
+     * selectRaw("COUNT(*) AS total") alone selects only the count.
+     *
+     * @param expression Raw SQL column
+     * @param bindings   Values for the placeholders in the expression
+     *
+     * @return Query Builder
+     */
+    @NotNull
+    public QueryBuilder selectRaw(@NotNull String expression, @NotNull Object... bindings)
+    {
+        if ( this.rawColumns.isEmpty() && this.columns.equals(getDefaultSelectAll()) )
+        {
+            this.columns = new ArrayList<>();
+        }
+
+        this.addSelect(new Expression(expression));
+
+        for ( Object binding : bindings )
+        {
+            this.addBinding(binding, "select");
         }
 
         return this;
@@ -200,9 +305,7 @@ public class QueryBuilder
     @NotNull
     public QueryBuilder where(String column, String operator, Object value)
     {
-        this.wheres.put(new WhereGroup(new Where(column, operator, value)));
-
-        return this;
+        return this.addWhere(new WhereGroup(new Where(column, operator, value)));
     }
 
     /**
@@ -216,9 +319,7 @@ public class QueryBuilder
     @NotNull
     public QueryBuilder where(String column, Object value)
     {
-        this.wheres.put(new WhereGroup(new Where(column, value)));
-
-        return this;
+        return this.addWhere(new WhereGroup(new Where(column, value)));
     }
 
     /**
@@ -229,9 +330,7 @@ public class QueryBuilder
     @NotNull
     public QueryBuilder where(@NotNull Where... wheres)
     {
-        this.wheres.put(new WhereGroup(wheres));
-
-        return this;
+        return this.addWhere(new WhereGroup(wheres));
     }
 
     /**
@@ -245,9 +344,7 @@ public class QueryBuilder
     @NotNull
     public QueryBuilder whereNot(String column, String value)
     {
-        this.wheres.put(new WhereGroup(new Where(column, "!=", value)));
-
-        return this;
+        return this.addWhere(new WhereGroup(new Where(column, "!=", value)));
     }
 
     /**
@@ -260,9 +357,7 @@ public class QueryBuilder
     @NotNull
     public QueryBuilder andWhere(String column, String operator, Object value)
     {
-        this.wheres.put(new AndWhereGroup(new Where(column, operator, value)));
-
-        return this;
+        return this.addWhere(new AndWhereGroup(new Where(column, operator, value)));
     }
 
     /**
@@ -274,9 +369,7 @@ public class QueryBuilder
     @NotNull
     public QueryBuilder andWhere(String column, Object value)
     {
-        this.wheres.put(new AndWhereGroup(new Where(column, value)));
-
-        return this;
+        return this.addWhere(new AndWhereGroup(new Where(column, value)));
     }
 
     /**
@@ -287,9 +380,7 @@ public class QueryBuilder
     @NotNull
     public QueryBuilder andWhere(@NotNull Where... wheres)
     {
-        this.wheres.put(new AndWhereGroup(wheres));
-
-        return this;
+        return this.addWhere(new AndWhereGroup(wheres));
     }
 
     /**
@@ -302,9 +393,7 @@ public class QueryBuilder
     @NotNull
     public QueryBuilder orWhere(String column, String operator, Object value)
     {
-        this.wheres.put(new OrWhereGroup(new Where(column, operator, value)));
-
-        return this;
+        return this.addWhere(new OrWhereGroup(new Where(column, operator, value)));
     }
 
     /**
@@ -316,9 +405,7 @@ public class QueryBuilder
     @NotNull
     public QueryBuilder orWhere(String column, Object value)
     {
-        this.wheres.put(new OrWhereGroup(new Where(column, value)));
-
-        return this;
+        return this.addWhere(new OrWhereGroup(new Where(column, value)));
     }
 
     /**
@@ -329,265 +416,1682 @@ public class QueryBuilder
     @NotNull
     public QueryBuilder orWhere(@NotNull Where... wheres)
     {
-        this.wheres.put(new OrWhereGroup(wheres));
-
-        return this;
+        return this.addWhere(new OrWhereGroup(wheres));
     }
 
     /**
-     * Order By
+     * Where In Statement, an empty list matches no rows
      *
-     * @param column    Column name
-     * @param direction Direction
+     * @param column Column name
+     * @param values Values the column may equal
+     *
+     * @return Query Builder
      */
     @NotNull
-    public QueryBuilder orderBy(String column, String direction)
+    public QueryBuilder whereIn(String column, @NotNull java.util.Collection<?> values)
     {
-        this.orderBys.add(new OrderBy(column, direction));
+        Where where = new WhereIn(column, values);
 
-        return this;
+        return this.addWhere(this.wheres.isEmpty() ? new WhereGroup(where) : new AndWhereGroup(where));
     }
 
     /**
-     * Order By Asc
+     * Adds a where group and its bindings.
      *
-     * @param column Column name
+     * @param group Where Group
+     *
+     * @return Query Builder
      */
     @NotNull
-    public QueryBuilder orderBy(String column)
+    protected QueryBuilder addWhere(@NotNull WhereGroup group)
     {
-        return this.orderBy(column, "ASC");
+        this.wheres.put(group);
+
+        group.addBindingsTo(this.bindings.get("where"));
+
+        return this;
     }
 
     /**
-     * Order By Desc
+     * Inner Join on two columns
      *
-     * @param column Column name
+     * @param table    Table, with an optional alias
+     * @param first    Column
+     * @param operator Operator
+     * @param second   Column compared against
+     *
+     * @return Query Builder
      */
     @NotNull
-    public QueryBuilder orderByDesc(String column)
+    public QueryBuilder join(String table, String first, String operator, String second)
     {
-        return this.orderBy(column, "DESC");
+        return this.addJoin(new JoinClause("INNER", table).on(first, operator, second));
     }
 
     /**
-     * Distinct Select
+     * Inner Join with the conditions added by the callback
      *
-     * @return QueryBuilder
+     * @param table    Table, with an optional alias
+     * @param callback Adds the conditions
+     *
+     * @return Query Builder
      */
     @NotNull
-    public QueryBuilder distinct()
+    public QueryBuilder join(String table, @NotNull JoinCallback callback)
     {
-        this.distinct = true;
+        JoinClause join = new JoinClause("INNER", table);
 
-        return this;
+        callback.build(join);
+
+        return this.addJoin(join);
     }
 
     /**
-     * @param column Column Name
-     * @param value  Value
+     * Left Join on two columns
      *
-     * @return QueryBuilder Instance
+     * @param table    Table, with an optional alias
+     * @param first    Column
+     * @param operator Operator
+     * @param second   Column compared against
+     *
+     * @return Query Builder
      */
     @NotNull
-    public QueryBuilder set(String column, Object value)
+    public QueryBuilder leftJoin(String table, String first, String operator, String second)
     {
-        this.sets.add(column, value);
-
-        return this;
+        return this.addJoin(new JoinClause("LEFT", table).on(first, operator, second));
     }
 
     /**
-     * @param raw Raw Expression
+     * Left Join with the conditions added by the callback
+     *
+     * @param table    Table, with an optional alias
+     * @param callback Adds the conditions
      *
      * @return Query Builder
      */
     @NotNull
-    public QueryBuilder addSelect(@NotNull Expression raw)
+    public QueryBuilder leftJoin(String table, @NotNull JoinCallback callback)
     {
-        this.columns.add(raw.toString());
+        JoinClause join = new JoinClause("LEFT", table);
 
-        return this;
+        callback.build(join);
+
+        return this.addJoin(join);
     }
 
     /**
-     * Execute the query as a "select" statement.
+     * Cross Join, every row with every row of the table
      *
-     * @param columns Column names
+     * @param table Table, with an optional alias
+     *
+     * @return Query Builder
      */
-    @Nullable
-    @SuppressWarnings("unchecked")
-    public Rows get(String... columns)
+    @NotNull
+    public QueryBuilder crossJoin(String table)
     {
-        List<String> original = this.columns;
-
-        if ( original.isEmpty() )
-        {
-            this.columns = Arrays.asList(columns);
-        }
-
-        ResultSet results = this.runSelect();
-
-        this.columns = original;
-
-        return this.processor.collection(results);
+        return this.addJoin(new JoinClause("CROSS", table));
     }
 
     /**
-     * @param columns Columns
+     * Adds a join and the bindings of its conditions.
      *
-     * @return First record from db
+     * @param join Join Clause
+     *
+     * @return Query Builder
      */
     @NotNull
-    @SuppressWarnings("unchecked")
-    public <T> T first(String... columns)
+    protected QueryBuilder addJoin(@NotNull JoinClause join)
     {
-        return (T) this.take(1).get(columns).first();
+        this.joins.add(join);
+
+        join.addBindingsTo(this.bindings.get("join"));
+
+        return this;
     }
 
     /**
-     * @param limit Amount to Limit
+     * Loads the rows of a related table with the results, set on each row as a relation named after the table. The
+     * related rows of every result are read together with WHERE foreignKey IN (...), split to fit the grammar's
+     * parameter limit, and matched to their rows in memory. The local key must be selected.
+     *
+     * Queries with related tables skip the result and row caches, as loading sets the relations on the rows.
+     *
+     * @param table      Related table
+     * @param foreignKey Column of the related table holding the key of the row it belongs to
+     * @param localKey   Column of the rows it refers to
      *
      * @return Query Builder
      */
     @NotNull
-    public QueryBuilder limit(int limit)
+    public QueryBuilder with(String table, String foreignKey, String localKey)
     {
-        this.limit = limit;
+        this.eagerLoads.add(new EagerLoad(table, foreignKey, localKey));
 
         return this;
     }
 
     /**
-     * Alias to the limit method
+     * Loads the rows of a related table with the results, referring to the primary key.
      *
-     * @param limit Limit number
+     * @param table      Related table
+     * @param foreignKey Column of the related table holding the key of the row it belongs to
      *
-     * @return QueryBuilderL
+     * @return Query Builder
      */
     @NotNull
-    public QueryBuilder take(int limit)
+    public QueryBuilder with(String table, String foreignKey)
     {
-        return this.limit(limit);
+        return this.with(table, foreignKey, this.primaryKey);
     }
 
     /**
-     * Sets the Offset
+     * Group By
      *
-     * @param offset Offset
+     * @param columns Column names
      *
-     * @return This query builder instance
+     * @return Query Builder
      */
     @NotNull
-    public QueryBuilder offset(int offset)
+    public QueryBuilder groupBy(@NotNull String... columns)
     {
-        this.offset = offset;
+        this.groups.addAll(Arrays.asList(columns));
 
         return this;
     }
 
     /**
-     * List with primary key
+     * Having Statement, joined to any earlier one with AND. The column is written as it is, so it can be an aggregate
+     * such as COUNT(*) or the alias of one.
      *
-     * @param primaryKey Primary key
-     * @param column     Column name
+     * @param column   Column, alias or aggregate
+     * @param operator Operator
+     * @param value    Value
+     *
+     * @return Query Builder
      */
-    @Nullable
-    public Collection list(String primaryKey, String column)
+    @NotNull
+    public QueryBuilder having(String column, String operator, Object value)
     {
-        return get(primaryKey, column);
+        Where having = new Where(column, operator, value);
+
+        return this.addHaving(this.havings.isEmpty() ? new WhereGroup(having) : new AndWhereGroup(having));
     }
 
     /**
-     * Return a list of ID, and Column Name
+     * @param column Column, alias or aggregate
+     * @param value  Value
      *
-     * @param column Column name
+     * @return Query Builder
      */
-    @Nullable
-    public Collection list(String column)
+    @NotNull
+    public QueryBuilder having(String column, Object value)
     {
-        return list("id", column);
+        return this.having(column, "=", value);
     }
 
     /**
-     * Run the query as a "select" statement against the connection.
+     * @param column   Column, alias or aggregate
+     * @param operator Operator
+     * @param value    Value
      *
-     * @return array
+     * @return Query Builder
      */
-    @Nullable
-    protected ResultSet runSelect()
+    @NotNull
+    public QueryBuilder orHaving(String column, String operator, Object value)
     {
-        return this.connection.select(this.toSql());
+        Where having = new Where(column, operator, value);
+
+        return this.addHaving(this.havings.isEmpty() ? new WhereGroup(having) : new OrWhereGroup(having));
     }
 
     /**
-     * Get the SQL representation of the query.
+     * @param column Column, alias or aggregate
+     * @param value  Value
      *
-     * @return string
+     * @return Query Builder
      */
     @NotNull
-    public String toSql()
+    public QueryBuilder orHaving(String column, Object value)
     {
-        return this.queryGrammar.compileSelect(this);
+        return this.orHaving(column, "=", value);
     }
 
     /**
-     * Checks if the Table Exists
+     * Adds a having group and its bindings.
+     *
+     * @param group Where Group
      *
-     * @return True of False if Table exists
+     * @return Query Builder
      */
-    public boolean exists()
+    @NotNull
+    protected QueryBuilder addHaving(@NotNull WhereGroup group)
     {
-//        Row row = new TableProcessor().single(this.connection.statement(
-//                this.connection.getSchemaGrammar().compileTableExists(connection.)
-//        ));
-//
-//        return ! row.isEmpty();
+        this.havings.put(group);
+
+        group.addBindingsTo(this.bindings.get("having"));
 
-        return false;
+        return this;
     }
 
     /**
-     * Gets Post Processor Instance.
+     * Adds a value binding to the query.
      *
-     * @return Post Processor Instance.
+     * @param value Value
+     * @param type  Clause the value belongs to
+     *
+     * @return Query Builder
      */
-    public PostProcessor getProcessor()
+    @NotNull
+    public QueryBuilder addBinding(Object value, @NotNull String type)
     {
-        return processor;
+        if ( ! this.bindings.containsKey(type) )
+        {
+            throw new InvalidArgumentException("Invalid binding type: " + type);
+        }
+
+        this.bindings.get(type).add(value);
+
+        return this;
     }
 
     /**
-     * Performs an UPDATE statement.
+     * Gets the bindings in the order their placeholders appear in the SQL.
      *
-     * @return Number of affected rows
+     * @return Flattened bindings
      */
-    public int update()
+    @NotNull
+    public List<Object> getBindings()
     {
-        String sql = this.queryGrammar.compileUpdate(this);
+        List<Object> flattened = new ArrayList<>();
 
-        return this.connection.update(sql);
+        this.bindings.values().forEach(flattened::addAll);
+
+        return flattened;
     }
 
-    public QueryGrammar getGrammar()
+    /**
+     * @return Bindings by clause
+     */
+    @NotNull
+    public Map<String, List<Object>> getRawBindings()
     {
-        return grammar;
+        return bindings;
     }
 
+    /**
+     * Order By
+     *
+     * @param column    Column name
+     * @param direction Direction
+     */
     @NotNull
-    public QueryBuilder insertInto(String... fields)
+    public QueryBuilder orderBy(String column, String direction)
     {
-        this.insertFields = fields;
+        this.orderBys.add(new OrderBy(column, direction));
 
         return this;
     }
 
-    public int values(Object... values)
+    /**
+     * Order By Asc
+     *
+     * @param column Column name
+     */
+    @NotNull
+    public QueryBuilder orderBy(String column)
     {
-        this.insertValues = values;
+        return this.orderBy(column, "ASC");
+    }
 
-        String sql = this.queryGrammar.compileInsert(this);
+    /**
+     * Order By Desc
+     *
+     * @param column Column name
+     */
+    @NotNull
+    public QueryBuilder orderByDesc(String column)
+    {
+        return this.orderBy(column, "DESC");
+    }
+
+    /**
+     * Distinct Select
+     *
+     * @return QueryBuilder
+     */
+    @NotNull
+    public QueryBuilder distinct()
+    {
+        this.distinct = true;
+
+        return this;
+    }
+
+    /**
+     * @param column Column Name
+     * @param value  Value
+     *
+     * @return QueryBuilder Instance
+     */
+    @NotNull
+    public QueryBuilder set(String column, Object value)
+    {
+        this.sets.put(column, value);
+
+        return this;
+    }
+
+    /**
+     * @param raw Raw Expression
+     *
+     * @return Query Builder
+     */
+    @NotNull
+    public QueryBuilder addSelect(@NotNull Expression raw)
+    {
+        this.columns.add(raw.toString());
+        this.rawColumns.add(raw.toString());
+
+        return this;
+    }
+
+    /**
+     * Execute the query as a "select" statement.
+     *
+     * @param columns Column names
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public Rows get(String... columns)
+    {
+        List<String> original = this.columns;
+
+        if ( original.isEmpty() )
+        {
+            this.columns = Arrays.asList(columns);
+        }
+
+        String sql = this.toSql();
+
+        this.columns = original;
+
+        if ( ! this.eagerLoads.isEmpty() )
+        {
+            Rows rows = this.connection.select(sql, this.getBindings(), this.processor::collection);
+
+            return rows != null && loadRelations(rows) ? rows : null;
+        }
+
+        if ( this.rememberNanos > 0 )
+        {
+            return getRemembered(sql, this.getBindings());
+        }
+
+        return this.connection.select(sql, this.getBindings(), this.processor::collection);
+    }
+
+    /**
+     * Reads the related rows of every eager load and sets them on the rows they belong to.
+     *
+     * @param rows Rows of the query
+     *
+     * @return False when a query failed
+     */
+    protected boolean loadRelations(@NotNull Rows rows)
+    {
+        for ( EagerLoad load : this.eagerLoads )
+        {
+            Map<Object, Rows> related = getRelated(load, rows);
+
+            if ( related == null )
+            {
+                return false;
+            }
+
+            for ( Row row : rows.data() )
+            {
+                Object key = row.getObject(load.getLocalKey());
+                Rows matches = key != null ? related.get(RowCache.keyOf(key)) : null;
+
+                row.setRelation(load.getTable(), matches != null ? matches : new Rows());
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads the related rows of an eager load with one WHERE IN query per chunk of keys, and groups them by the key
+     * they belong to.
+     *
+     * @param load Eager Load
+     * @param rows Rows of the query
+     *
+     * @return Related rows by key, or null when a query failed
+     */
+    @Nullable
+    private Map<Object, Rows> getRelated(@NotNull EagerLoad load, @NotNull Rows rows)
+    {
+        LinkedHashSet<Object> keys = new LinkedHashSet<>();
+
+        for ( Row row : rows.data() )
+        {
+            Object key = row.getObject(load.getLocalKey());
+
+            if ( key != null )
+            {
+                keys.add(RowCache.keyOf(key));
+            }
+        }
+
+        List<Object> ids = new ArrayList<>(keys);
+        Map<Object, Rows> related = new HashMap<>();
+        int perQuery = Math.max(1, this.queryGrammar.getMaxParameters());
+
+        for ( int start = 0; start < ids.size(); start += perQuery )
+        {
+            Rows chunk = new QueryBuilder(this.connection, this.queryGrammar, this.processor)
+                    .from(load.getTable())
+                    .whereIn(load.getForeignKey(), ids.subList(start, Math.min(start + perQuery, ids.size())))
+                    .get();
+
+            if ( chunk == null )
+            {
+                return null;
+            }
+
+            for ( Row row : chunk.data() )
+            {
+                Object key = row.getObject(load.getForeignKey());
+
+                if ( key != null )
+                {
+                    related.computeIfAbsent(RowCache.keyOf(key), k -> new Rows()).add(row);
+                }
+            }
+        }
+
+        return related;
+    }
+
+    /**
+     * Takes the rows from the result cache, running the query and caching them on a miss.
+     *
+     * @param sql      SQL Query
+     * @param bindings Bindings
+     *
+     * @return Rows, or null when the query failed
+     */
+    @Nullable
+    private Rows getRemembered(@NotNull String sql, @NotNull List<Object> bindings)
+    {
+        ResultCache cache = this.connection.getResultCache();
+        Rows rows = cache.get(sql, bindings);
+
+        if ( rows != null )
+        {
+            return rows;
+        }
+
+        List<String> tables = getTableNames();
+        long stamp = cache.stamp(tables);
+
+        rows = this.connection.select(sql, bindings, this.processor::collection);
+
+        if ( rows != null )
+        {
+            cache.put(sql, bindings, tables, stamp, rows, this.rememberNanos);
+        }
+
+        return rows;
+    }
+
+    /**
+     * Keeps the rows of get() in the connection's result cache for a time, so running the same query with the same
+     * values again doesn't touch the database. Writes through a query builder on the same connection to the table
+     * drop them.
+     *
+     * @param ttl Time to keep the rows
+     *
+     * @return This query builder instance
+     */
+    @NotNull
+    public QueryBuilder remember(@NotNull Duration ttl)
+    {
+        this.rememberNanos = Math.max(0, ttl.toNanos());
+
+        return this;
+    }
+
+    /**
+     * @return Tables the query reads, which its cached results are dropped with
+     */
+    @NotNull
+    public List<String> getTableNames()
+    {
+        if ( this.joins.isEmpty() )
+        {
+            return Collections.singletonList(this.tableName);
+        }
+
+        List<String> tables = new ArrayList<>();
+
+        tables.add(this.tableName);
+
+        for ( JoinClause join : this.joins )
+        {
+            // Aliased tables are tagged by their name, as writes are
+            String table = firstWord(join.getTable());
+
+            if ( ! tables.contains(table) )
+            {
+                tables.add(table);
+            }
+        }
+
+        return tables;
+    }
+
+    /**
+     * @param value Table, optionally followed by an alias
+     *
+     * @return The table name, without surrounding whitespace or alias
+     */
+    @NotNull
+    private static String firstWord(@NotNull String value)
+    {
+        int start = 0;
+
+        while ( start < value.length() && Character.isWhitespace(value.charAt(start)) )
+        {
+            start++;
+        }
+
+        int end = start;
+
+        while ( end < value.length() && ! Character.isWhitespace(value.charAt(end)) )
+        {
+            end++;
+        }
+
+        return value.substring(start, end);
+    }
+
+    /**
+     * Drops the cached results of the table after a write.
+     */
+    protected void forgetResults()
+    {
+        this.connection.getResultCache().invalidate(this.tableName);
+    }
+
+    /**
+     * Drops the cached rows an update or delete touched, which are known when the only where is on the primary key,
+     * or every row of the table when they are not.
+     */
+    protected void forgetRows()
+    {
+        RowCache cache = this.connection.getRowCache();
+        List<Object> ids = getWhereKeys();
+
+        if ( ids == null )
+        {
+            cache.invalidate(this.tableName);
+
+            return;
+        }
+
+        List<Object> written = new ArrayList<>(ids.size());
+
+        for ( Object id : ids )
+        {
+            if ( id != null )
+            {
+                written.add(id);
+            }
+        }
+
+        cache.evict(this.tableName, this.primaryKey, written);
+    }
+
+    /**
+     * Drops the cached rows an insert may have replaced, found by the inserted primary keys, or every row of the table
+     * when the primary key is not one of the inserted fields.
+     *
+     * @param rows Values of each inserted row, in field order
+     */
+    protected void forgetInsertedRows(@NotNull List<Object[]> rows)
+    {
+        RowCache cache = this.connection.getRowCache();
+        int key = this.insertFields != null ? Arrays.asList(this.insertFields).indexOf(this.primaryKey) : -1;
+
+        if ( key < 0 )
+        {
+            cache.invalidate(this.tableName);
+
+            return;
+        }
+
+        List<Object> written = new ArrayList<>(rows.size());
+
+        for ( Object[] row : rows )
+        {
+            Object id = key < row.length ? row[key] : null;
+
+            if ( id == null || id instanceof Expression )
+            {
+                // The key is made by the database, so the rows it replaced can't be known
+                cache.invalidate(this.tableName);
+
+                return;
+            }
+
+            written.add(id);
+        }
+
+        cache.evict(this.tableName, this.primaryKey, written);
+    }
+
+    /**
+     * @return The primary keys the wheres limit the query to, or null unless the only where is key = ? or key IN
+     */
+    @Nullable
+    private List<Object> getWhereKeys()
+    {
+        if ( this.wheres.count() != 1 || ((WhereGroup) this.wheres.data(0)).data().size() != 1 )
+        {
+            return null;
+        }
+
+        Object where = ((WhereGroup) this.wheres.data(0)).data().get(0);
+
+        if ( ! (where instanceof Where) || ! this.primaryKey.equals(((Where) where).getColumn()) )
+        {
+            return null;
+        }
+
+        if ( where instanceof WhereIn )
+        {
+            List<Object> ids = new ArrayList<>();
+
+            ((WhereIn) where).addBindingsTo(ids);
+
+            return ids.size() == ((WhereIn) where).getValues().size() ? ids : null;
+        }
+
+        Where key = (Where) where;
+
+        return key.getClass() == Where.class && "=".equals(key.getOperator()) && key.hasBinding()
+                ? Collections.singletonList(key.getValue()) : null;
+    }
+
+    /**
+     * Execute the query as a "select" statement and read the result column by column, for scanning and aggregating
+     * many rows.
+     *
+     * @return Column Batch, or null when the query failed
+     */
+    @Nullable
+    public ColumnBatch getBatch()
+    {
+        return this.connection.select(this.toSql(), this.getBindings(), new ColumnarProcessor()::processBatch);
+    }
+
+    /**
+     * Execute the query as a "select" statement and map each record onto an instance of the class.
+     *
+     * @param type Class with setters or fields named like the columns, see BeanProcessor
+     *
+     * @return Instances, or null when the query failed
+     */
+    @Nullable
+    public <T> List<T> get(@NotNull Class<T> type)
+    {
+        return this.connection.select(this.toSql(), this.getBindings(), BeanProcessor.of(type)::processBeans);
+    }
+
+    /**
+     * Runs the query in chunks of rows using limit and offset, handing each chunk to the callback.
+     *
+     * The query must be ordered so rows don't move between chunks. Large offsets get slower to skip, so prefer
+     * chunkById for big tables.
+     *
+     * @param size     Rows per chunk
+     * @param callback Called with each chunk, return false to stop
+     *
+     * @return False if the callback stopped the chunking
+     */
+    public boolean chunk(int size, @NotNull ChunkCallback callback)
+    {
+        if ( this.orderBys.isEmpty() )
+        {
+            throw new InvalidArgumentException("An orderBy clause is required when chunking.");
+        }
+
+        int originalLimit = this.limit;
+        int originalOffset = this.offset;
+
+        try
+        {
+            int page = 1;
+            int count;
+
+            do
+            {
+                this.limit(size).offset((page - 1) * size);
+
+                Rows rows = getChunk();
+
+                count = rows.count();
+
+                if ( count == 0 )
+                {
+                    break;
+                }
+
+                if ( ! callback.handle(rows, page) )
+                {
+                    return false;
+                }
+
+                page++;
+            } while ( count == size );
+        } finally
+        {
+            this.limit = originalLimit;
+            this.offset = originalOffset;
+        }
+
+        return true;
+    }
+
+    /**
+     * Runs the query in chunks of rows ordered by the id column, handing each chunk to the callback.
+     *
+     * @param size     Rows per chunk
+     * @param callback Called with each chunk, return false to stop
+     *
+     * @return False if the callback stopped the chunking
+     */
+    public boolean chunkById(int size, @NotNull ChunkCallback callback)
+    {
+        return chunkById(size, "id", callback);
+    }
+
+    /**
+     * Runs the query in chunks of rows using keyset pagination, handing each chunk to the callback.
+     *
+     * Each chunk adds WHERE column > last seen value ORDER BY column LIMIT size to the query, so every chunk costs
+     * the same however far into the table it is. The existing wheres are kept and the orders are replaced while
+     * chunking, as the rows must be ordered by the column alone.
+     *
+     * @param size     Rows per chunk
+     * @param column   Unique, ordered column such as the primary key, which must be selected
+     * @param callback Called with each chunk, return false to stop
+     *
+     * @return False if the callback stopped the chunking
+     */
+    public boolean chunkById(int size, @NotNull String column, @NotNull ChunkCallback callback)
+    {
+        String alias = column.substring(column.lastIndexOf('.') + 1);
+
+        List<Object> originalWheres = new ArrayList<>(this.wheres.data());
+        List<Object> originalBindings = new ArrayList<>(this.bindings.get("where"));
+        List<OrderBy> originalOrders = new ArrayList<>(this.orderBys);
+        int originalLimit = this.limit;
+        int originalOffset = this.offset;
+
+        try
+        {
+            Object lastId = null;
+            int page = 1;
+            int count;
+
+            do
+            {
+                this.wheres.data().clear();
+                this.bindings.get("where").clear();
+
+                if ( ! originalWheres.isEmpty() )
+                {
+                    this.addWhere(new WhereGroup(originalWheres));
+                }
+
+                if ( lastId != null )
+                {
+                    Where after = new Where(column, ">", lastId);
+
+                    this.addWhere(originalWheres.isEmpty() ? new WhereGroup(after) : new AndWhereGroup(after));
+                }
+
+                this.orderBys.clear();
+                this.orderBy(column).limit(size).offset(0);
+
+                Rows rows = getChunk();
+
+                count = rows.count();
+
+                if ( count == 0 )
+                {
+                    break;
+                }
+
+                if ( ! callback.handle(rows, page) )
+                {
+                    return false;
+                }
+
+                Column last = rows.last().column(alias);
+
+                if ( last == null )
+                {
+                    throw new InvalidArgumentException("The " + alias + " column must be selected to chunk by it.");
+                }
+
+                lastId = last.getValue();
+                page++;
+            } while ( count == size );
+        } finally
+        {
+            this.wheres.data().clear();
+            this.wheres.data().addAll(originalWheres);
+            this.bindings.get("where").clear();
+            this.bindings.get("where").addAll(originalBindings);
+            this.orderBys.clear();
+            this.orderBys.addAll(originalOrders);
+            this.limit = originalLimit;
+            this.offset = originalOffset;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return Rows of the current chunk
+     *
+     * @throws QueryException When the query failed
+     */
+    @NotNull
+    private Rows getChunk()
+    {
+        Rows rows = this.get();
+
+        if ( rows == null )
+        {
+            throw new QueryException("Chunk query failed.", this.toSql());
+        }
+
+        return rows;
+    }
+
+    /**
+     * Runs the query and returns a cursor that reads the rows one at a time instead of loading them all.
+     *
+     * The cursor holds a connection until it is closed, which happens on its own after the last row, so close it
+     * when stopping early, for example with try-with-resources.
+     *
+     * @return Open Cursor, or null when the query failed
+     */
+    @Nullable
+    public Cursor cursor()
+    {
+        return this.connection.cursor(this.toSql(), this.getBindings(), this.processor, this.fetchSize);
+    }
+
+    /**
+     * Runs the query and returns a lazily read stream of rows, closing the stream closes the cursor.
+     *
+     * @return Stream of Rows
+     */
+    @NotNull
+    public Stream<Row> stream()
+    {
+        Cursor cursor = this.cursor();
+
+        return cursor != null ? cursor.stream() : Stream.empty();
+    }
+
+    /**
+     * Sets the JDBC fetch size used by cursors, Integer.MIN_VALUE streams rows on MySQL.
+     *
+     * @param fetchSize Rows fetched per round trip
+     *
+     * @return This query builder instance
+     */
+    @NotNull
+    public QueryBuilder fetchSize(int fetchSize)
+    {
+        this.fetchSize = fetchSize;
+
+        return this;
+    }
+
+    /**
+     * @param columns Columns
+     *
+     * @return First record from db
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public <T> T first(String... columns)
+    {
+        return (T) this.take(1).get(columns).first();
+    }
+
+    /**
+     * @param type Class with setters or fields named like the columns, see BeanProcessor
+     *
+     * @return First record from db mapped onto an instance, or null when there are none
+     */
+    @Nullable
+    public <T> T first(@NotNull Class<T> type)
+    {
+        this.take(1);
+
+        return this.connection.select(this.toSql(), this.getBindings(), BeanProcessor.of(type)::processBean);
+    }
+
+    /**
+     * Finds a row by its primary key.
+     *
+     * Whole rows, queries selecting every column with no other wheres, are kept in the connection's row cache, so
+     * finding the same row again doesn't touch the database until it is updated or deleted through a query builder.
+     *
+     * @param id Primary key
+     *
+     * @return Row, or null when there is none
+     */
+    @Nullable
+    public Row find(@NotNull Object id)
+    {
+        boolean cached = isWholeRowLookup();
+        RowCache cache = cached ? this.connection.getRowCache() : null;
+
+        if ( cache != null )
+        {
+            Row row = cache.get(this.tableName, this.primaryKey, id);
+
+            if ( row != null )
+            {
+                return row;
+            }
+        }
+
+        long stamp = cache != null ? cache.stamp(this.tableName) : 0;
+
+        Rows rows = getWhereKey(id);
+        Row row = rows != null ? rows.first() : null;
+
+        if ( cache != null && row != null )
+        {
+            cache.put(this.tableName, this.primaryKey, id, stamp, row);
+        }
+
+        return row;
+    }
+
+    /**
+     * Finds rows by their primary keys, taking what it can from the row cache and reading the rest with WHERE key
+     * IN (...), split to fit the grammar's parameter limit. The primary key must be selected.
+     *
+     * @param ids Primary keys
+     *
+     * @return Rows in the order of the keys, leaving out keys with no row, or null when a query failed
+     */
+    @Nullable
+    public Rows findMany(@NotNull java.util.Collection<?> ids)
+    {
+        RowCache cache = isWholeRowLookup() ? this.connection.getRowCache() : null;
+
+        Map<Object, Row> found = new HashMap<>();
+        List<Object> missing = new ArrayList<>();
+
+        for ( Object id : new LinkedHashSet<>(ids) )
+        {
+            Row row = cache != null ? cache.get(this.tableName, this.primaryKey, id) : null;
+
+            if ( row != null )
+            {
+                found.put(RowCache.keyOf(id), row);
+            } else
+            {
+                missing.add(id);
+            }
+        }
+
+        long stamp = cache != null ? cache.stamp(this.tableName) : 0;
+        int perQuery = Math.max(1, this.queryGrammar.getMaxParameters() - this.getBindings().size());
+
+        for ( int start = 0; start < missing.size(); start += perQuery )
+        {
+            Rows rows = getWhereKeyIn(missing.subList(start, Math.min(start + perQuery, missing.size())));
+
+            if ( rows == null )
+            {
+                return null;
+            }
+
+            for ( Row row : rows.data() )
+            {
+                Object id = row.getObject(this.primaryKey);
+
+                if ( id == null )
+                {
+                    continue;
+                }
+
+                found.put(RowCache.keyOf(id), row);
+
+                if ( cache != null )
+                {
+                    cache.put(this.tableName, this.primaryKey, id, stamp, row);
+                }
+            }
+        }
+
+        Rows rows = new Rows();
+
+        for ( Object id : new LinkedHashSet<>(ids) )
+        {
+            Row row = found.get(RowCache.keyOf(id));
+
+            if ( row != null )
+            {
+                rows.add(row);
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     * Runs the query with WHERE key = ? LIMIT 1 added, leaving the wheres and limit as they were.
+     *
+     * @param id Primary key
+     *
+     * @return Rows, or null when the query failed
+     */
+    @Nullable
+    private Rows getWhereKey(@NotNull Object id)
+    {
+        List<Object> originalWheres = new ArrayList<>(this.wheres.data());
+        List<Object> originalBindings = new ArrayList<>(this.bindings.get("where"));
+        int originalLimit = this.limit;
+
+        try
+        {
+            Where where = new Where(this.primaryKey, id);
+
+            this.addWhere(this.wheres.isEmpty() ? new WhereGroup(where) : new AndWhereGroup(where));
+
+            return this.take(1).get();
+        } finally
+        {
+            restoreWheres(originalWheres, originalBindings);
+
+            this.limit = originalLimit;
+        }
+    }
+
+    /**
+     * Runs the query with WHERE key IN (...) added, leaving the wheres as they were.
+     *
+     * @param ids Primary keys
+     *
+     * @return Rows, or null when the query failed
+     */
+    @Nullable
+    private Rows getWhereKeyIn(@NotNull List<Object> ids)
+    {
+        List<Object> originalWheres = new ArrayList<>(this.wheres.data());
+        List<Object> originalBindings = new ArrayList<>(this.bindings.get("where"));
+
+        try
+        {
+            return this.whereIn(this.primaryKey, ids).get();
+        } finally
+        {
+            restoreWheres(originalWheres, originalBindings);
+        }
+    }
+
+    /**
+     * @param wheres   Wheres to put back
+     * @param bindings Where bindings to put back
+     */
+    private void restoreWheres(@NotNull List<Object> wheres, @NotNull List<Object> bindings)
+    {
+        this.wheres.data().clear();
+        this.wheres.data().addAll(wheres);
+        this.bindings.get("where").clear();
+        this.bindings.get("where").addAll(bindings);
+    }
+
+    /**
+     * Only whole rows found by the key alone are cached, so any row in the cache serves any lookup.
+     *
+     * @return True if the query selects every column and has no wheres, paging or distinct
+     */
+    private boolean isWholeRowLookup()
+    {
+        return this.wheres.isEmpty() && this.columns.equals(getDefaultSelectAll()) && ! this.distinct
+                && this.offset == 0 && this.joins.isEmpty() && this.groups.isEmpty() && this.havings.isEmpty()
+                && this.eagerLoads.isEmpty();
+    }
+
+    /**
+     * Sets the primary key column used by find and findMany.
+     *
+     * @param column Column name
+     *
+     * @return This query builder instance
+     */
+    @NotNull
+    public QueryBuilder primaryKey(@NotNull String column)
+    {
+        this.primaryKey = column;
+
+        return this;
+    }
+
+    /**
+     * @param limit Amount to Limit
+     *
+     * @return Query Builder
+     */
+    @NotNull
+    public QueryBuilder limit(int limit)
+    {
+        this.limit = limit;
+
+        return this;
+    }
+
+    /**
+     * Alias to the limit method
+     *
+     * @param limit Limit number
+     *
+     * @return QueryBuilderL
+     */
+    @NotNull
+    public QueryBuilder take(int limit)
+    {
+        return this.limit(limit);
+    }
+
+    /**
+     * Sets the Offset
+     *
+     * @param offset Offset
+     *
+     * @return This query builder instance
+     */
+    @NotNull
+    public QueryBuilder offset(int offset)
+    {
+        this.offset = offset;
+
+        return this;
+    }
+
+    /**
+     * List with primary key
+     *
+     * @param primaryKey Primary key
+     * @param column     Column name
+     */
+    @Nullable
+    public Collection list(String primaryKey, String column)
+    {
+        return get(primaryKey, column);
+    }
+
+    /**
+     * Return a list of ID, and Column Name
+     *
+     * @param column Column name
+     */
+    @Nullable
+    public Collection list(String column)
+    {
+        return list("id", column);
+    }
+
+    /**
+     * Run the query as a "select" statement against the connection.
+     *
+     * @return Disconnected copy of the results, see Connection.statement
+     */
+    @Nullable
+    protected ResultSet runSelect()
+    {
+        return this.connection.select(this.toSql(), this.getBindings());
+    }
+
+    /**
+     * Get the SQL representation of the query.
+     *
+     * @return string
+     */
+    @NotNull
+    public String toSql()
+    {
+        return this.queryGrammar.compileSelect(this);
+    }
+
+    /**
+     * Gets the fingerprint of the query without its bound values, queries of the same shape compile to the same SQL.
+     *
+     * @return Query Shape
+     */
+    @NotNull
+    public QueryShape getShape()
+    {
+        List<Object> shape = new ArrayList<>();
+
+        shape.add(this.tableName);
+        shape.add(this.distinct);
+        shape.add(this.limit);
+        shape.add(this.offset);
+        shape.add(this.aggregate != null ? this.aggregate.getFunction() : null);
+        shape.add(this.aggregate != null ? this.aggregate.getColumn() : null);
+
+        List<String> columns = this.columns.isEmpty() ? getDefaultSelectAll() : this.columns;
+
+        shape.add(columns.size());
+        shape.addAll(columns);
+        shape.add(this.rawColumns.size());
+
+        for ( int i = 0; i < columns.size() && ! this.rawColumns.isEmpty(); i++ )
+        {
+            if ( this.rawColumns.contains(columns.get(i)) )
+            {
+                shape.add(i);
+            }
+        }
+
+        shape.add(this.joins.size());
+
+        for ( JoinClause join : this.joins )
+        {
+            join.addShapeTo(shape);
+        }
+
+        shape.add(this.wheres.count());
+
+        for ( Object where : this.wheres.data() )
+        {
+            if ( where instanceof WhereGroup )
+            {
+                ((WhereGroup) where).addShapeTo(shape);
+            } else
+            {
+                shape.add(where.getClass());
+                shape.add(where.toString());
+            }
+        }
+
+        shape.add(this.groups.size());
+        shape.addAll(this.groups);
+        shape.add(this.havings.count());
+
+        for ( Object having : this.havings.data() )
+        {
+            ((WhereGroup) having).addShapeTo(shape);
+        }
+
+        shape.add(this.orderBys.size());
+
+        for ( OrderBy orderBy : this.orderBys )
+        {
+            shape.add(orderBy.getColumn());
+            shape.add(orderBy.getDirection());
+        }
+
+        return new QueryShape(shape);
+    }
+
+    /**
+     * Checks if the query has any rows with SELECT EXISTS(... LIMIT 1), without reading them or sorting.
+     *
+     * @return True if there is at least one row
+     */
+    public boolean exists()
+    {
+        List<OrderBy> originalOrders = new ArrayList<>(this.orderBys);
+        int originalLimit = this.limit;
+
+        String sql;
+
+        try
+        {
+            this.orderBys.clear();
+
+            sql = this.queryGrammar.compileExists(this.limit(1));
+        } finally
+        {
+            this.limit = originalLimit;
+            this.orderBys.clear();
+            this.orderBys.addAll(originalOrders);
+        }
+
+        Boolean exists = this.connection.select(
+                sql, this.getBindings(), resultSet -> resultSet.next() && resultSet.getBoolean(1)
+        );
+
+        return exists != null && exists;
+    }
+
+    /**
+     * Counts the rows of the query, or the distinct values of its one selected column when it is distinct.
+     *
+     * @return Number of rows, 0 when the query failed
+     */
+    public long count()
+    {
+        boolean distinctColumn = this.distinct && this.columns.size() == 1 && ! "*".equals(this.columns.get(0));
+
+        return count(distinctColumn ? this.columns.get(0) : "*");
+    }
+
+    /**
+     * Counts the rows where the column is not NULL.
+     *
+     * @param column Column name
+     *
+     * @return Number of rows, 0 when the query failed
+     */
+    public long count(@NotNull String column)
+    {
+        Long count = aggregate("COUNT", column, resultSet -> resultSet.next() ? resultSet.getLong(1) : 0L);
+
+        return count != null ? count : 0;
+    }
+
+    /**
+     * @param column Numeric column
+     *
+     * @return Sum of the column, 0 when there are no rows or the query failed
+     */
+    public double sum(@NotNull String column)
+    {
+        return numericAggregate("SUM", column);
+    }
+
+    /**
+     * @param column Numeric column
+     *
+     * @return Average of the column, 0 when there are no rows or the query failed
+     */
+    public double avg(@NotNull String column)
+    {
+        return numericAggregate("AVG", column);
+    }
+
+    /**
+     * @param column Numeric column
+     *
+     * @return Smallest value of the column, 0 when there are no rows or the query failed
+     */
+    public double min(@NotNull String column)
+    {
+        return numericAggregate("MIN", column);
+    }
+
+    /**
+     * @param column Numeric column
+     *
+     * @return Largest value of the column, 0 when there are no rows or the query failed
+     */
+    public double max(@NotNull String column)
+    {
+        return numericAggregate("MAX", column);
+    }
+
+    /**
+     * @param function SQL function
+     * @param column   Numeric column
+     *
+     * @return Aggregate read straight from the first column, 0 for NULL
+     */
+    private double numericAggregate(@NotNull String function, @NotNull String column)
+    {
+        Double value = aggregate(function, column, resultSet -> resultSet.next() ? resultSet.getDouble(1) : 0.0);
+
+        return value != null ? value : 0;
+    }
+
+    /**
+     * Runs the query with an aggregate selected in place of its columns and hands the result to the callback.
+     *
+     * The orders are left out while it runs, as they mean nothing for a single row and some databases refuse them.
+     *
+     * @param function SQL function
+     * @param column   Column it aggregates, * for every row
+     * @param callback Reads the result
+     *
+     * @return The callback result, or null when the query failed
+     */
+    @Nullable
+    protected <T> T aggregate(@NotNull String function, @NotNull String column, @NotNull ResultCallback<T> callback)
+    {
+        List<OrderBy> originalOrders = new ArrayList<>(this.orderBys);
+
+        String sql;
+        List<Object> bindings;
+
+        try
+        {
+            this.aggregate = new Aggregate(function, column);
+            this.orderBys.clear();
+
+            sql = this.toSql();
+            bindings = this.getBindings();
+
+            // Selected columns, and the bindings of raw ones, only remain in the subquery of a grouped aggregate
+            if ( this.groups.isEmpty() && this.havings.isEmpty() )
+            {
+                bindings.subList(0, this.bindings.get("select").size()).clear();
+            }
+        } finally
+        {
+            this.aggregate = null;
+            this.orderBys.clear();
+            this.orderBys.addAll(originalOrders);
+        }
+
+        return this.connection.select(sql, bindings, callback);
+    }
+
+    /**
+     * Gets Post Processor Instance.
+     *
+     * @return Post Processor Instance.
+     */
+    public PostProcessor getProcessor()
+    {
+        return processor;
+    }
+
+    /**
+     * Performs an UPDATE statement.
+     *
+     * @return Number of affected rows
+     */
+    public int update()
+    {
+        String sql = this.queryGrammar.compileUpdate(this);
+
+        List<Object> bindings = withoutExpressions(this.sets.values());
+
+        // Only the wheres are compiled into UPDATE, so the other clauses' bindings are left out
+        bindings.addAll(this.bindings.get("where"));
+
+        try
+        {
+            return this.connection.update(sql, bindings);
+        } finally
+        {
+            forgetResults();
+            forgetRows();
+        }
+    }
+
+    /**
+     * Performs a DELETE statement with the wheres of the query, every row goes when there are none.
+     *
+     * @return Number of affected rows
+     */
+    public int delete()
+    {
+        String sql = this.queryGrammar.compileDelete(this);
+
+        try
+        {
+            return this.connection.delete(sql, new ArrayList<>(this.bindings.get("where")));
+        } finally
+        {
+            forgetResults();
+            forgetRows();
+        }
+    }
+
+    public QueryGrammar getGrammar()
+    {
+        return grammar;
+    }
+
+    @NotNull
+    public QueryBuilder insertInto(String... fields)
+    {
+        this.insertFields = fields;
+
+        return this;
+    }
+
+    public int values(Object... values)
+    {
+        this.insertValues = values;
+
+        String sql = this.queryGrammar.compileInsert(this);
+
+        try
+        {
+            return this.connection.insert(sql, withoutExpressions(Arrays.asList(values)));
+        } finally
+        {
+            forgetResults();
+            forgetInsertedRows(Collections.singletonList(values));
+        }
+    }
+
+    /**
+     * Inserts many rows into the fields given to insertInto.
+     *
+     * Rows are sent as multi row INSERT statements, each as large as the grammar's parameter limit allows, and all
+     * of them run in one transaction so either every row is inserted or none are.
+     *
+     * @param rows Values of each row, in field order
+     *
+     * @return Affected counts of each statement and the generated keys
+     */
+    @NotNull
+    public InsertResult insertMany(@NotNull List<Object[]> rows)
+    {
+        if ( this.insertFields == null || this.insertFields.length == 0 )
+        {
+            throw new InvalidArgumentException("Call insertInto with the fields before inserting rows.");
+        }
+
+        for ( Object[] row : rows )
+        {
+            if ( row.length != this.insertFields.length )
+            {
+                throw new InvalidArgumentException(
+                        "Expected " + this.insertFields.length + " values per row, got " + row.length + "."
+                );
+            }
+        }
+
+        if ( rows.isEmpty() )
+        {
+            return new InsertResult();
+        }
+
+        int rowsPerStatement = Math.max(1, this.queryGrammar.getMaxParameters() / this.insertFields.length);
+
+        try
+        {
+            return insertChunks(rows, rowsPerStatement);
+        } finally
+        {
+            forgetResults();
+            forgetInsertedRows(rows);
+        }
+    }
+
+    /**
+     * @param rows             Values of each row, in field order
+     * @param rowsPerStatement Rows sent in each INSERT
+     *
+     * @return Affected counts of each statement and the generated keys
+     */
+    @NotNull
+    private InsertResult insertChunks(@NotNull List<Object[]> rows, int rowsPerStatement)
+    {
+        return this.connection.transaction(connection ->
+        {
+            InsertResult result = new InsertResult();
+
+            for ( int start = 0; start < rows.size(); start += rowsPerStatement )
+            {
+                List<Object[]> chunk = rows.subList(start, Math.min(start + rowsPerStatement, rows.size()));
+
+                String sql = this.queryGrammar.compileInsert(this, chunk);
+
+                List<Object> bindings = new ArrayList<>();
+
+                for ( Object[] row : chunk )
+                {
+                    bindings.addAll(withoutExpressions(Arrays.asList(row)));
+                }
+
+                InsertResult inserted = connection.insertWithKeys(sql, bindings);
+
+                if ( inserted == null )
+                {
+                    throw new QueryException("Batch insert failed, rolling back.", sql);
+                }
+
+                result.merge(inserted);
+            }
+
+            return result;
+        });
+    }
+
+    /**
+     * Removes raw expressions, which are written into the SQL instead of being bound.
+     *
+     * @param values Values
+     *
+     * @return Bindings
+     */
+    @NotNull
+    protected List<Object> withoutExpressions(@NotNull java.util.Collection<Object> values)
+    {
+        List<Object> bindings = new ArrayList<>();
+
+        for ( Object value : values )
+        {
+            if ( ! (value instanceof Expression) )
+            {
+                bindings.add(value);
+            }
+        }
 
-        return this.connection.insert(sql);
+        return bindings;
     }
 }
@@ -25,23 +25,44 @@
 package com.jimmyhowe.jhdb.core.queries;
 
 import com.jimmyhowe.jhdb.core.BaseGrammar;
-import com.jimmyhowe.support.Str;
+import com.jimmyhowe.jhdb.core.queries.components.Aggregate;
+import com.jimmyhowe.jhdb.core.queries.components.JoinClause;
+import com.jimmyhowe.jhdb.core.queries.components.OrderBy;
+import com.jimmyhowe.jhdb.core.utilities.LruCache;
 import com.jimmyhowe.support.stores.ObjectStore;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * Abstract Query Grammar
  *
  * Common query grammar methods go here...
+ *
+ * Compiled selects are cached by query shape, so a query that was seen before, with any values, skips compiling.
+ * Subclasses compiling from anything outside QueryBuilder.getShape() must add it to the shape.
  */
 public class QueryGrammar extends BaseGrammar
 {
+    /**
+     * Compiled selects kept per grammar
+     */
+    private static final int SELECT_CACHE_SIZE = 256;
+
+    /**
+     * Statements that have a query plan
+     */
+    private static final String[] EXPLAINABLE = {"SELECT", "INSERT", "UPDATE", "DELETE", "REPLACE", "WITH"};
+
+    /**
+     * Compiled SQL by query shape
+     */
+    @NotNull
+    private final LruCache<QueryShape, String> selects = new LruCache<>(SELECT_CACHE_SIZE);
+
     /**
      * @param query Query Builder Instance
      *
@@ -50,6 +71,35 @@ public class QueryGrammar extends BaseGrammar
     @NotNull
     public String compileSelect(@NotNull QueryBuilder query)
     {
+        QueryShape shape = query.getShape();
+
+        String sql = selects.get(shape);
+
+        if ( sql == null )
+        {
+            sql = compileSelectComponents(query);
+
+            selects.put(shape, sql);
+        }
+
+        return sql;
+    }
+
+    /**
+     * Compiles the select without the cache
+     *
+     * @param query Query Builder Instance
+     *
+     * @return SQL Query
+     */
+    @NotNull
+    protected String compileSelectComponents(@NotNull QueryBuilder query)
+    {
+        if ( query.aggregate != null && ! (query.groups.isEmpty() && query.havings.isEmpty()) )
+        {
+            return compileGroupedAggregate(query);
+        }
+
         List<String> original = query.columns;
 
         if ( query.columns.isEmpty() )
@@ -57,11 +107,54 @@ public class QueryGrammar extends BaseGrammar
             query.columns = query.getDefaultSelectAll();
         }
 
-        String sql = this.concatenate(this.compileComponents(query)).trim();
+        StringBuilder sql = new StringBuilder(128);
 
-        query.columns = original;
+        try
+        {
+            append(sql, compileAggregate(query));
+            append(sql, compileColumns(query));
+            append(sql, compileFrom(query));
+            append(sql, compileJoins(query));
+            append(sql, compileWheres(query));
+            append(sql, compileGroups(query));
+            append(sql, compileHavings(query));
+            append(sql, compileOrders(query));
+            append(sql, compileLimit(query));
+            append(sql, compileOffset(query));
+            append(sql, compileUnions(query));
+            append(sql, compileLock(query));
+        } finally
+        {
+            query.columns = original;
+        }
 
-        return sql;
+        return sql.toString().trim();
+    }
+
+    /**
+     * Compiles an aggregate over the rows of a grouped query, one per group, rather than over the first group.
+     *
+     * @param query Query Builder Instance
+     *
+     * @return SQL Query
+     */
+    @NotNull
+    protected String compileGroupedAggregate(@NotNull QueryBuilder query)
+    {
+        Aggregate aggregate = query.aggregate;
+        String groups;
+
+        try
+        {
+            query.aggregate = null;
+
+            groups = compileSelectComponents(query);
+        } finally
+        {
+            query.aggregate = aggregate;
+        }
+
+        return compileAggregate(query) + " FROM (" + groups + ") AS aggregate_table";
     }
 
     /**
@@ -74,61 +167,112 @@ public class QueryGrammar extends BaseGrammar
     @NotNull
     public String concatenate(@NotNull List<String> segments)
     {
-        return Str.implode(" ", segments.stream()
-                                        .filter(s -> s != null && s != "")
-                                        .collect(Collectors.toList()));
+        StringBuilder sql = new StringBuilder();
+
+        for ( String segment : segments )
+        {
+            append(sql, segment);
+        }
+
+        return sql.toString();
     }
 
     /**
-     * Compile all the required components
+     * Appends a segment after a space, skipping empty segments
      *
-     * @param query Query Builder Instance
-     *
-     * @return Compiled Columns
+     * @param sql     SQL so far
+     * @param segment SQL Segment
      */
-    @NotNull
-    private List<String> compileComponents(@NotNull QueryBuilder query)
+    protected void append(@NotNull StringBuilder sql, @Nullable String segment)
     {
-        List<String> sql = new ArrayList<>();
-
-        sql.add(compileAggregate(query));
-        sql.add(compileColumns(query));
-        sql.add(compileFrom(query));
-        sql.add(compileJoins(query));
-        sql.add(compileWheres(query));
-        sql.add(compileGroups(query));
-        sql.add(compileHavings(query));
-        sql.add(compileOrders(query));
-        sql.add(compileLimit(query));
-        sql.add(compileOffset(query));
-        sql.add(compileUnions(query));
-        sql.add(compileLock(query));
+        if ( segment == null || segment.isEmpty() )
+        {
+            return;
+        }
 
-        return sql;
+        if ( sql.length() > 0 )
+        {
+            sql.append(' ');
+        }
+
+        sql.append(segment);
     }
 
     /**
+     * Compiles the aggregate selected in place of the columns, counting distinct values when the query is distinct.
+     *
      * @param query Query Builder Instance
      *
      * @return Compiled aggregate string
      */
     @Nullable
-    protected String compileAggregate(QueryBuilder query)
+    protected String compileAggregate(@NotNull QueryBuilder query)
     {
-        return null;
+        Aggregate aggregate = query.aggregate;
+
+        if ( aggregate == null )
+        {
+            return null;
+        }
+
+        String column = "*".equals(aggregate.getColumn()) ? "*" : wrap(aggregate.getColumn(), false);
+
+        if ( query.distinct && ! "*".equals(column) )
+        {
+            column = "DISTINCT " + column;
+        }
+
+        return "SELECT " + aggregate.getFunction() + "(" + column + ") AS aggregate";
     }
 
     /**
      * @param query Query Builder Instance
      *
-     * @return Compiled columns string
+     * @return Compiled columns string, or null when an aggregate is selected instead
      */
-    @NotNull
+    @Nullable
     protected String compileColumns(@NotNull QueryBuilder query)
     {
+        if ( query.aggregate != null )
+        {
+            return null;
+        }
+
         String select = query.distinct ? "SELECT DISTINCT " : "SELECT ";
 
-        return select + columnize(query.columns);
+        if ( query.rawColumns.isEmpty() )
+        {
+            return select + columnize(query.columns);
+        }
+
+        StringBuilder sql = new StringBuilder(select);
+
+        for ( int i = 0; i < query.columns.size(); i++ )
+        {
+            String column = query.columns.get(i);
+
+            if ( i > 0 )
+            {
+                sql.append(", ");
+            }
+
+            sql.append(query.rawColumns.contains(column) ? column : wrap(column, false));
+        }
+
+        return sql.toString();
+    }
+
+    /**
+     * Compiles a query that only asks whether the select has any rows.
+     *
+     * @param query Query Builder Instance
+     *
+     * @return SQL
+     */
+    @NotNull
+    public String compileExists(@NotNull QueryBuilder query)
+    {
+        return "SELECT EXISTS(" + compileSelect(query) + ") AS aggregate";
     }
 
     /**
@@ -148,9 +292,35 @@ public class QueryGrammar extends BaseGrammar
      * @return Compiled joins string
      */
     @Nullable
-    protected String compileJoins(QueryBuilder query)
+    protected String compileJoins(@NotNull QueryBuilder query)
     {
-        return null;
+        if ( query.joins.isEmpty() )
+        {
+            return null;
+        }
+
+        StringBuilder sql = new StringBuilder();
+
+        for ( JoinClause join : query.joins )
+        {
+            ObjectStore conditions = join.getConditions();
+
+            sql.append(join.getType()).append(" JOIN ").append(wrapTable(join.getTable()));
+
+            if ( ! conditions.isEmpty() )
+            {
+                sql.append(" ON");
+
+                for ( int i = 0; i < conditions.count(); i++ )
+                {
+                    sql.append(' ').append(conditions.data(i));
+                }
+            }
+
+            sql.append(' ');
+        }
+
+        return sql.toString().trim();
     }
 
     /**
@@ -161,21 +331,21 @@ public class QueryGrammar extends BaseGrammar
     @NotNull
     protected String compileWheres(@NotNull QueryBuilder query)
     {
-        String whereStatements = "";
-
         ObjectStore whereGroups = query.wheres;
 
-        if ( ! whereGroups.isEmpty() )
+        if ( whereGroups.isEmpty() )
         {
-            whereStatements = "WHERE ";
+            return "";
+        }
 
-            for ( int i = 0; i < whereGroups.count(); i++ )
-            {
-                whereStatements += pad(whereGroups.data(i).toString());
-            }
+        StringBuilder whereStatements = new StringBuilder("WHERE ");
+
+        for ( int i = 0; i < whereGroups.count(); i++ )
+        {
+            whereStatements.append(pad(whereGroups.data(i).toString()));
         }
 
-        return whereStatements.trim();
+        return whereStatements.toString().trim();
     }
 
     /**
@@ -184,9 +354,14 @@ public class QueryGrammar extends BaseGrammar
      * @return Compiled groups string
      */
     @Nullable
-    protected String compileGroups(QueryBuilder query)
+    protected String compileGroups(@NotNull QueryBuilder query)
     {
-        return null;
+        if ( query.groups.isEmpty() )
+        {
+            return null;
+        }
+
+        return "GROUP BY " + columnize(query.groups);
     }
 
     /**
@@ -195,9 +370,23 @@ public class QueryGrammar extends BaseGrammar
      * @return Compiled havings string
      */
     @Nullable
-    protected String compileHavings(QueryBuilder query)
+    protected String compileHavings(@NotNull QueryBuilder query)
     {
-        return null;
+        ObjectStore havingGroups = query.havings;
+
+        if ( havingGroups.isEmpty() )
+        {
+            return null;
+        }
+
+        StringBuilder havingStatements = new StringBuilder("HAVING ");
+
+        for ( int i = 0; i < havingGroups.count(); i++ )
+        {
+            havingStatements.append(pad(havingGroups.data(i).toString()));
+        }
+
+        return havingStatements.toString().trim();
     }
 
     /**
@@ -207,14 +396,26 @@ public class QueryGrammar extends BaseGrammar
      */
     protected String compileOrders(@NotNull QueryBuilder query)
     {
-        String orderBys = "";
+        if ( query.orderBys.isEmpty() )
+        {
+            return "";
+        }
 
-        if ( ! query.orderBys.isEmpty() )
+        StringBuilder orders = new StringBuilder("ORDER BY ");
+
+        for ( int i = 0; i < query.orderBys.size(); i++ )
         {
-            orderBys += query.orderBys.get(0).toString();
+            OrderBy orderBy = query.orderBys.get(i);
+
+            if ( i > 0 )
+            {
+                orders.append(", ");
+            }
+
+            orders.append(orderBy.getColumn()).append(' ').append(orderBy.getDirection());
         }
 
-        return orderBys;
+        return orders.toString();
     }
 
     /**
@@ -269,13 +470,42 @@ public class QueryGrammar extends BaseGrammar
     @NotNull
     public String compileUpdate(@NotNull QueryBuilder query)
     {
-        String table = wrapTable(query.getTableName());
+        StringBuilder sql = new StringBuilder("UPDATE ").append(wrapTable(query.getTableName())).append(" SET ");
 
-        String columns = "SET " + pad(Str.toCsv(query.sets.getAllWithFormat("$k = '$v'")));
+        boolean first = true;
 
-        String wheres = compileWheres(query);
+        for ( Map.Entry<String, Object> set : query.sets.entrySet() )
+        {
+            if ( ! first )
+            {
+                sql.append(", ");
+            }
 
-        return (("UPDATE " + query.getTableName() + " " + columns) + wheres).trim();
+            sql.append(set.getKey()).append(" = ").append(parameter(set.getValue()));
+
+            first = false;
+        }
+
+        sql.append(' ').append(compileWheres(query));
+
+        return sql.toString().trim();
+    }
+
+    /**
+     * Compile Delete Statement
+     *
+     * @param query Query Builder Instance
+     *
+     * @return SQL
+     */
+    @NotNull
+    public String compileDelete(@NotNull QueryBuilder query)
+    {
+        StringBuilder sql = new StringBuilder("DELETE FROM ").append(wrapTable(query.getTableName()));
+
+        sql.append(' ').append(compileWheres(query));
+
+        return sql.toString().trim();
     }
 
     /**
@@ -290,11 +520,136 @@ public class QueryGrammar extends BaseGrammar
     @NotNull
     public String compileInsert(@NotNull QueryBuilder query)
     {
-        return String.format(
-                "INSERT INTO %s (%s) VALUES (%s)",
-                wrapTable(query.getTableName()),
-                Str.toCsv(Arrays.asList(query.insertFields)),
-                Str.toCsv(Arrays.asList(wrapValues(query.insertValues)))
-        ).trim();
+        return compileInsert(query, Collections.singletonList(query.insertValues));
+    }
+
+    /**
+     * Compile a multi row Insert Statement
+     *
+     * INSERT INTO table_name (column1, column2, ...) VALUES (value1, value2, ...), (value1, value2, ...);
+     *
+     * @param query Query Builder Instance
+     * @param rows  Values of each row
+     *
+     * @return SQL
+     */
+    @NotNull
+    public String compileInsert(@NotNull QueryBuilder query, @NotNull List<Object[]> rows)
+    {
+        StringBuilder sql = new StringBuilder(64 + rows.size() * query.insertFields.length * 3);
+
+        sql.append("INSERT INTO ").append(wrapTable(query.getTableName())).append(" (");
+
+        for ( int i = 0; i < query.insertFields.length; i++ )
+        {
+            if ( i > 0 )
+            {
+                sql.append(", ");
+            }
+
+            sql.append(query.insertFields[i]);
+        }
+
+        sql.append(") VALUES ");
+
+        for ( int r = 0; r < rows.size(); r++ )
+        {
+            Object[] row = rows.get(r);
+
+            if ( r > 0 )
+            {
+                sql.append(", ");
+            }
+
+            sql.append('(');
+
+            for ( int i = 0; i < row.length; i++ )
+            {
+                if ( i > 0 )
+                {
+                    sql.append(", ");
+                }
+
+                sql.append(parameter(row[i]));
+            }
+
+            sql.append(')');
+        }
+
+        return sql.toString();
+    }
+
+    /**
+     * Compile a statement that describes how the database would run another, without running it.
+     *
+     * @param sql Statement to explain
+     *
+     * @return SQL
+     */
+    @NotNull
+    public String compileExplain(@NotNull String sql)
+    {
+        return "EXPLAIN " + sql;
+    }
+
+    /**
+     * Only data statements have a plan, schema changes and the like can't be explained.
+     *
+     * @param sql Statement
+     *
+     * @return True if compileExplain works for it
+     */
+    public boolean isExplainable(@NotNull String sql)
+    {
+        int start = 0;
+
+        while ( start < sql.length() && Character.isWhitespace(sql.charAt(start)) )
+        {
+            start++;
+        }
+
+        for ( String keyword : EXPLAINABLE )
+        {
+            if ( sql.regionMatches(true, start, keyword, 0, keyword.length()) )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Clears the compiled selects when the prefix changes, as it is not part of the shape.
+     *
+     * @param prefix Table prefix
+     *
+     * @return this
+     */
+    @NotNull
+    @Override
+    public BaseGrammar setTablePrefix(String prefix)
+    {
+        selects.clear();
+
+        return super.setTablePrefix(prefix);
+    }
+
+    /**
+     * @return Number of compiled selects cached
+     */
+    public int getCachedSelectCount()
+    {
+        return selects.size();
+    }
+
+    /**
+     * The most placeholders a single statement may have, inserts of many rows are split to stay under it.
+     *
+     * @return Maximum bound parameters per statement
+     */
+    public int getMaxParameters()
+    {
+        return 999;
     }
 }
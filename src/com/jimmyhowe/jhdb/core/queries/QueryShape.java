@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.queries;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Query Shape
+ *
+ * Fingerprint of everything that decides a query's SQL text, the table, columns, where structure and operators,
+ * orders, limit and offset, without the bound values. Queries of the same shape compile to the same SQL, so it is
+ * used as the key for compiled statements.
+ */
+public final class QueryShape
+{
+    @NotNull
+    private final Object[] parts;
+
+    private final int hash;
+
+    /**
+     * @param parts Parts of the shape, in a fixed order
+     */
+    public QueryShape(@NotNull List<Object> parts)
+    {
+        this.parts = parts.toArray();
+        this.hash = Arrays.hashCode(this.parts);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+
+        if ( ! (o instanceof QueryShape) )
+        {
+            return false;
+        }
+
+        QueryShape that = (QueryShape) o;
+
+        return hash == that.hash && Arrays.equals(parts, that.parts);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return hash;
+    }
+
+    @Override
+    public String toString()
+    {
+        return Arrays.toString(parts);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.queries.components;
+
+/**
+ * Container for an Aggregate function selected instead of the columns
+ */
+public class Aggregate
+{
+    private final String function;
+
+    private final String column;
+
+    /**
+     * @param function SQL function, such as COUNT
+     * @param column   Column it aggregates, * for every row
+     */
+    public Aggregate(String function, String column)
+    {
+        this.function = function;
+        this.column = column;
+    }
+
+    /**
+     * @return SQL function
+     */
+    public String getFunction()
+    {
+        return function;
+    }
+
+    /**
+     * @return Column it aggregates
+     */
+    public String getColumn()
+    {
+        return column;
+    }
+
+    @Override
+    public String toString()
+    {
+        return function + "(" + column + ")";
+    }
+}
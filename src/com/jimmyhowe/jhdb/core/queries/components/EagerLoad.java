@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.queries.components;
+
+/**
+ * Container for a table of related rows loaded with the results of a query
+ */
+public class EagerLoad
+{
+    private final String table;
+
+    private final String foreignKey;
+
+    private final String localKey;
+
+    /**
+     * @param table      Related table, also the name of the relation
+     * @param foreignKey Column of the related table holding the key of the row it belongs to
+     * @param localKey   Column of the query's rows it refers to
+     */
+    public EagerLoad(String table, String foreignKey, String localKey)
+    {
+        this.table = table;
+        this.foreignKey = foreignKey;
+        this.localKey = localKey;
+    }
+
+    /**
+     * @return Related table
+     */
+    public String getTable()
+    {
+        return table;
+    }
+
+    /**
+     * @return Column of the related table
+     */
+    public String getForeignKey()
+    {
+        return foreignKey;
+    }
+
+    /**
+     * @return Column of the query's rows
+     */
+    public String getLocalKey()
+    {
+        return localKey;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.queries.components;
+
+import com.jimmyhowe.jhdb.core.utilities.Expression;
+import com.jimmyhowe.support.stores.ObjectStore;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Container for a Join and its conditions
+ *
+ * Conditions added with on compare two columns and are written into the SQL, those added with where compare a column
+ * to a value sent as a binding.
+ */
+public class JoinClause
+{
+    private final String type;
+
+    private final String table;
+
+    /**
+     * Condition groups, in the order they are compiled
+     */
+    private final ObjectStore conditions = new ObjectStore();
+
+    /**
+     * @param type  Join type, such as INNER, LEFT or CROSS
+     * @param table Table joined, with an optional alias
+     */
+    public JoinClause(String type, String table)
+    {
+        this.type = type;
+        this.table = table;
+    }
+
+    /**
+     * @param first    Column
+     * @param operator Operator
+     * @param second   Column compared against
+     *
+     * @return This join clause
+     */
+    @NotNull
+    public JoinClause on(String first, String operator, String second)
+    {
+        return this.addCondition(new Where(first, operator, new Expression(second)), false);
+    }
+
+    /**
+     * @param first    Column
+     * @param operator Operator
+     * @param second   Column compared against
+     *
+     * @return This join clause
+     */
+    @NotNull
+    public JoinClause orOn(String first, String operator, String second)
+    {
+        return this.addCondition(new Where(first, operator, new Expression(second)), true);
+    }
+
+    /**
+     * @param column   Column
+     * @param operator Operator
+     * @param value    Value
+     *
+     * @return This join clause
+     */
+    @NotNull
+    public JoinClause where(String column, String operator, Object value)
+    {
+        return this.addCondition(new Where(column, operator, value), false);
+    }
+
+    /**
+     * @param column Column
+     * @param value  Value
+     *
+     * @return This join clause
+     */
+    @NotNull
+    public JoinClause where(String column, Object value)
+    {
+        return this.where(column, "=", value);
+    }
+
+    /**
+     * @param column   Column
+     * @param operator Operator
+     * @param value    Value
+     *
+     * @return This join clause
+     */
+    @NotNull
+    public JoinClause orWhere(String column, String operator, Object value)
+    {
+        return this.addCondition(new Where(column, operator, value), true);
+    }
+
+    /**
+     * @param condition Condition
+     * @param or        Joined to earlier conditions with OR rather than AND
+     *
+     * @return This join clause
+     */
+    @NotNull
+    protected JoinClause addCondition(@NotNull Where condition, boolean or)
+    {
+        if ( this.conditions.isEmpty() )
+        {
+            this.conditions.put(new WhereGroup(condition));
+        } else
+        {
+            this.conditions.put(or ? new OrWhereGroup(condition) : new AndWhereGroup(condition));
+        }
+
+        return this;
+    }
+
+    /**
+     * @return Join type
+     */
+    public String getType()
+    {
+        return type;
+    }
+
+    /**
+     * @return Table joined, with an optional alias
+     */
+    public String getTable()
+    {
+        return table;
+    }
+
+    /**
+     * @return Condition groups
+     */
+    @NotNull
+    public ObjectStore getConditions()
+    {
+        return conditions;
+    }
+
+    /**
+     * Adds the bound values of the conditions, in the order they appear in the SQL.
+     *
+     * @param bindings Bindings list to add to
+     */
+    public void addBindingsTo(@NotNull List<Object> bindings)
+    {
+        for ( Object group : this.conditions.data() )
+        {
+            ((WhereGroup) group).addBindingsTo(bindings);
+        }
+    }
+
+    /**
+     * Adds the type, table and the structure of each condition, leaving out bound values.
+     *
+     * @param shape Shape parts to add to
+     */
+    public void addShapeTo(@NotNull List<Object> shape)
+    {
+        shape.add(type);
+        shape.add(table);
+        shape.add(this.conditions.count());
+
+        for ( Object group : this.conditions.data() )
+        {
+            ((WhereGroup) group).addShapeTo(shape);
+        }
+    }
+}
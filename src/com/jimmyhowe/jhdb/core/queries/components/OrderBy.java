@@ -39,9 +39,25 @@ public class OrderBy
         this.direction = direction;
     }
 
+    /**
+     * @return Column name
+     */
+    public String getColumn()
+    {
+        return column;
+    }
+
+    /**
+     * @return Direction
+     */
+    public String getDirection()
+    {
+        return direction;
+    }
+
     @Override
     public String toString()
     {
-        return String.format("ORDER BY %s %s", column, direction);
+        return String.format("%s %s", column, direction);
     }
 }
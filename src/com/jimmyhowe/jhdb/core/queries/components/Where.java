@@ -24,6 +24,11 @@
 
 package com.jimmyhowe.jhdb.core.queries.components;
 
+import com.jimmyhowe.jhdb.core.utilities.Expression;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
 /**
  * Container for Where Statement
  */
@@ -61,9 +66,73 @@ public class Where
         this.value = value;
     }
 
+    /**
+     * @return Column name
+     */
+    public String getColumn()
+    {
+        return column;
+    }
+
+    /**
+     * @return Operator
+     */
+    public String getOperator()
+    {
+        return operator;
+    }
+
+    /**
+     * @return Value compared against
+     */
+    public Object getValue()
+    {
+        return value;
+    }
+
+    /**
+     * Checks if the value is sent as a binding rather than written into the SQL.
+     *
+     * @return True unless the value is a raw expression
+     */
+    public boolean hasBinding()
+    {
+        return ! (value instanceof Expression);
+    }
+
+    /**
+     * Adds the bound values of the where, in the order they appear in the SQL.
+     *
+     * @param bindings Bindings list to add to
+     */
+    public void addBindingsTo(@NotNull List<Object> bindings)
+    {
+        if ( hasBinding() )
+        {
+            bindings.add(value);
+        }
+    }
+
+    /**
+     * Adds what decides the compiled SQL, the type, column and operator, and the value only when it is a raw
+     * expression written into the SQL.
+     *
+     * @param shape Shape parts to add to
+     */
+    public void addShapeTo(@NotNull List<Object> shape)
+    {
+        shape.add(getClass());
+        shape.add(column);
+        shape.add(operator);
+        shape.add(hasBinding() ? null : value.toString());
+    }
+
+    /**
+     * The value is written as a placeholder and sent as a binding, unless it is a raw expression.
+     */
     @Override
     public String toString()
     {
-        return String.format("%s %s '%s'", this.column, this.operator, this.value.toString());
+        return this.column + " " + this.operator + " " + (hasBinding() ? "?" : value.toString());
     }
 }
\ No newline at end of file
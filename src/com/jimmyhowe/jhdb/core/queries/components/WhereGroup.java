@@ -24,11 +24,9 @@
 
 package com.jimmyhowe.jhdb.core.queries.components;
 
-import com.jimmyhowe.support.Str;
 import com.jimmyhowe.support.stores.ObjectStore;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class WhereGroup extends ObjectStore
@@ -43,6 +41,16 @@ public class WhereGroup extends ObjectStore
         this.data().add(where);
     }
 
+    /**
+     * Nests other groups so they are compiled inside one set of brackets.
+     *
+     * @param groups Where Groups
+     */
+    public WhereGroup(@NotNull List<Object> groups)
+    {
+        this.data().addAll(groups);
+    }
+
     public WhereGroup(@NotNull Where[] wheres)
     {
         for ( int i = 0; i < wheres.length; i++ )
@@ -51,17 +59,70 @@ public class WhereGroup extends ObjectStore
         }
     }
 
+    /**
+     * Adds the bound values of the group, in the order they appear in the SQL.
+     *
+     * @param bindings Bindings list to add to
+     */
+    public void addBindingsTo(@NotNull List<Object> bindings)
+    {
+        for ( Object where : this.data() )
+        {
+            if ( where instanceof WhereGroup )
+            {
+                ((WhereGroup) where).addBindingsTo(bindings);
+            } else
+            {
+                ((Where) where).addBindingsTo(bindings);
+            }
+        }
+    }
+
+    /**
+     * Adds the structure of the group, its type and each nested group or where in order, leaving out bound values.
+     *
+     * @param shape Shape parts to add to
+     */
+    public void addShapeTo(@NotNull List<Object> shape)
+    {
+        shape.add(getClass());
+        shape.add(this.data().size());
+
+        for ( Object where : this.data() )
+        {
+            if ( where instanceof WhereGroup )
+            {
+                ((WhereGroup) where).addShapeTo(shape);
+            } else
+            {
+                ((Where) where).addShapeTo(shape);
+            }
+        }
+    }
+
     @NotNull
     @Override
     public String toString()
     {
-        List<String> list = new ArrayList<>();
+        List<Object> wheres = this.data();
 
-        for ( int i = 0; i < this.data().size(); i++ )
+        if ( wheres.size() == 1 )
         {
-            list.add(this.data().get(i).toString());
+            return wheres.get(0).toString();
+        }
+
+        StringBuilder sql = new StringBuilder("( ");
+
+        for ( int i = 0; i < wheres.size(); i++ )
+        {
+            if ( i > 0 )
+            {
+                sql.append(' ');
+            }
+
+            sql.append(wheres.get(i));
         }
 
-        return list.size() == 1 ? Str.toSpaceSeparated(list) : "( " + Str.toSpaceSeparated(list) + " )";
+        return sql.append(" )").toString();
     }
 }
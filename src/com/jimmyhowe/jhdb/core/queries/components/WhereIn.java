@@ -0,0 +1,138 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.queries.components;
+
+import com.jimmyhowe.jhdb.core.utilities.Expression;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Container for a Where In Statement
+ */
+public class WhereIn extends Where
+{
+    @NotNull
+    private final List<Object> values;
+
+    /**
+     * @param column Column
+     * @param values Values the column may equal
+     */
+    public WhereIn(String column, @NotNull Collection<?> values)
+    {
+        super(column, "IN", null);
+
+        this.values = new ArrayList<>(values);
+    }
+
+    /**
+     * @return Values the column may equal
+     */
+    @NotNull
+    public List<Object> getValues()
+    {
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * @return True if any value is sent as a binding
+     */
+    @Override
+    public boolean hasBinding()
+    {
+        for ( Object value : values )
+        {
+            if ( ! (value instanceof Expression) )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @param bindings Bindings list to add to
+     */
+    @Override
+    public void addBindingsTo(@NotNull List<Object> bindings)
+    {
+        for ( Object value : values )
+        {
+            if ( ! (value instanceof Expression) )
+            {
+                bindings.add(value);
+            }
+        }
+    }
+
+    /**
+     * The number of placeholders is part of the SQL, so queries with different numbers of values differ in shape.
+     *
+     * @param shape Shape parts to add to
+     */
+    @Override
+    public void addShapeTo(@NotNull List<Object> shape)
+    {
+        shape.add(getClass());
+        shape.add(getColumn());
+        shape.add(values.size());
+
+        for ( Object value : values )
+        {
+            shape.add(value instanceof Expression ? value.toString() : null);
+        }
+    }
+
+    /**
+     * An empty list matches nothing, which IN () can't say in SQL.
+     */
+    @Override
+    public String toString()
+    {
+        if ( values.isEmpty() )
+        {
+            return "0 = 1";
+        }
+
+        StringBuilder sql = new StringBuilder(getColumn()).append(" IN (");
+
+        for ( int i = 0; i < values.size(); i++ )
+        {
+            if ( i > 0 )
+            {
+                sql.append(", ");
+            }
+
+            sql.append(values.get(i) instanceof Expression ? values.get(i).toString() : "?");
+        }
+
+        return sql.append(')').toString();
+    }
+}
@@ -30,6 +30,7 @@ import com.jimmyhowe.jhdb.core.tables.rows.Row;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -150,10 +151,10 @@ public class SchemaBuilder
      */
     public boolean hasTable(String table, @NotNull Connection connection)
     {
-        Row row = new TableProcessor().single(connection.statement(connection.getSchemaGrammar().compileTableExists(
-                table)));
+        Row row = connection.select(connection.getSchemaGrammar().compileTableExists(table), Collections.emptyList(),
+                                    new TableProcessor()::processSingle);
 
-        return ! row.isEmpty();
+        return row != null && ! row.isEmpty();
     }
 
     /**
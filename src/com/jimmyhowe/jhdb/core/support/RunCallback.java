@@ -26,19 +26,23 @@ package com.jimmyhowe.jhdb.core.support;
 
 import com.jimmyhowe.jhdb.core.Connection;
 
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 /**
  * Callback for Run Statement
+ *
+ * @param <T> Type of the value produced by the statement
  */
-public interface RunCallback
+public interface RunCallback<T>
 {
     /**
      * @param me        Connector Instance
-     * @param statement JDBC SQL Statement
+     * @param statement Prepared JDBC Statement with its bindings set
+     *
+     * @return Result of the statement
      *
      * @throws SQLException When cant execute run on callback
      */
-    void run(Connection me, Statement statement) throws SQLException;
+    T run(Connection me, PreparedStatement statement) throws SQLException;
 }
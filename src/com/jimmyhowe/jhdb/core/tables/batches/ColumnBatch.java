@@ -0,0 +1,296 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.tables.batches;
+
+import com.jimmyhowe.jhdb.core.exceptions.InvalidArgumentException;
+import com.jimmyhowe.jhdb.core.tables.rows.ResultLayout;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.stream.IntStream;
+
+/**
+ * Column Batch
+ *
+ * A whole result held column by column: whole numbers and booleans in long arrays, floating point numbers in double
+ * arrays, text dictionary encoded, each with a NULL bitmap. Scanning one column walks one flat array, and rows can be
+ * scanned in parallel through indexes().
+ *
+ * The vector is picked from the column's metadata, but some drivers, such as SQLite's, report the type of the first
+ * value rather than of the column. For their checked layouts the values are read with getObject, a whole number column
+ * that meets a floating point value moves to a double vector, and any column that meets a value it can't hold moves to
+ * an object vector, so no value is truncated. Other drivers' numbers are read with the primitive getters.
+ *
+ *     ColumnBatch batch = DB.table("orders").getBatch();
+ *
+ *     LongVector status = batch.getLongs("status");
+ *     DoubleVector total = batch.getDoubles("total");
+ *
+ *     double paid = batch.indexes().parallel().filter(row -> status.get(row) == 2).mapToDouble(total::get).sum();
+ */
+public class ColumnBatch
+{
+    @NotNull
+    private final ResultLayout layout;
+
+    @NotNull
+    private final ColumnVector[] vectors;
+
+    private final int rowCount;
+
+    /**
+     * @param layout   Result Layout
+     * @param vectors  One vector per column, in layout order
+     * @param rowCount Number of rows
+     */
+    private ColumnBatch(@NotNull ResultLayout layout, @NotNull ColumnVector[] vectors, int rowCount)
+    {
+        this.layout = layout;
+        this.vectors = vectors;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Reads the rest of a result into a batch.
+     *
+     * @param resultSet Result Set, positioned before the first record to read
+     * @param layout    Layout of the result
+     *
+     * @return Column Batch
+     *
+     * @throws SQLException When can retrieve results
+     */
+    @NotNull
+    public static ColumnBatch read(@NotNull ResultSet resultSet, @NotNull ResultLayout layout) throws SQLException
+    {
+        ColumnVector[] vectors = new ColumnVector[layout.getColumnCount()];
+
+        for ( int i = 0; i < vectors.length; i++ )
+        {
+            vectors[i] = vectorFor(layout, i);
+        }
+
+        int rows = 0;
+
+        while ( resultSet.next() )
+        {
+            for ( int i = 0; i < vectors.length; i++ )
+            {
+                vectors[i] = vectors[i].read(resultSet, i + 1);
+            }
+
+            rows++;
+        }
+
+        for ( ColumnVector vector : vectors )
+        {
+            vector.trim();
+        }
+
+        return new ColumnBatch(layout, vectors, rows);
+    }
+
+    /**
+     * @param layout Result Layout
+     * @param index  Column index
+     *
+     * @return Empty vector suited to the column
+     */
+    @NotNull
+    private static ColumnVector vectorFor(@NotNull ResultLayout layout, int index)
+    {
+        String name = layout.getName(index);
+        boolean checked = layout.isChecked();
+
+        switch ( layout.getStorage(index) )
+        {
+            case ResultLayout.LONG:
+                return new LongVector(name, false, checked);
+            case ResultLayout.BOOLEAN:
+                return new LongVector(name, true, checked);
+            case ResultLayout.DOUBLE:
+                return new DoubleVector(name, checked);
+        }
+
+        // SQLite reports the class of the first value, java.lang.Object when it is NULL, so fall back to the type
+        boolean unknown = "java.lang.Object".equals(layout.getClassName(index));
+
+        switch ( layout.getType(index) )
+        {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return unknown ? new LongVector(name, false, checked) : new ObjectVector(name);
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return unknown ? new DoubleVector(name, checked) : new ObjectVector(name);
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return unknown ? new LongVector(name, true, checked) : new ObjectVector(name);
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return new StringVector(name);
+        }
+
+        return "java.lang.String".equals(layout.getClassName(index)) ? new StringVector(name) : new ObjectVector(name);
+    }
+
+    /**
+     * @return Layout of the result
+     */
+    @NotNull
+    public ResultLayout getLayout()
+    {
+        return layout;
+    }
+
+    /**
+     * @return Number of rows
+     */
+    public int getRowCount()
+    {
+        return rowCount;
+    }
+
+    /**
+     * @return Number of columns
+     */
+    public int getColumnCount()
+    {
+        return vectors.length;
+    }
+
+    /**
+     * @return Stream of the row indexes, call parallel() to scan the rows on several threads
+     */
+    @NotNull
+    public IntStream indexes()
+    {
+        return IntStream.range(0, rowCount);
+    }
+
+    /**
+     * @param index Column index, starting at 0
+     *
+     * @return Column vector
+     */
+    @NotNull
+    public ColumnVector getVector(int index)
+    {
+        return vectors[index];
+    }
+
+    /**
+     * @param name Column name
+     *
+     * @return Column vector
+     *
+     * @throws InvalidArgumentException When the batch has no such column
+     */
+    @NotNull
+    public ColumnVector getVector(String name)
+    {
+        int index = layout.indexOf(name);
+
+        if ( index < 0 )
+        {
+            throw new InvalidArgumentException("Batch has no column named '" + name + "'.");
+        }
+
+        return vectors[index];
+    }
+
+    /**
+     * @param name Column name
+     *
+     * @return Whole number or boolean column
+     */
+    @NotNull
+    public LongVector getLongs(String name)
+    {
+        return as(getVector(name), LongVector.class);
+    }
+
+    /**
+     * @param name Column name
+     *
+     * @return Floating point column
+     */
+    @NotNull
+    public DoubleVector getDoubles(String name)
+    {
+        return as(getVector(name), DoubleVector.class);
+    }
+
+    /**
+     * @param name Column name
+     *
+     * @return Text column
+     */
+    @NotNull
+    public StringVector getStrings(String name)
+    {
+        return as(getVector(name), StringVector.class);
+    }
+
+    /**
+     * @param name Column name
+     *
+     * @return Column of other objects
+     */
+    @NotNull
+    public ObjectVector getObjects(String name)
+    {
+        return as(getVector(name), ObjectVector.class);
+    }
+
+    /**
+     * @param vector Vector
+     * @param type   Expected vector class
+     *
+     * @return The vector as the class
+     *
+     * @throws InvalidArgumentException When the column is held in another kind of vector
+     */
+    @NotNull
+    private static <V extends ColumnVector> V as(@NotNull ColumnVector vector, @NotNull Class<V> type)
+    {
+        if ( ! type.isInstance(vector) )
+        {
+            throw new InvalidArgumentException("Column " + vector.getName() + " is held in a "
+                    + vector.getClass().getSimpleName() + ", not a " + type.getSimpleName() + ".");
+        }
+
+        return type.cast(vector);
+    }
+}
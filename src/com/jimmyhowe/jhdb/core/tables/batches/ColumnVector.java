@@ -0,0 +1,185 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.tables.batches;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * The values of one column of a ColumnBatch
+ *
+ * Values are kept in a flat array per column with a bitmap marking the NULLs, bit (row % 64) of word (row / 64). Rows
+ * are indexed from 0.
+ */
+public abstract class ColumnVector
+{
+    /**
+     * Rows allocated before the first growth
+     */
+    static final int INITIAL_CAPACITY = 1024;
+
+    @NotNull
+    private final String name;
+
+    /**
+     * Number of rows
+     */
+    protected int size = 0;
+
+    @Nullable
+    private long[] nulls;
+
+    private int nullCount = 0;
+
+    /**
+     * @param name Column name
+     */
+    ColumnVector(@NotNull String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * @return Column name
+     */
+    @NotNull
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return Number of rows
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @param row Row index
+     *
+     * @return True if the value is SQL NULL
+     */
+    public boolean isNull(int row)
+    {
+        return nulls != null && (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * @return Number of NULL values
+     */
+    public int getNullCount()
+    {
+        return nullCount;
+    }
+
+    /**
+     * @param row Row index
+     *
+     * @return Value boxed, or null
+     */
+    @Nullable
+    public abstract Object getObject(int row);
+
+    /**
+     * Appends the value of the record the ResultSet is positioned on.
+     *
+     * @param resultSet Result Set
+     * @param column    Column index, starting at 1
+     *
+     * @return This vector, or the vector the rows were moved to when the value didn't fit this one
+     *
+     * @throws SQLException When can retrieve results
+     */
+    @NotNull
+    abstract ColumnVector read(@NotNull ResultSet resultSet, int column) throws SQLException;
+
+    /**
+     * Moves the rows read so far into an object vector, for a value this vector can't hold.
+     *
+     * @param value Value that didn't fit, appended after the rows
+     *
+     * @return Object vector holding the column
+     */
+    @NotNull
+    ObjectVector toObjects(@Nullable Object value)
+    {
+        ObjectVector objects = new ObjectVector(name);
+
+        for ( int row = 0; row < size; row++ )
+        {
+            objects.add(getObject(row));
+        }
+
+        objects.add(value);
+
+        return objects;
+    }
+
+    /**
+     * Shrinks the arrays to the number of rows once reading is done.
+     */
+    void trim()
+    {
+        if ( nulls != null )
+        {
+            nulls = Arrays.copyOf(nulls, (size + 63) >>> 6);
+        }
+    }
+
+    /**
+     * Marks the row about to be appended as NULL.
+     */
+    void markNull()
+    {
+        int word = size >>> 6;
+
+        if ( nulls == null )
+        {
+            nulls = new long[Math.max(word + 1, INITIAL_CAPACITY >>> 6)];
+        } else if ( word >= nulls.length )
+        {
+            nulls = Arrays.copyOf(nulls, Math.max(word + 1, nulls.length * 2));
+        }
+
+        nulls[word] |= 1L << size;
+        nullCount++;
+    }
+
+    /**
+     * @param length Current array length
+     *
+     * @return Length to grow to for one more row
+     */
+    int grow(int length)
+    {
+        return Math.max(INITIAL_CAPACITY, length * 2);
+    }
+}
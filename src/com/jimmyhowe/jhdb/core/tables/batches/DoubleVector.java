@@ -0,0 +1,174 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.tables.batches;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+/**
+ * Floating point column
+ */
+public class DoubleVector extends ColumnVector
+{
+    /**
+     * Whole numbers up to this size are held exactly by a double
+     */
+    private static final long MAX_EXACT = 1L << 53;
+
+    @NotNull
+    private double[] values = new double[0];
+
+    /**
+     * True if values are read with getObject and checked, as the driver types each value rather than each column
+     */
+    private final boolean checked;
+
+    /**
+     * @param name    Column name
+     * @param checked True to read the values with getObject and check them
+     */
+    DoubleVector(@NotNull String name, boolean checked)
+    {
+        super(name);
+
+        this.checked = checked;
+    }
+
+    /**
+     * @param row Row index
+     *
+     * @return Value, 0 when null
+     */
+    public double get(int row)
+    {
+        return values[row];
+    }
+
+    /**
+     * @return The values, one per row with 0 for NULLs. This is the vector's own array, not a copy.
+     */
+    @NotNull
+    public double[] values()
+    {
+        return values;
+    }
+
+    /**
+     * @return Stream of the values that are not NULL, call parallel() to scan it on several threads
+     */
+    @NotNull
+    public DoubleStream stream()
+    {
+        if ( getNullCount() == 0 )
+        {
+            return Arrays.stream(values);
+        }
+
+        return IntStream.range(0, size).filter(row -> ! isNull(row)).mapToDouble(row -> values[row]);
+    }
+
+    @Nullable
+    @Override
+    public Object getObject(int row)
+    {
+        return isNull(row) ? null : values[row];
+    }
+
+    @NotNull
+    @Override
+    ColumnVector read(@NotNull ResultSet resultSet, int column) throws SQLException
+    {
+        if ( ! checked )
+        {
+            double value = resultSet.getDouble(column);
+
+            add(value, resultSet.wasNull());
+
+            return this;
+        }
+
+        Object value = resultSet.getObject(column);
+
+        if ( value != null && ! fits(value) )
+        {
+            return toObjects(value);
+        }
+
+        add(value != null ? ((Number) value).doubleValue() : 0, value == null);
+
+        return this;
+    }
+
+    /**
+     * @param value Value read with getObject, not null
+     *
+     * @return True if the value is a floating point number, or a whole number a double holds exactly
+     */
+    static boolean fits(@NotNull Object value)
+    {
+        if ( value instanceof Long )
+        {
+            long number = (Long) value;
+
+            return number >= -MAX_EXACT && number <= MAX_EXACT;
+        }
+
+        return value instanceof Double || value instanceof Float || value instanceof Integer
+                || value instanceof Short || value instanceof Byte;
+    }
+
+    /**
+     * @param value  Value to append
+     * @param isNull True if the value is SQL NULL
+     */
+    void add(double value, boolean isNull)
+    {
+        if ( isNull )
+        {
+            markNull();
+        }
+
+        if ( size == values.length )
+        {
+            values = Arrays.copyOf(values, grow(values.length));
+        }
+
+        values[size++] = value;
+    }
+
+    @Override
+    void trim()
+    {
+        super.trim();
+
+        values = Arrays.copyOf(values, size);
+    }
+}
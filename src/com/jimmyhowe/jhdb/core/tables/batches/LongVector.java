@@ -0,0 +1,215 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.tables.batches;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Whole number column, also used for booleans as 1 and 0
+ */
+public class LongVector extends ColumnVector
+{
+    @NotNull
+    private long[] values = new long[0];
+
+    /**
+     * True if the column holds booleans
+     */
+    private final boolean booleans;
+
+    /**
+     * True if values are read with getObject and checked, as the driver types each value rather than each column
+     */
+    private final boolean checked;
+
+    /**
+     * @param name     Column name
+     * @param booleans True to read the column as booleans
+     * @param checked  True to read the values with getObject and check them
+     */
+    LongVector(@NotNull String name, boolean booleans, boolean checked)
+    {
+        super(name);
+
+        this.booleans = booleans;
+        this.checked = checked;
+    }
+
+    /**
+     * @param row Row index
+     *
+     * @return Value, 0 when null
+     */
+    public long get(int row)
+    {
+        return values[row];
+    }
+
+    /**
+     * @return The values, one per row with 0 for NULLs. This is the vector's own array, not a copy.
+     */
+    @NotNull
+    public long[] values()
+    {
+        return values;
+    }
+
+    /**
+     * @return Stream of the values that are not NULL, call parallel() to scan it on several threads
+     */
+    @NotNull
+    public LongStream stream()
+    {
+        if ( getNullCount() == 0 )
+        {
+            return Arrays.stream(values);
+        }
+
+        return IntStream.range(0, size).filter(row -> ! isNull(row)).mapToLong(row -> values[row]);
+    }
+
+    /**
+     * @return True if the column holds booleans
+     */
+    public boolean isBoolean()
+    {
+        return booleans;
+    }
+
+    @Nullable
+    @Override
+    public Object getObject(int row)
+    {
+        if ( isNull(row) )
+        {
+            return null;
+        }
+
+        return booleans ? (Object) (values[row] != 0) : (Object) values[row];
+    }
+
+    @NotNull
+    @Override
+    ColumnVector read(@NotNull ResultSet resultSet, int column) throws SQLException
+    {
+        if ( ! checked )
+        {
+            long value = booleans ? (resultSet.getBoolean(column) ? 1 : 0) : resultSet.getLong(column);
+
+            add(value, resultSet.wasNull());
+
+            return this;
+        }
+
+        Object value = resultSet.getObject(column);
+
+        if ( value == null )
+        {
+            add(0, true);
+        } else if ( value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte )
+        {
+            long number = ((Number) value).longValue();
+
+            // Drivers without a boolean type, such as SQLite, return whole numbers for boolean columns
+            add(booleans && number != 0 ? 1 : number, false);
+        } else if ( booleans && value instanceof Boolean )
+        {
+            add((Boolean) value ? 1 : 0, false);
+        } else if ( ! booleans && DoubleVector.fits(value) )
+        {
+            return toDoubles(value);
+        } else
+        {
+            return toObjects(value);
+        }
+
+        return this;
+    }
+
+    /**
+     * Moves the rows read so far into a double vector, for a floating point value in a whole number column.
+     *
+     * @param value Value that didn't fit, appended after the rows
+     *
+     * @return Double vector holding the column
+     */
+    @NotNull
+    private ColumnVector toDoubles(@NotNull Object value)
+    {
+        for ( int row = 0; row < size; row++ )
+        {
+            if ( ! isNull(row) && ! DoubleVector.fits(values[row]) )
+            {
+                return toObjects(value);
+            }
+        }
+
+        DoubleVector doubles = new DoubleVector(getName(), true);
+
+        for ( int row = 0; row < size; row++ )
+        {
+            doubles.add(values[row], isNull(row));
+        }
+
+        doubles.add(((Number) value).doubleValue(), false);
+
+        return doubles;
+    }
+
+    /**
+     * @param value  Value to append
+     * @param isNull True if the value is SQL NULL
+     */
+    private void add(long value, boolean isNull)
+    {
+        if ( isNull )
+        {
+            markNull();
+        }
+
+        if ( size == values.length )
+        {
+            values = Arrays.copyOf(values, grow(values.length));
+        }
+
+        values[size++] = value;
+    }
+
+    @Override
+    void trim()
+    {
+        super.trim();
+
+        values = Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.tables.batches;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Any other column, such as dates or decimals, kept as the objects the driver returns
+ */
+public class ObjectVector extends ColumnVector
+{
+    @NotNull
+    private Object[] values = new Object[0];
+
+    /**
+     * @param name Column name
+     */
+    ObjectVector(@NotNull String name)
+    {
+        super(name);
+    }
+
+    /**
+     * @param row Row index
+     *
+     * @return Value, or null
+     */
+    @Nullable
+    public Object get(int row)
+    {
+        return values[row];
+    }
+
+    @Nullable
+    @Override
+    public Object getObject(int row)
+    {
+        return values[row];
+    }
+
+    @NotNull
+    @Override
+    ColumnVector read(@NotNull ResultSet resultSet, int column) throws SQLException
+    {
+        add(resultSet.getObject(column));
+
+        return this;
+    }
+
+    /**
+     * @param value Value to append, or null
+     */
+    void add(@Nullable Object value)
+    {
+        if ( value == null )
+        {
+            markNull();
+        }
+
+        if ( size == values.length )
+        {
+            values = Arrays.copyOf(values, grow(values.length));
+        }
+
+        values[size++] = value;
+    }
+
+    @Override
+    void trim()
+    {
+        super.trim();
+
+        values = Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.tables.batches;
+
+import com.jimmyhowe.jhdb.core.exceptions.InvalidArgumentException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Text column, dictionary encoded while that saves memory
+ *
+ * Each distinct string is kept once in the dictionary and each row holds its code, -1 for NULL. Grouping or filtering
+ * on the codes avoids comparing strings. Once more than half the rows hold a new string, such as names or emails, the
+ * dictionary costs more than it saves and the column is kept as plain strings instead.
+ */
+public class StringVector extends ColumnVector
+{
+    /**
+     * Rows read before deciding whether the dictionary pays off
+     */
+    private static final int DICTIONARY_SAMPLE = 1024;
+
+    /**
+     * Codes while dictionary encoded
+     */
+    @Nullable
+    private int[] codes = new int[0];
+
+    @Nullable
+    private ArrayList<String> dictionary = new ArrayList<>();
+
+    /**
+     * Code of each distinct string
+     */
+    @Nullable
+    private Map<String, Integer> lookup = new HashMap<>();
+
+    /**
+     * Values once the dictionary was given up
+     */
+    @Nullable
+    private String[] values;
+
+    /**
+     * @param name Column name
+     */
+    StringVector(@NotNull String name)
+    {
+        super(name);
+    }
+
+    /**
+     * @param row Row index
+     *
+     * @return Value, or null
+     */
+    @Nullable
+    public String get(int row)
+    {
+        if ( values != null )
+        {
+            return values[row];
+        }
+
+        int code = codes[row];
+
+        return code < 0 ? null : dictionary.get(code);
+    }
+
+    /**
+     * @return True if the column holds dictionary codes
+     */
+    public boolean isDictionaryEncoded()
+    {
+        return values == null;
+    }
+
+    /**
+     * @param row Row index
+     *
+     * @return Dictionary code of the value, -1 for NULL
+     *
+     * @throws InvalidArgumentException When the column is not dictionary encoded
+     */
+    public int getCode(int row)
+    {
+        return codes()[row];
+    }
+
+    /**
+     * @return The codes, one per row. This is the vector's own array, not a copy.
+     *
+     * @throws InvalidArgumentException When the column is not dictionary encoded
+     */
+    @NotNull
+    public int[] codes()
+    {
+        requireDictionary();
+
+        return codes;
+    }
+
+    /**
+     * @return Distinct values, indexed by code
+     *
+     * @throws InvalidArgumentException When the column is not dictionary encoded
+     */
+    @NotNull
+    public List<String> getDictionary()
+    {
+        requireDictionary();
+
+        return Collections.unmodifiableList(dictionary);
+    }
+
+    /**
+     * @param value String
+     *
+     * @return Code of the string, or -1 when no row holds it
+     *
+     * @throws InvalidArgumentException When the column is not dictionary encoded
+     */
+    public int codeOf(@NotNull String value)
+    {
+        requireDictionary();
+
+        Integer code = lookup.get(value);
+
+        return code != null ? code : -1;
+    }
+
+    /**
+     * @return Stream of the values that are not NULL, call parallel() to scan it on several threads
+     */
+    @NotNull
+    public Stream<String> stream()
+    {
+        return IntStream.range(0, size).mapToObj(this::get).filter(Objects::nonNull);
+    }
+
+    @Nullable
+    @Override
+    public Object getObject(int row)
+    {
+        return get(row);
+    }
+
+    @NotNull
+    @Override
+    ColumnVector read(@NotNull ResultSet resultSet, int column) throws SQLException
+    {
+        String value = resultSet.getString(column);
+
+        if ( value == null )
+        {
+            markNull();
+        }
+
+        if ( values != null )
+        {
+            if ( size == values.length )
+            {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+
+            values[size++] = value;
+
+            return this;
+        }
+
+        int code = -1;
+
+        if ( value != null )
+        {
+            Integer known = lookup.get(value);
+
+            if ( known == null )
+            {
+                known = dictionary.size();
+
+                dictionary.add(value);
+                lookup.put(value, known);
+            }
+
+            code = known;
+        }
+
+        if ( size == codes.length )
+        {
+            codes = Arrays.copyOf(codes, grow(codes.length));
+        }
+
+        codes[size++] = code;
+
+        if ( size == DICTIONARY_SAMPLE && dictionary.size() > size / 2 )
+        {
+            decode();
+        }
+
+        return this;
+    }
+
+    @Override
+    void trim()
+    {
+        super.trim();
+
+        if ( values != null )
+        {
+            values = Arrays.copyOf(values, size);
+        } else
+        {
+            codes = Arrays.copyOf(codes, size);
+            dictionary.trimToSize();
+        }
+    }
+
+    /**
+     * Gives up the dictionary and keeps the strings read so far as plain values.
+     */
+    private void decode()
+    {
+        String[] decoded = new String[codes.length];
+
+        for ( int row = 0; row < size; row++ )
+        {
+            decoded[row] = codes[row] < 0 ? null : dictionary.get(codes[row]);
+        }
+
+        values = decoded;
+        codes = null;
+        dictionary = null;
+        lookup = null;
+    }
+
+    /**
+     * @throws InvalidArgumentException When the column is not dictionary encoded
+     */
+    private void requireDictionary()
+    {
+        if ( values != null )
+        {
+            throw new InvalidArgumentException("Column " + getName() + " has too many distinct values to be "
+                    + "dictionary encoded.");
+        }
+    }
+}
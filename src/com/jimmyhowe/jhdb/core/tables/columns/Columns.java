@@ -27,13 +27,33 @@ package com.jimmyhowe.jhdb.core.tables.columns;
 import com.jimmyhowe.support.collections.Collection;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Collection of Columns
+ *
+ * Fields are found through an index of names that is built on first lookup and rebuilt whenever the columns no longer
+ * match it, or a name is not in it.
  */
 public class Columns extends Collection<Column>
 {
+    /**
+     * Index of the first column with each name
+     */
+    private Map<String, Integer> index;
+
+    /**
+     * Number of columns when the index was built
+     */
+    private int indexedCount;
+
+    /**
+     * True if a name appears more than once
+     */
+    private boolean duplicates;
+
     /**
      * Empty Column Collection
      */
@@ -59,12 +79,7 @@ public class Columns extends Collection<Column>
      */
     public boolean hasField(String field)
     {
-        for ( Column column : this.data() )
-        {
-            if ( column.getName().equals(field) ) return true;
-        }
-
-        return false;
+        return indexOf(field) >= 0;
     }
 
     /**
@@ -75,7 +90,21 @@ public class Columns extends Collection<Column>
      */
     public void updateField(String field, Object value)
     {
-        for ( int i = 0; i < this.data().size(); i++ )
+        int first = indexOf(field);
+
+        if ( first < 0 )
+        {
+            return;
+        }
+
+        this.data(first).setValue(value);
+
+        if ( ! duplicates )
+        {
+            return;
+        }
+
+        for ( int i = first + 1; i < this.data().size(); i++ )
         {
             if ( this.data(i).getName().equals(field) )
             {
@@ -83,4 +112,52 @@ public class Columns extends Collection<Column>
             }
         }
     }
+
+    /**
+     * @param field Field Name
+     *
+     * @return Index of the first column with the name, or -1
+     */
+    public int indexOf(String field)
+    {
+        List<Column> columns = this.data();
+
+        if ( index == null || indexedCount != columns.size() )
+        {
+            buildIndex(columns);
+        }
+
+        Integer position = index.get(field);
+
+        if ( position != null && columns.get(position).getName().equals(field) )
+        {
+            return position;
+        }
+
+        // Missing or stale, as columns can be replaced or reordered in place since the index was built
+        buildIndex(columns);
+
+        position = index.get(field);
+
+        return position != null ? position : -1;
+    }
+
+    /**
+     * @param columns Columns to index
+     */
+    private void buildIndex(@NotNull List<Column> columns)
+    {
+        index = new HashMap<>(columns.size() * 2);
+        duplicates = false;
+
+        for ( int i = 0; i < columns.size(); i++ )
+        {
+            if ( index.putIfAbsent(columns.get(i).getName(), i) != null )
+            {
+                duplicates = true;
+            }
+        }
+
+        indexedCount = columns.size();
+    }
 }
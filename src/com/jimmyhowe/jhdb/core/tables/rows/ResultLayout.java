@@ -0,0 +1,464 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.tables.rows;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.sql.RowSetMetaData;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Result Layout
+ *
+ * The columns of a result, read from the ResultSetMetaData once and shared by every Row built from it. Column indexes
+ * start at 0.
+ *
+ * Each column is also given the storage its values are kept in by a Row. Whole numbers, floating point numbers and
+ * booleans are kept unboxed when both the JDBC type and the class the driver reports agree, anything else is kept as
+ * the object the driver returns. Some drivers, such as SQLite's, report the type of the first value rather than of the
+ * column. Their layouts are checked, each value is read as an object and checked against the storage, and a row with
+ * a value that doesn't fit is built with the boxed layout instead. Other drivers' values are read with the primitive
+ * getters, so they are never boxed.
+ *
+ * Layouts with the same names, types, classes and storage are equal, so they can key caches built per result shape.
+ */
+public class ResultLayout
+{
+    /**
+     * Kept as the object returned by getObject
+     */
+    public static final int OBJECT = 0;
+
+    /**
+     * Kept as a long, read with getLong
+     */
+    public static final int LONG = 1;
+
+    /**
+     * Kept as a double, read with getDouble
+     */
+    public static final int DOUBLE = 2;
+
+    /**
+     * Kept as 1 or 0, read with getBoolean
+     */
+    public static final int BOOLEAN = 3;
+
+    @NotNull
+    private final String[] names;
+
+    /**
+     * java.sql.Types of each column
+     */
+    @NotNull
+    private final int[] types;
+
+    @NotNull
+    private final String[] typeNames;
+
+    /**
+     * Class the driver returns from getObject for each column
+     */
+    @NotNull
+    private final String[] classNames;
+
+    /**
+     * Storage of each column
+     */
+    @NotNull
+    private final int[] storage;
+
+    /**
+     * Position of each column in the array of its storage
+     */
+    @NotNull
+    private final int[] slots;
+
+    private final int primitiveCount;
+
+    private final int objectCount;
+
+    /**
+     * Index of each column name, the first one wins when a name repeats
+     */
+    @NotNull
+    private final Map<String, Integer> indexes;
+
+    /**
+     * True when the driver types each value rather than each column, so values are checked as they are read
+     */
+    private final boolean checked;
+
+    /**
+     * The same columns with every value kept as an object, made on first use
+     */
+    @Nullable
+    private ResultLayout boxed;
+
+    /**
+     * @param names      Column names
+     * @param types      JDBC types
+     * @param typeNames  Database type names
+     * @param classNames Java class names
+     */
+    public ResultLayout(@NotNull String[] names, @NotNull int[] types, @NotNull String[] typeNames,
+                        @NotNull String[] classNames)
+    {
+        this(names, types, typeNames, classNames, false);
+    }
+
+    /**
+     * @param names      Column names
+     * @param types      JDBC types
+     * @param typeNames  Database type names
+     * @param classNames Java class names
+     * @param checked    True when the driver types each value rather than each column
+     */
+    public ResultLayout(@NotNull String[] names, @NotNull int[] types, @NotNull String[] typeNames,
+                        @NotNull String[] classNames, boolean checked)
+    {
+        this(names, types, typeNames, classNames, true, checked);
+    }
+
+    /**
+     * @param names      Column names
+     * @param types      JDBC types
+     * @param typeNames  Database type names
+     * @param classNames Java class names
+     * @param unboxed    Keep the values of numeric and boolean columns unboxed
+     * @param checked    True when the driver types each value rather than each column
+     */
+    private ResultLayout(@NotNull String[] names, @NotNull int[] types, @NotNull String[] typeNames,
+                         @NotNull String[] classNames, boolean unboxed, boolean checked)
+    {
+        this.checked = checked;
+        this.names = names;
+        this.types = types;
+        this.typeNames = typeNames;
+        this.classNames = classNames;
+        this.indexes = new HashMap<>(names.length * 2);
+        this.storage = new int[names.length];
+        this.slots = new int[names.length];
+
+        int primitives = 0;
+        int objects = 0;
+
+        for ( int i = 0; i < names.length; i++ )
+        {
+            indexes.putIfAbsent(names[i], i);
+
+            storage[i] = unboxed ? storageOf(types[i], classNames[i]) : OBJECT;
+            slots[i] = storage[i] == OBJECT ? objects++ : primitives++;
+        }
+
+        this.primitiveCount = primitives;
+        this.objectCount = objects;
+    }
+
+    /**
+     * Reads the layout of a result. Results of SQLite, which types each value, and disconnected row sets, which hold
+     * their values as objects already, are checked.
+     *
+     * @param metaData Result Set Meta Data
+     *
+     * @return Result Layout
+     *
+     * @throws SQLException When the meta data cant be read
+     */
+    @NotNull
+    public static ResultLayout of(@NotNull ResultSetMetaData metaData) throws SQLException
+    {
+        boolean checked = metaData.getClass().getName().startsWith("org.sqlite.")
+                || metaData instanceof RowSetMetaData;
+
+        return of(metaData, checked);
+    }
+
+    /**
+     * Reads the layout of a result.
+     *
+     * @param metaData Result Set Meta Data
+     * @param checked  True when the driver types each value rather than each column
+     *
+     * @return Result Layout
+     *
+     * @throws SQLException When the meta data cant be read
+     */
+    @NotNull
+    public static ResultLayout of(@NotNull ResultSetMetaData metaData, boolean checked) throws SQLException
+    {
+        int count = metaData.getColumnCount();
+
+        String[] names = new String[count];
+        int[] types = new int[count];
+        String[] typeNames = new String[count];
+        String[] classNames = new String[count];
+
+        for ( int i = 0; i < count; i++ )
+        {
+            names[i] = metaData.getColumnName(i + 1);
+            types[i] = metaData.getColumnType(i + 1);
+            typeNames[i] = metaData.getColumnTypeName(i + 1);
+            classNames[i] = metaData.getColumnClassName(i + 1);
+        }
+
+        return new ResultLayout(names, types, typeNames, classNames, checked);
+    }
+
+    /**
+     * @return The same columns with every value kept as an object, for rows with values that don't fit the storage
+     */
+    @NotNull
+    public ResultLayout boxed()
+    {
+        ResultLayout layout = boxed;
+
+        if ( layout == null )
+        {
+            layout = primitiveCount == 0 ? this : new ResultLayout(names, types, typeNames, classNames, false, checked);
+
+            boxed = layout;
+        }
+
+        return layout;
+    }
+
+    /**
+     * Checks that a value read with getObject can be kept in the storage of its column.
+     *
+     * @param index Column index
+     * @param value Value, not null
+     *
+     * @return True if the value fits
+     */
+    public boolean fits(int index, @NotNull Object value)
+    {
+        switch ( storage[index] )
+        {
+            case LONG:
+                return value instanceof Long || value instanceof Integer || value instanceof Short
+                        || value instanceof Byte;
+            case DOUBLE:
+                return value instanceof Double || value instanceof Float;
+            case BOOLEAN:
+                return value instanceof Boolean;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * @return Number of columns
+     */
+    public int getColumnCount()
+    {
+        return names.length;
+    }
+
+    /**
+     * @param index Column index
+     *
+     * @return Column name
+     */
+    @NotNull
+    public String getName(int index)
+    {
+        return names[index];
+    }
+
+    /**
+     * @param name Column name
+     *
+     * @return Column index, or -1 when the result has no such column
+     */
+    public int indexOf(String name)
+    {
+        Integer index = indexes.get(name);
+
+        return index != null ? index : -1;
+    }
+
+    /**
+     * @param index Column index
+     *
+     * @return java.sql.Types value
+     */
+    public int getType(int index)
+    {
+        return types[index];
+    }
+
+    /**
+     * @param index Column index
+     *
+     * @return Database type name
+     */
+    public String getTypeName(int index)
+    {
+        return typeNames[index];
+    }
+
+    /**
+     * @param index Column index
+     *
+     * @return Java class name of the values
+     */
+    public String getClassName(int index)
+    {
+        return classNames[index];
+    }
+
+    /**
+     * @param index Column index
+     *
+     * @return OBJECT, LONG, DOUBLE or BOOLEAN
+     */
+    public int getStorage(int index)
+    {
+        return storage[index];
+    }
+
+    /**
+     * @param index Column index
+     *
+     * @return Position of the column in the object array or the primitive array, depending on its storage
+     */
+    public int getSlot(int index)
+    {
+        return slots[index];
+    }
+
+    /**
+     * @return True when values are read as objects and checked against the storage, false when the primitive getters
+     * can be trusted
+     */
+    public boolean isChecked()
+    {
+        return checked;
+    }
+
+    /**
+     * @return Number of columns kept unboxed
+     */
+    public int getPrimitiveCount()
+    {
+        return primitiveCount;
+    }
+
+    /**
+     * @return Number of columns kept as objects
+     */
+    public int getObjectCount()
+    {
+        return objectCount;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if ( this == other )
+        {
+            return true;
+        }
+
+        if ( ! (other instanceof ResultLayout) )
+        {
+            return false;
+        }
+
+        ResultLayout layout = (ResultLayout) other;
+
+        return Arrays.equals(names, layout.names) && Arrays.equals(types, layout.types)
+                && Arrays.equals(classNames, layout.classNames) && Arrays.equals(storage, layout.storage)
+                && checked == layout.checked;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int hash = 31 * (31 * Arrays.hashCode(names) + Arrays.hashCode(types)) + Arrays.hashCode(classNames);
+
+        return 31 * (31 * hash + Arrays.hashCode(storage)) + Boolean.hashCode(checked);
+    }
+
+    /**
+     * Picks the storage for a column. Unsigned BIGINTs, BIT fields wider than one bit and decimals fall through to
+     * OBJECT because the driver reports a different class for them.
+     *
+     * @param type      JDBC type
+     * @param className Java class name
+     *
+     * @return Storage
+     */
+    private static int storageOf(int type, String className)
+    {
+        if ( className == null )
+        {
+            return OBJECT;
+        }
+
+        switch ( type )
+        {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                switch ( className )
+                {
+                    case "java.lang.Byte":
+                    case "java.lang.Short":
+                    case "java.lang.Integer":
+                    case "java.lang.Long":
+                        return LONG;
+                    case "java.lang.Boolean":
+                        return BOOLEAN;
+                }
+                break;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                if ( className.equals("java.lang.Double") || className.equals("java.lang.Float") )
+                {
+                    return DOUBLE;
+                }
+                break;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                if ( className.equals("java.lang.Boolean") )
+                {
+                    return BOOLEAN;
+                }
+                break;
+        }
+
+        return OBJECT;
+    }
+}
@@ -24,17 +24,65 @@
 
 package com.jimmyhowe.jhdb.core.tables.rows;
 
+import com.jimmyhowe.jhdb.core.exceptions.InvalidArgumentException;
 import com.jimmyhowe.jhdb.core.tables.columns.Column;
 import com.jimmyhowe.jhdb.core.tables.columns.Columns;
 import com.jimmyhowe.support.collections.Collection;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * A Table Row
+ *
+ * Rows read from a result keep their values in plain arrays next to the layout shared by the whole result, numbers
+ * and booleans unboxed in a long array and everything else in an object array. Column objects are only built the
+ * first time the row is used as a collection, after which the columns hold the values. Names are looked up through
+ * the layout, and the getters read values by index or name without building columns or boxing.
+ *
+ * Cached rows are shared between threads, so the columns are built under a lock and published in one step, and the
+ * arrays are kept afterwards for any thread still reading them.
  */
 public class Row extends Collection<Column>
 {
+    /**
+     * Layout of the result the row was read from
+     */
+    @Nullable
+    private ResultLayout layout;
+
+    /**
+     * True while the values are held in the arrays rather than in columns, cleared once the columns are built
+     */
+    private volatile boolean compact = false;
+
+    /**
+     * Values of OBJECT columns by slot, or of every column in layout order when there are no unboxed values
+     */
+    @Nullable
+    private Object[] values;
+
+    /**
+     * Values of LONG and BOOLEAN columns, and the raw bits of DOUBLE columns, by slot
+     */
+    @Nullable
+    private long[] primitives;
+
+    /**
+     * One bit per column, set when an unboxed value was null
+     */
+    @Nullable
+    private long[] nulls;
+
+    /**
+     * Related rows by relation name, set by eager loading
+     */
+    @Nullable
+    private Map<String, Rows> relations;
+
     /**
      * Default Constructor
      */
@@ -49,7 +97,96 @@ public class Row extends Collection<Column>
      */
     public Row(@NotNull Columns columns)
     {
-        data().addAll(columns.data());
+        super.data().addAll(columns.data());
+    }
+
+    /**
+     * Build with the layout of the result the values were read from, every value kept as an object
+     *
+     * @param layout Result Layout
+     * @param values Values in layout order
+     */
+    public Row(@NotNull ResultLayout layout, @NotNull Object[] values)
+    {
+        this(layout, values, null, null);
+    }
+
+    /**
+     * Build with the layout of the result and values split by the storage the layout gives each column.
+     *
+     * @param layout     Result Layout
+     * @param values     Values of OBJECT columns by ResultLayout.getSlot, null when there are none
+     * @param primitives Values of LONG and BOOLEAN columns and Double.doubleToRawLongBits of DOUBLE columns by
+     *                   ResultLayout.getSlot, null when there are none
+     * @param nulls      Null bitmap of the unboxed columns by column index, bit (index % 64) of word (index / 64), null
+     *                   when no value was null
+     */
+    public Row(@NotNull ResultLayout layout, @Nullable Object[] values, @Nullable long[] primitives,
+               @Nullable long[] nulls)
+    {
+        this.layout = layout;
+        this.values = values;
+        this.primitives = primitives;
+        this.nulls = nulls;
+        this.compact = true;
+    }
+
+    /**
+     * @return Layout of the result the row was read from, or null when built by hand
+     */
+    @Nullable
+    public ResultLayout getLayout()
+    {
+        return layout;
+    }
+
+    /**
+     * @return Columns, built from the values on first use
+     */
+    @Override
+    public List<Column> data()
+    {
+        materialize();
+
+        return super.data();
+    }
+
+    @Override
+    public Column data(int index)
+    {
+        materialize();
+
+        return super.data(index);
+    }
+
+    @Override
+    public void add(Column column)
+    {
+        materialize();
+
+        super.add(column);
+    }
+
+    @Override
+    public Column first()
+    {
+        materialize();
+
+        return super.first();
+    }
+
+    @Override
+    public Column last()
+    {
+        materialize();
+
+        return super.last();
+    }
+
+    @Override
+    public int count()
+    {
+        return compact ? layout.getColumnCount() : super.count();
     }
 
     /**
@@ -70,15 +207,314 @@ public class Row extends Collection<Column>
      */
     private Column findByField(String field)
     {
-        for ( int i = 0; i < this.data().size(); i++ )
+        int index = indexOf(field);
+
+        return index < 0 ? null : this.data(index);
+    }
+
+    /**
+     * @param field Field Name
+     *
+     * @return Index of the field, or -1 when the row has no such field
+     */
+    public int indexOf(String field)
+    {
+        if ( layout != null )
         {
-            if ( this.data(i).getName().equals(field) )
+            int index = layout.indexOf(field);
+
+            if ( compact )
+            {
+                return index;
+            }
+
+            // Columns can be added or changed once built, so only trust the layout while it still agrees
+            if ( index >= 0 && index < super.count() && super.data(index).getName().equals(field) )
             {
-                return this.data(i);
+                return index;
             }
         }
 
-        return null;
+        List<Column> columns = this.data();
+
+        for ( int i = 0; i < columns.size(); i++ )
+        {
+            if ( columns.get(i).getName().equals(field) )
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @param index Column index, starting at 0
+     *
+     * @return Value, boxed to the class the driver reports for the column
+     */
+    @Nullable
+    public Object getObject(int index)
+    {
+        return compact ? box(index) : this.data(index).getValue();
+    }
+
+    /**
+     * @param field Field Name
+     *
+     * @return Value
+     *
+     * @throws InvalidArgumentException When the row has no such field
+     */
+    @Nullable
+    public Object getObject(String field)
+    {
+        return getObject(requireIndex(field));
+    }
+
+    /**
+     * @param index Column index, starting at 0
+     *
+     * @return True if the value is SQL NULL
+     */
+    public boolean isNull(int index)
+    {
+        if ( compact && storage(index) != ResultLayout.OBJECT )
+        {
+            return isNullBit(index);
+        }
+
+        return getObject(index) == null;
+    }
+
+    /**
+     * @param field Field Name
+     *
+     * @return True if the value is SQL NULL
+     */
+    public boolean isNull(String field)
+    {
+        return isNull(requireIndex(field));
+    }
+
+    /**
+     * @param index Column index, starting at 0
+     *
+     * @return Value as a String, or null
+     */
+    @Nullable
+    public String getString(int index)
+    {
+        Object value = getObject(index);
+
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * @param field Field Name
+     *
+     * @return Value as a String, or null
+     */
+    @Nullable
+    public String getString(String field)
+    {
+        return getString(requireIndex(field));
+    }
+
+    /**
+     * @param index Column index, starting at 0
+     *
+     * @return Value as a long, 0 when null
+     */
+    public long getLong(int index)
+    {
+        if ( compact )
+        {
+            switch ( storage(index) )
+            {
+                case ResultLayout.LONG:
+                case ResultLayout.BOOLEAN:
+                    return primitives[layout.getSlot(index)];
+                case ResultLayout.DOUBLE:
+                    return (long) Double.longBitsToDouble(primitives[layout.getSlot(index)]);
+            }
+        }
+
+        Object value = getObject(index);
+
+        if ( value == null )
+        {
+            return 0;
+        }
+
+        if ( value instanceof Number )
+        {
+            return ((Number) value).longValue();
+        }
+
+        if ( value instanceof Boolean )
+        {
+            return (Boolean) value ? 1 : 0;
+        }
+
+        return Long.parseLong(value.toString().trim());
+    }
+
+    /**
+     * @param field Field Name
+     *
+     * @return Value as a long, 0 when null
+     */
+    public long getLong(String field)
+    {
+        return getLong(requireIndex(field));
+    }
+
+    /**
+     * @param index Column index, starting at 0
+     *
+     * @return Value as an int, 0 when null
+     */
+    public int getInt(int index)
+    {
+        return (int) getLong(index);
+    }
+
+    /**
+     * @param field Field Name
+     *
+     * @return Value as an int, 0 when null
+     */
+    public int getInt(String field)
+    {
+        return getInt(requireIndex(field));
+    }
+
+    /**
+     * @param index Column index, starting at 0
+     *
+     * @return Value as a double, 0 when null
+     */
+    public double getDouble(int index)
+    {
+        if ( compact )
+        {
+            switch ( storage(index) )
+            {
+                case ResultLayout.LONG:
+                case ResultLayout.BOOLEAN:
+                    return primitives[layout.getSlot(index)];
+                case ResultLayout.DOUBLE:
+                    return Double.longBitsToDouble(primitives[layout.getSlot(index)]);
+            }
+        }
+
+        Object value = getObject(index);
+
+        if ( value == null )
+        {
+            return 0;
+        }
+
+        if ( value instanceof Number )
+        {
+            return ((Number) value).doubleValue();
+        }
+
+        if ( value instanceof Boolean )
+        {
+            return (Boolean) value ? 1 : 0;
+        }
+
+        return Double.parseDouble(value.toString().trim());
+    }
+
+    /**
+     * @param field Field Name
+     *
+     * @return Value as a double, 0 when null
+     */
+    public double getDouble(String field)
+    {
+        return getDouble(requireIndex(field));
+    }
+
+    /**
+     * Numbers are true when not 0, strings when they read "true" or "1".
+     *
+     * @param index Column index, starting at 0
+     *
+     * @return Value as a boolean, false when null
+     */
+    public boolean getBoolean(int index)
+    {
+        if ( compact )
+        {
+            switch ( storage(index) )
+            {
+                case ResultLayout.LONG:
+                case ResultLayout.BOOLEAN:
+                    return primitives[layout.getSlot(index)] != 0;
+                case ResultLayout.DOUBLE:
+                    return Double.longBitsToDouble(primitives[layout.getSlot(index)]) != 0;
+            }
+        }
+
+        Object value = getObject(index);
+
+        if ( value == null )
+        {
+            return false;
+        }
+
+        if ( value instanceof Boolean )
+        {
+            return (Boolean) value;
+        }
+
+        if ( value instanceof Number )
+        {
+            return ((Number) value).doubleValue() != 0;
+        }
+
+        String string = value.toString().trim();
+
+        return string.equalsIgnoreCase("true") || string.equals("1");
+    }
+
+    /**
+     * @param field Field Name
+     *
+     * @return Value as a boolean, false when null
+     */
+    public boolean getBoolean(String field)
+    {
+        return getBoolean(requireIndex(field));
+    }
+
+    /**
+     * @param name Relation name, the related table
+     *
+     * @return Related rows, or null when the relation was not loaded
+     */
+    @Nullable
+    public Rows getRelation(@NotNull String name)
+    {
+        return relations != null ? relations.get(name) : null;
+    }
+
+    /**
+     * @param name Relation name, the related table
+     * @param rows Related rows
+     */
+    public void setRelation(@NotNull String name, @NotNull Rows rows)
+    {
+        if ( relations == null )
+        {
+            relations = new HashMap<>();
+        }
+
+        relations.put(name, rows);
     }
 
     /**
@@ -101,6 +537,129 @@ public class Row extends Collection<Column>
 
     public boolean isEmpty()
     {
-        return data().isEmpty();
+        return compact ? layout.getColumnCount() == 0 : super.data().isEmpty();
+    }
+
+    /**
+     * @param field Field Name
+     *
+     * @return Index of the field
+     *
+     * @throws InvalidArgumentException When the row has no such field
+     */
+    private int requireIndex(String field)
+    {
+        int index = indexOf(field);
+
+        if ( index < 0 )
+        {
+            throw new InvalidArgumentException("Row has no column named '" + field + "'.");
+        }
+
+        return index;
+    }
+
+    /**
+     * @param index Column index
+     *
+     * @return Storage of the value, OBJECT for every column when the row holds no unboxed values
+     */
+    private int storage(int index)
+    {
+        return primitives != null ? layout.getStorage(index) : ResultLayout.OBJECT;
+    }
+
+    /**
+     * @param index Column index
+     *
+     * @return True if the null bit of the column is set
+     */
+    private boolean isNullBit(int index)
+    {
+        return nulls != null && (nulls[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Boxes a compact value to the class getObject would have returned for the column.
+     *
+     * @param index Column index
+     *
+     * @return Value
+     */
+    @Nullable
+    private Object box(int index)
+    {
+        int storage = storage(index);
+
+        if ( storage == ResultLayout.OBJECT )
+        {
+            return values[primitives != null ? layout.getSlot(index) : index];
+        }
+
+        if ( isNullBit(index) )
+        {
+            return null;
+        }
+
+        long value = primitives[layout.getSlot(index)];
+
+        if ( storage == ResultLayout.BOOLEAN )
+        {
+            return value != 0;
+        }
+
+        String className = layout.getClassName(index);
+
+        if ( storage == ResultLayout.DOUBLE )
+        {
+            double number = Double.longBitsToDouble(value);
+
+            return className.equals("java.lang.Float") ? (Object) (float) number : (Object) number;
+        }
+
+        switch ( className )
+        {
+            case "java.lang.Byte":
+                return (byte) value;
+            case "java.lang.Short":
+                return (short) value;
+            case "java.lang.Integer":
+                // SQLite reports Integer for INTEGER columns but returns a Long for values that don't fit
+                if ( value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE )
+                {
+                    return (int) value;
+                }
+        }
+
+        return value;
+    }
+
+    /**
+     * Builds the columns from the values the row was read with. Clearing compact publishes the columns, the arrays
+     * stay as a thread that read compact before it was cleared may still be reading them.
+     */
+    private void materialize()
+    {
+        if ( ! compact )
+        {
+            return;
+        }
+
+        synchronized ( this )
+        {
+            if ( ! compact )
+            {
+                return;
+            }
+
+            List<Column> columns = super.data();
+
+            for ( int index = 0; index < layout.getColumnCount(); index++ )
+            {
+                columns.add(new Column(layout.getName(index), box(index)));
+            }
+
+            compact = false;
+        }
     }
 }
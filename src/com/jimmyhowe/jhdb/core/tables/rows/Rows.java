@@ -25,12 +25,42 @@
 package com.jimmyhowe.jhdb.core.tables.rows;
 
 import com.jimmyhowe.support.collections.Collection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Collection of Rows
  */
 public class Rows extends Collection<Row>
 {
+    /**
+     * Layout shared by the rows
+     */
+    @Nullable
+    private ResultLayout layout;
+
+    public Rows()
+    {
+
+    }
+
+    /**
+     * @param layout Layout shared by the rows
+     */
+    public Rows(@NotNull ResultLayout layout)
+    {
+        this.layout = layout;
+    }
+
+    /**
+     * @return Layout shared by the rows, or null when built by hand
+     */
+    @Nullable
+    public ResultLayout getLayout()
+    {
+        return layout;
+    }
+
     public boolean isEmpty()
     {
         return data().isEmpty();
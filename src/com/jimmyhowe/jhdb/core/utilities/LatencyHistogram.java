@@ -0,0 +1,166 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.utilities;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Latency Histogram
+ *
+ * Counts values in log linear buckets in the style of HdrHistogram. Values below 64 get a bucket each, and every power
+ * of two above is split into 32 buckets, so a percentile is within about 3% of the true value whatever the magnitude.
+ * The bucket array only grows as far as the largest value recorded, a few kilobytes for latencies up to seconds.
+ *
+ * Not thread safe, guard it with the owner's lock.
+ */
+public final class LatencyHistogram
+{
+    /**
+     * Buckets per power of two
+     */
+    private static final int SUB_BUCKETS = 32;
+
+    /**
+     * Values below this are counted exactly
+     */
+    private static final int LINEAR = SUB_BUCKETS * 2;
+
+    @NotNull
+    private long[] counts = new long[LINEAR];
+
+    private long count;
+
+    private long max;
+
+    /**
+     * @param value Value to count, negatives count as 0
+     */
+    public void record(long value)
+    {
+        value = Math.max(0, value);
+
+        int index = indexOf(value);
+
+        if ( index >= counts.length )
+        {
+            counts = Arrays.copyOf(counts, index + SUB_BUCKETS);
+        }
+
+        counts[index]++;
+        count++;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * @return Number of values recorded
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * @return Largest value recorded, exact
+     */
+    public long getMax()
+    {
+        return max;
+    }
+
+    /**
+     * @param percentile Percentile from 0 to 100
+     *
+     * @return The value the percentile of recorded values are at or below, 0 when empty
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        if ( count == 0 )
+        {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+
+        for ( int index = 0; index < counts.length; index++ )
+        {
+            seen += counts[index];
+
+            if ( seen >= rank )
+            {
+                return Math.min(highestValueOf(index), max);
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * Forgets every value.
+     */
+    public void reset()
+    {
+        counts = new long[LINEAR];
+        count = 0;
+        max = 0;
+    }
+
+    /**
+     * @param value Non negative value
+     *
+     * @return Bucket of the value
+     */
+    private static int indexOf(long value)
+    {
+        if ( value < LINEAR )
+        {
+            return (int) value;
+        }
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - 5;
+
+        return LINEAR + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * @param index Bucket
+     *
+     * @return Largest value counted in the bucket
+     */
+    private static long highestValueOf(int index)
+    {
+        if ( index < LINEAR )
+        {
+            return index;
+        }
+
+        int shift = (index - LINEAR) / SUB_BUCKETS + 1;
+        long mantissa = (index - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.utilities;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Least Recently Used Cache
+ *
+ * A bounded map that drops the entry used longest ago once it is full. Dropped and cleared values are handed to the
+ * eviction callback so resources such as statements can be closed.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class LruCache<K, V>
+{
+    private final int maxSize;
+
+    @Nullable
+    private final Consumer<V> onEvict;
+
+    @NotNull
+    private final LinkedHashMap<K, V> entries;
+
+    /**
+     * @param maxSize Maximum number of entries
+     */
+    public LruCache(int maxSize)
+    {
+        this(maxSize, null);
+    }
+
+    /**
+     * @param maxSize Maximum number of entries
+     * @param onEvict Called with each value that is evicted or cleared
+     */
+    public LruCache(int maxSize, @Nullable Consumer<V> onEvict)
+    {
+        this.maxSize = maxSize;
+        this.onEvict = onEvict;
+
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest)
+            {
+                if ( size() <= LruCache.this.maxSize )
+                {
+                    return false;
+                }
+
+                evicted(eldest.getValue());
+
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @param key Key
+     *
+     * @return Cached value, or null
+     */
+    @Nullable
+    public synchronized V get(K key)
+    {
+        return entries.get(key);
+    }
+
+    /**
+     * Caches a value, evicting the least recently used entry when full. A value replaced under the same key is not
+     * passed to the eviction callback.
+     *
+     * @param key   Key
+     * @param value Value
+     *
+     * @return The value previously cached under the key, or null
+     */
+    @Nullable
+    public synchronized V put(K key, V value)
+    {
+        if ( maxSize <= 0 )
+        {
+            evicted(value);
+
+            return null;
+        }
+
+        return entries.put(key, value);
+    }
+
+    /**
+     * @param key Key
+     *
+     * @return The removed value, or null
+     */
+    @Nullable
+    public synchronized V remove(K key)
+    {
+        return entries.remove(key);
+    }
+
+    /**
+     * @param key Key
+     *
+     * @return True if the key is cached
+     */
+    public synchronized boolean containsKey(K key)
+    {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Removes every entry, passing each value to the eviction callback.
+     */
+    public void clear()
+    {
+        List<V> values;
+
+        synchronized ( this )
+        {
+            values = new ArrayList<>(entries.values());
+
+            entries.clear();
+        }
+
+        values.forEach(this::evicted);
+    }
+
+    /**
+     * @return Number of cached entries
+     */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * @return Maximum number of entries
+     */
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * @param value Evicted value
+     */
+    private void evicted(V value)
+    {
+        if ( onEvict != null )
+        {
+            onEvict.accept(value);
+        }
+    }
+}
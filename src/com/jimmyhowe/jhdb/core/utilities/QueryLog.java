@@ -24,19 +24,204 @@
 
 package com.jimmyhowe.jhdb.core.utilities;
 
-import com.jimmyhowe.jhlog.Log;
+import com.jimmyhowe.jhdb.core.events.QueryEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Logs Queries
+ *
+ * Keeps the most recent queries of a connection, filled from the QueryEvents pipeline when its level is INFO or above.
+ * Older queries are dropped once it is full.
+ *
+ * Every query is also counted against its statement shape, its SQL text, with the time in a latency histogram, so
+ * stats() shows which statements take the time long after the queries themselves are gone. The least recently run
+ * shapes are forgotten past the shape limit.
  */
-public class QueryLog extends Log
+public class QueryLog
 {
     /**
-     * @param query       Query
-     * @param elapsedTime Elapsed time
+     * Queries kept by default
+     */
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    /**
+     * Statement shapes aggregated by default
      */
-    public void query(String query, long elapsedTime)
+    public static final int DEFAULT_MAX_SHAPES = 256;
+
+    @NotNull
+    private final QueryEvent[] events;
+
+    /**
+     * Aggregates by SQL, least recently run first
+     */
+    @NotNull
+    private final LinkedHashMap<String, Shape> shapes;
+
+    /**
+     * Queries recorded since created or cleared, the next one goes in slot recorded % capacity
+     */
+    private long recorded;
+
+    public QueryLog()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Queries kept
+     */
+    public QueryLog(int capacity)
     {
-        note(String.format("> %s - %d microseconds", query, elapsedTime));
+        this(capacity, DEFAULT_MAX_SHAPES);
+    }
+
+    /**
+     * @param capacity  Queries kept
+     * @param maxShapes Statement shapes aggregated
+     */
+    public QueryLog(int capacity, int maxShapes)
+    {
+        this.events = new QueryEvent[Math.max(1, capacity)];
+
+        this.shapes = new LinkedHashMap<String, Shape>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Shape> eldest)
+            {
+                return size() > Math.max(1, maxShapes);
+            }
+        };
+    }
+
+    /**
+     * @param event Query Event
+     */
+    public synchronized void record(@NotNull QueryEvent event)
+    {
+        events[(int) (recorded++ % events.length)] = event;
+
+        Shape shape = shapes.get(event.getSql());
+
+        if ( shape == null )
+        {
+            shapes.put(event.getSql(), shape = new Shape());
+        }
+
+        shape.record(event);
+    }
+
+    /**
+     * Aggregates of every statement shape still tracked, the ones taking the most time in total first.
+     *
+     * @return Snapshot of the aggregates
+     */
+    @NotNull
+    public synchronized List<QueryStats> stats()
+    {
+        List<QueryStats> stats = new ArrayList<>(shapes.size());
+
+        shapes.forEach((sql, shape) -> stats.add(
+                new QueryStats(sql, shape.count, shape.errors, shape.rows, shape.totalNanos, shape.latencies)
+        ));
+
+        stats.sort(Comparator.comparingLong(QueryStats::getTotalNanos).reversed());
+
+        return stats;
+    }
+
+    /**
+     * @return Kept queries, oldest first
+     */
+    @NotNull
+    public synchronized List<QueryEvent> getEvents()
+    {
+        int size = size();
+
+        List<QueryEvent> list = new ArrayList<>(size);
+
+        for ( long i = recorded - size; i < recorded; i++ )
+        {
+            list.add(events[(int) (i % events.length)]);
+        }
+
+        return list;
+    }
+
+    /**
+     * @return Number of queries kept
+     */
+    public synchronized int size()
+    {
+        return (int) Math.min(recorded, events.length);
+    }
+
+    /**
+     * @return Number of queries recorded, including those no longer kept
+     */
+    public synchronized long getRecorded()
+    {
+        return recorded;
+    }
+
+    /**
+     * Forgets every query and aggregate.
+     */
+    public synchronized void clear()
+    {
+        Arrays.fill(events, null);
+        shapes.clear();
+
+        recorded = 0;
+    }
+
+    /**
+     * Prints the kept queries, oldest first.
+     */
+    public void toConsole()
+    {
+        getEvents().forEach(System.out::println);
+    }
+
+    /**
+     * Running aggregates of one statement shape
+     */
+    private static class Shape
+    {
+        @NotNull
+        final LatencyHistogram latencies = new LatencyHistogram();
+
+        long count;
+
+        long errors;
+
+        long rows;
+
+        long totalNanos;
+
+        /**
+         * @param event Query Event
+         */
+        void record(@NotNull QueryEvent event)
+        {
+            count++;
+            totalNanos += event.getElapsedNanos();
+            latencies.record(event.getElapsedNanos());
+
+            if ( event.isFailed() )
+            {
+                errors++;
+            } else if ( event.getRows() > 0 )
+            {
+                rows += event.getRows();
+            }
+        }
     }
 }
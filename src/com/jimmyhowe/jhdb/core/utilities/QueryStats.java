@@ -0,0 +1,182 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.utilities;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates of one statement shape in a QueryLog, a snapshot taken by QueryLog.stats().
+ *
+ * Statements are grouped by their SQL text, which is the same for every run of a query shape as the values are bound.
+ * Times are in nanoseconds.
+ */
+public final class QueryStats
+{
+    @NotNull
+    private final String sql;
+
+    private final long count;
+
+    private final long errors;
+
+    private final long rows;
+
+    private final long totalNanos;
+
+    private final long p50;
+
+    private final long p95;
+
+    private final long p99;
+
+    private final long max;
+
+    /**
+     * @param sql        SQL of the shape
+     * @param count      Times run
+     * @param errors     Times failed
+     * @param rows       Rows returned or affected in total, where known
+     * @param totalNanos Total time
+     * @param histogram  Latencies of every run
+     */
+    QueryStats(@NotNull String sql, long count, long errors, long rows, long totalNanos,
+               @NotNull LatencyHistogram histogram)
+    {
+        this.sql = sql;
+        this.count = count;
+        this.errors = errors;
+        this.rows = rows;
+        this.totalNanos = totalNanos;
+        this.p50 = histogram.getValueAtPercentile(50);
+        this.p95 = histogram.getValueAtPercentile(95);
+        this.p99 = histogram.getValueAtPercentile(99);
+        this.max = histogram.getMax();
+    }
+
+    /**
+     * @return SQL of the shape
+     */
+    @NotNull
+    public String getSql()
+    {
+        return sql;
+    }
+
+    /**
+     * @return Times run
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * @return Times failed
+     */
+    public long getErrors()
+    {
+        return errors;
+    }
+
+    /**
+     * @return Rows returned or affected in total, where known
+     */
+    public long getRows()
+    {
+        return rows;
+    }
+
+    /**
+     * @return Total time
+     */
+    public long getTotalNanos()
+    {
+        return totalNanos;
+    }
+
+    /**
+     * @return Mean time
+     */
+    public long getMeanNanos()
+    {
+        return count > 0 ? totalNanos / count : 0;
+    }
+
+    /**
+     * @return Median time, within about 3%
+     */
+    public long getP50Nanos()
+    {
+        return p50;
+    }
+
+    /**
+     * @return 95th percentile time, within about 3%
+     */
+    public long getP95Nanos()
+    {
+        return p95;
+    }
+
+    /**
+     * @return 99th percentile time, within about 3%
+     */
+    public long getP99Nanos()
+    {
+        return p99;
+    }
+
+    /**
+     * @return Slowest time
+     */
+    public long getMaxNanos()
+    {
+        return max;
+    }
+
+    @Override
+    public String toString()
+    {
+        return count + " x " + sql
+                + " - total " + micros(totalNanos)
+                + ", p50 " + micros(p50)
+                + ", p95 " + micros(p95)
+                + ", p99 " + micros(p99)
+                + ", max " + micros(max) + " microseconds, "
+                + rows + " rows, " + errors + " errors";
+    }
+
+    /**
+     * @param nanos Nanoseconds
+     *
+     * @return Microseconds
+     */
+    private static long micros(long nanos)
+    {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.utilities;
+
+import com.jimmyhowe.jhdb.core.tables.rows.Rows;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result Cache
+ *
+ * Keeps the rows of remembered queries by their SQL and bindings, for a time and up to a number of results, the least
+ * recently used going first. Every result is tagged with the tables it read, and a write through the query builder
+ * to one of them drops it. Writes in raw SQL or from elsewhere are not seen, so only remember queries that can be a
+ * little stale. Cached rows are shared by every caller and must not be changed, reading them on several threads is
+ * safe as a row builds its columns once under its own lock.
+ */
+public class ResultCache
+{
+    /**
+     * Results kept by default
+     */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    @NotNull
+    private final LinkedHashMap<Key, Result> entries;
+
+    /**
+     * Keys of the results read from each table
+     */
+    @NotNull
+    private final Map<String, Set<Key>> keysByTable = new HashMap<>();
+
+    /**
+     * Writes to each table, so a query that ran while one happened is not cached
+     */
+    @NotNull
+    private final Map<String, Long> generations = new HashMap<>();
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    public ResultCache()
+    {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize Results kept
+     */
+    public ResultCache(int maxSize)
+    {
+        this.entries = new LinkedHashMap<Key, Result>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest)
+            {
+                if ( size() <= Math.max(1, maxSize) )
+                {
+                    return false;
+                }
+
+                unindex(eldest.getKey(), eldest.getValue());
+
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @param sql      SQL Query
+     * @param bindings Bindings
+     *
+     * @return Cached rows, or null when not cached or expired
+     */
+    @Nullable
+    public synchronized Rows get(@NotNull String sql, @NotNull List<Object> bindings)
+    {
+        Key key = new Key(sql, bindings);
+        Result entry = entries.get(key);
+
+        if ( entry != null && entry.expiresAt - System.nanoTime() <= 0 )
+        {
+            entries.remove(key);
+            unindex(key, entry);
+
+            entry = null;
+        }
+
+        if ( entry == null )
+        {
+            misses++;
+
+            return null;
+        }
+
+        hits++;
+
+        return entry.rows;
+    }
+
+    /**
+     * Taken before running a query and handed to put, which drops the result if a table was written in between.
+     *
+     * @param tables Tables the query reads
+     *
+     * @return Stamp of the tables' writes
+     */
+    public synchronized long stamp(@NotNull List<String> tables)
+    {
+        long stamp = 0;
+
+        for ( String table : tables )
+        {
+            stamp += generations.getOrDefault(table, 0L);
+        }
+
+        return stamp;
+    }
+
+    /**
+     * @param sql      SQL Query
+     * @param bindings Bindings
+     * @param tables   Tables the query reads
+     * @param stamp    Stamp taken before the query ran
+     * @param rows     Rows
+     * @param ttlNanos Time to keep the rows
+     */
+    public synchronized void put(@NotNull String sql, @NotNull List<Object> bindings, @NotNull List<String> tables,
+                                 long stamp, @NotNull Rows rows, long ttlNanos)
+    {
+        if ( ttlNanos <= 0 || stamp(tables) != stamp )
+        {
+            return;
+        }
+
+        Key key = new Key(sql, new ArrayList<>(bindings));
+        Result previous = entries.put(key, new Result(rows, tables, System.nanoTime() + ttlNanos));
+
+        if ( previous != null )
+        {
+            unindex(key, previous);
+        }
+
+        for ( String table : tables )
+        {
+            keysByTable.computeIfAbsent(table, t -> new HashSet<>()).add(key);
+        }
+    }
+
+    /**
+     * Drops every result read from the table.
+     *
+     * @param table Table written to
+     */
+    public synchronized void invalidate(@NotNull String table)
+    {
+        generations.merge(table, 1L, Long::sum);
+
+        Set<Key> keys = keysByTable.remove(table);
+
+        if ( keys == null )
+        {
+            return;
+        }
+
+        for ( Key key : keys )
+        {
+            Result entry = entries.remove(key);
+
+            if ( entry != null )
+            {
+                unindex(key, entry);
+            }
+        }
+    }
+
+    /**
+     * Forgets every result.
+     */
+    public synchronized void clear()
+    {
+        for ( String table : keysByTable.keySet() )
+        {
+            generations.merge(table, 1L, Long::sum);
+        }
+
+        entries.clear();
+        keysByTable.clear();
+    }
+
+    /**
+     * @return Number of results kept, expired ones included until they are next looked up or evicted
+     */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * @return Number of lookups that found rows
+     */
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * @return Number of lookups that had to run the query
+     */
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * @param key   Key
+     * @param entry Result no longer cached
+     */
+    private void unindex(@NotNull Key key, @NotNull Result entry)
+    {
+        for ( String table : entry.tables )
+        {
+            Set<Key> keys = keysByTable.get(table);
+
+            if ( keys != null && keys.remove(key) && keys.isEmpty() )
+            {
+                keysByTable.remove(table);
+            }
+        }
+    }
+
+    /**
+     * SQL and bindings of a query
+     */
+    private static final class Key
+    {
+        @NotNull
+        private final String sql;
+
+        @NotNull
+        private final List<Object> bindings;
+
+        private final int hash;
+
+        Key(@NotNull String sql, @NotNull List<Object> bindings)
+        {
+            this.sql = sql;
+            this.bindings = bindings;
+            this.hash = 31 * sql.hashCode() + bindings.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if ( this == o )
+            {
+                return true;
+            }
+
+            if ( ! (o instanceof Key) )
+            {
+                return false;
+            }
+
+            Key that = (Key) o;
+
+            return hash == that.hash && sql.equals(that.sql) && bindings.equals(that.bindings);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+
+    /**
+     * Cached rows
+     */
+    private static final class Result
+    {
+        @NotNull
+        final Rows rows;
+
+        @NotNull
+        final List<String> tables;
+
+        final long expiresAt;
+
+        Result(@NotNull Rows rows, @NotNull List<String> tables, long expiresAt)
+        {
+            this.rows = rows;
+            this.tables = tables;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
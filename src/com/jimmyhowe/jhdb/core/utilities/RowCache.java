@@ -0,0 +1,345 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.utilities;
+
+import com.jimmyhowe.jhdb.core.tables.rows.Row;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Row Cache
+ *
+ * Keeps whole rows found by their primary key, up to a number of rows, the least recently used going first. Writes
+ * through the query builder drop the rows they touch, or every row of the table when it can't tell which.
+ * Writes in raw SQL or from elsewhere are not seen. Cached rows are shared by every caller and must not be changed.
+ */
+public class RowCache
+{
+    /**
+     * Rows kept by default
+     */
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    @NotNull
+    private final LinkedHashMap<Key, Row> rows;
+
+    /**
+     * Keys of the rows of each table
+     */
+    @NotNull
+    private final Map<String, Set<Key>> keysByTable = new HashMap<>();
+
+    /**
+     * Writes to each table, so a row read while one happened is not cached
+     */
+    @NotNull
+    private final Map<String, Long> generations = new HashMap<>();
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    public RowCache()
+    {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize Rows kept
+     */
+    public RowCache(int maxSize)
+    {
+        this.rows = new LinkedHashMap<Key, Row>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Row> eldest)
+            {
+                if ( size() <= Math.max(1, maxSize) )
+                {
+                    return false;
+                }
+
+                unindex(eldest.getKey());
+
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @param table  Table
+     * @param column Primary key column
+     * @param id     Primary key
+     *
+     * @return Cached row, or null
+     */
+    @Nullable
+    public synchronized Row get(@NotNull String table, @NotNull String column, @NotNull Object id)
+    {
+        Row row = rows.get(new Key(table, column, id));
+
+        if ( row == null )
+        {
+            misses++;
+        } else
+        {
+            hits++;
+        }
+
+        return row;
+    }
+
+    /**
+     * Taken before reading rows and handed to put, which drops them if the table was written in between.
+     *
+     * @param table Table
+     *
+     * @return Stamp of the table's writes
+     */
+    public synchronized long stamp(@NotNull String table)
+    {
+        return generations.getOrDefault(table, 0L);
+    }
+
+    /**
+     * @param table  Table
+     * @param column Primary key column
+     * @param id     Primary key
+     * @param stamp  Stamp taken before the row was read
+     * @param row    Whole row
+     */
+    public synchronized void put(@NotNull String table, @NotNull String column, @NotNull Object id, long stamp,
+                                 @NotNull Row row)
+    {
+        if ( stamp(table) != stamp )
+        {
+            return;
+        }
+
+        Key key = new Key(table, column, id);
+
+        rows.put(key, row);
+        keysByTable.computeIfAbsent(table, t -> new HashSet<>()).add(key);
+    }
+
+    /**
+     * Drops a row after it was written.
+     *
+     * @param table  Table
+     * @param column Primary key column
+     * @param id     Primary key
+     */
+    public void evict(@NotNull String table, @NotNull String column, @NotNull Object id)
+    {
+        evict(table, column, Collections.singletonList(id));
+    }
+
+    /**
+     * Drops rows after they were written. The same rows may be cached under another key column, or under keys of
+     * another type such as "2" for 2, so those rows of the table go too as they can't be told apart.
+     *
+     * @param table  Table
+     * @param column Primary key column
+     * @param ids    Primary keys
+     */
+    public synchronized void evict(@NotNull String table, @NotNull String column, @NotNull Collection<?> ids)
+    {
+        generations.merge(table, 1L, Long::sum);
+
+        Set<Key> keys = keysByTable.get(table);
+
+        if ( keys == null || ids.isEmpty() )
+        {
+            return;
+        }
+
+        Set<Object> written = new HashSet<>();
+        Set<Class<?>> types = new HashSet<>();
+
+        for ( Object id : ids )
+        {
+            Object key = keyOf(id);
+
+            written.add(key);
+            types.add(key.getClass());
+        }
+
+        for ( Iterator<Key> iterator = keys.iterator(); iterator.hasNext(); )
+        {
+            Key key = iterator.next();
+
+            if ( ! key.column.equals(column) || ! types.contains(key.id.getClass()) || written.contains(key.id) )
+            {
+                rows.remove(key);
+                iterator.remove();
+            }
+        }
+
+        if ( keys.isEmpty() )
+        {
+            keysByTable.remove(table);
+        }
+    }
+
+    /**
+     * Drops every row of the table.
+     *
+     * @param table Table written to
+     */
+    public synchronized void invalidate(@NotNull String table)
+    {
+        generations.merge(table, 1L, Long::sum);
+
+        Set<Key> keys = keysByTable.remove(table);
+
+        if ( keys != null )
+        {
+            rows.keySet().removeAll(keys);
+        }
+    }
+
+    /**
+     * Forgets every row.
+     */
+    public synchronized void clear()
+    {
+        for ( String table : keysByTable.keySet() )
+        {
+            generations.merge(table, 1L, Long::sum);
+        }
+
+        rows.clear();
+        keysByTable.clear();
+    }
+
+    /**
+     * @return Number of rows kept
+     */
+    public synchronized int size()
+    {
+        return rows.size();
+    }
+
+    /**
+     * @return Number of lookups that found a row
+     */
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * @return Number of lookups that had to read the row
+     */
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Whole numbers of any type are taken as the same key, as drivers differ in the type they read keys back as.
+     *
+     * @param id Primary key
+     *
+     * @return Key compared by equals
+     */
+    @NotNull
+    public static Object keyOf(@NotNull Object id)
+    {
+        return id instanceof Integer || id instanceof Short || id instanceof Byte ? ((Number) id).longValue() : id;
+    }
+
+    /**
+     * @param key Key no longer cached
+     */
+    private void unindex(@NotNull Key key)
+    {
+        Set<Key> keys = keysByTable.get(key.table);
+
+        if ( keys != null && keys.remove(key) && keys.isEmpty() )
+        {
+            keysByTable.remove(key.table);
+        }
+    }
+
+    /**
+     * Table, key column and key of a row
+     */
+    private static final class Key
+    {
+        @NotNull
+        private final String table;
+
+        @NotNull
+        private final String column;
+
+        @NotNull
+        private final Object id;
+
+        private final int hash;
+
+        Key(@NotNull String table, @NotNull String column, @NotNull Object id)
+        {
+            this.table = table;
+            this.column = column;
+            this.id = keyOf(id);
+            this.hash = Objects.hash(table, column, this.id);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if ( this == o )
+            {
+                return true;
+            }
+
+            if ( ! (o instanceof Key) )
+            {
+                return false;
+            }
+
+            Key that = (Key) o;
+
+            return hash == that.hash && table.equals(that.table) && column.equals(that.column) && id.equals(that.id);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.utilities;
+
+import com.jimmyhowe.jhdb.core.events.QueryEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A query that ran over the slow query threshold, with the database's plan for it once it has been captured.
+ */
+public final class SlowQuery
+{
+    @NotNull
+    private final QueryEvent event;
+
+    @Nullable
+    private volatile String plan;
+
+    /**
+     * @param event Query Event, with its bindings
+     * @param plan  Plan, null until captured
+     */
+    SlowQuery(@NotNull QueryEvent event, @Nullable String plan)
+    {
+        this.event = event;
+        this.plan = plan;
+    }
+
+    /**
+     * @return Query Event, with its bindings
+     */
+    @NotNull
+    public QueryEvent getEvent()
+    {
+        return event;
+    }
+
+    /**
+     * @return Output of EXPLAIN for the query, null until captured or when it can't be explained
+     */
+    @Nullable
+    public String getPlan()
+    {
+        return plan;
+    }
+
+    /**
+     * @param plan Captured plan
+     */
+    void setPlan(@NotNull String plan)
+    {
+        this.plan = plan;
+    }
+
+    @Override
+    public String toString()
+    {
+        return plan != null ? event + "\n" + plan : event.toString();
+    }
+}
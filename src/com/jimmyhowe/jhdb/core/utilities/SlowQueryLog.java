@@ -0,0 +1,265 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.utilities;
+
+import com.jimmyhowe.jhdb.core.events.QueryEvent;
+import com.jimmyhowe.jhdb.core.queries.QueryGrammar;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slow Query Log
+ *
+ * Keeps the most recent queries of a connection that ran over its slow query threshold, with their bindings and time.
+ * The first time a statement is slow its plan is captured with EXPLAIN on a background thread, over another pooled
+ * connection, and kept for every later run of the same SQL. Older queries are dropped once it is full.
+ */
+public class SlowQueryLog
+{
+    /**
+     * Slow queries kept by default
+     */
+    public static final int DEFAULT_CAPACITY = 100;
+
+    /**
+     * Plans kept by default
+     */
+    public static final int DEFAULT_MAX_PLANS = 256;
+
+    /**
+     * Plans waiting to be captured, across every connection, past which new ones are skipped
+     */
+    private static final int MAX_PENDING_PLANS = 64;
+
+    /**
+     * Runs EXPLAIN off the query threads, created on first use
+     */
+    @Nullable
+    private static ExecutorService explainer;
+
+    @NotNull
+    private final SlowQuery[] queries;
+
+    /**
+     * Plans by SQL
+     */
+    @NotNull
+    private final LruCache<String, String> plans;
+
+    /**
+     * SQL with a plan being captured
+     */
+    @NotNull
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private long recorded = 0;
+
+    public SlowQueryLog()
+    {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_PLANS);
+    }
+
+    /**
+     * @param capacity Slow queries kept
+     * @param maxPlans Plans kept
+     */
+    public SlowQueryLog(int capacity, int maxPlans)
+    {
+        this.queries = new SlowQuery[Math.max(1, capacity)];
+        this.plans = new LruCache<>(Math.max(1, maxPlans));
+    }
+
+    /**
+     * Records a slow query and starts capturing its plan if there isn't one yet.
+     *
+     * @param event Query Event, with its bindings
+     */
+    public void record(@NotNull QueryEvent event)
+    {
+        String sql = event.getSql();
+        SlowQuery query = new SlowQuery(event, plans.get(sql));
+
+        synchronized ( this )
+        {
+            queries[(int) (recorded++ % queries.length)] = query;
+        }
+
+        if ( query.getPlan() == null && isExplainable(event) && pending.add(sql) )
+        {
+            try
+            {
+                getExplainer().execute(() -> capture(event));
+            } catch ( RejectedExecutionException e )
+            {
+                pending.remove(sql);
+            }
+        }
+    }
+
+    /**
+     * Runs EXPLAIN for a query and hands the plan to every slow query of the same SQL still waiting for it.
+     *
+     * @param event Query Event, with its bindings
+     */
+    private void capture(@NotNull QueryEvent event)
+    {
+        String sql = event.getSql();
+
+        try
+        {
+            String plan = event.getConnection().explain(sql, event.getBindings());
+
+            if ( plan == null )
+            {
+                return;
+            }
+
+            plans.put(sql, plan);
+
+            synchronized ( this )
+            {
+                for ( SlowQuery query : queries )
+                {
+                    if ( query != null && query.getPlan() == null && query.getEvent().getSql().equals(sql) )
+                    {
+                        query.setPlan(plan);
+                    }
+                }
+            }
+        } catch ( RuntimeException e )
+        {
+            e.printStackTrace();
+        } finally
+        {
+            // Left to be tried again by the next slow run when no plan came back
+            pending.remove(sql);
+        }
+    }
+
+    /**
+     * @param event Query Event
+     *
+     * @return True if the connection's grammar can explain the query
+     */
+    private static boolean isExplainable(@NotNull QueryEvent event)
+    {
+        QueryGrammar grammar = event.getConnection().getQueryGrammar();
+
+        return grammar != null && grammar.isExplainable(event.getSql());
+    }
+
+    /**
+     * @param sql SQL Query
+     *
+     * @return Captured plan of the query, or null
+     */
+    @Nullable
+    public String getPlan(@NotNull String sql)
+    {
+        return plans.get(sql);
+    }
+
+    /**
+     * @return Slow queries kept, oldest first
+     */
+    @NotNull
+    public synchronized List<SlowQuery> getQueries()
+    {
+        int size = size();
+        List<SlowQuery> list = new ArrayList<>(size);
+
+        for ( long i = recorded - size; i < recorded; i++ )
+        {
+            list.add(queries[(int) (i % queries.length)]);
+        }
+
+        return list;
+    }
+
+    /**
+     * @return Number of slow queries kept
+     */
+    public synchronized int size()
+    {
+        return (int) Math.min(recorded, queries.length);
+    }
+
+    /**
+     * @return Number of slow queries ever recorded
+     */
+    public synchronized long getRecorded()
+    {
+        return recorded;
+    }
+
+    /**
+     * Forgets every slow query and plan.
+     */
+    public synchronized void clear()
+    {
+        Arrays.fill(queries, null);
+        plans.clear();
+
+        recorded = 0;
+    }
+
+    /**
+     * Prints the slow queries to the console with their plans.
+     */
+    public void toConsole()
+    {
+        getQueries().forEach(System.out::println);
+    }
+
+    /**
+     * @return The shared EXPLAIN executor
+     */
+    @NotNull
+    private static synchronized ExecutorService getExplainer()
+    {
+        if ( explainer == null )
+        {
+            explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                                               new ArrayBlockingQueue<>(MAX_PENDING_PLANS), runnable -> {
+                Thread thread = new Thread(runnable, "jhdb-explain");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        return explainer;
+    }
+}
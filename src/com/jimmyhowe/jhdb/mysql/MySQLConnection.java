@@ -30,7 +30,6 @@ import org.jetbrains.annotations.NotNull;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 /**
  * MySQL Connection
@@ -46,14 +45,26 @@ public class MySQLConnection extends Connection
     }
 
     /**
-     * @param query
+     * Connector/J reads the whole result into memory unless the fetch size is Integer.MIN_VALUE, which streams rows
+     * one at a time. No other query can run on the connection until a streaming cursor is closed.
      *
-     * @return JDBC Statement
+     * @return JDBC fetch size
+     */
+    @Override
+    public int getCursorFetchSize()
+    {
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * @param query SQL Query
+     *
+     * @return Prepared JDBC Statement
      *
      * @throws SQLException When statement cant run
      */
     @Override
-    protected Statement getStatement(String query) throws SQLException
+    protected PreparedStatement getStatement(String query) throws SQLException
     {
         return getConnection().prepareStatement(query, PreparedStatement.RETURN_GENERATED_KEYS);
     }
@@ -83,6 +83,7 @@ public class MySQLConnector extends Connector
 
         // FIX SSL
 
-        return String.format("jdbc:mysql://%s%s%s?useSSL=false", host, port, database);
+        // Server side prepares so statements cached by the connection skip the parse and plan on reuse
+        return String.format("jdbc:mysql://%s%s%s?useSSL=false&useServerPrepStmts=true", host, port, database);
     }
 }
@@ -25,6 +25,7 @@
 package com.jimmyhowe.jhdb.mysql;
 
 import com.jimmyhowe.jhdb.core.Connection;
+import com.jimmyhowe.jhdb.core.ConnectionPool;
 import com.jimmyhowe.jhdb.core.Connector;
 import com.jimmyhowe.jhdb.core.Plugin;
 import org.jetbrains.annotations.NotNull;
@@ -56,6 +57,18 @@ public class MySQLPlugin implements Plugin
 
     private String engine = "";
 
+    private int poolMinSize = 0;
+
+    private int poolMaxSize = 10;
+
+    private long poolIdleTimeout = 600000;
+
+    private long poolMaxLifetime = 1800000;
+
+    private long poolBorrowTimeout = 30000;
+
+    private int statementCacheSize = 64;
+
     @NotNull
     public String getDriver()
     {
@@ -200,6 +213,132 @@ public class MySQLPlugin implements Plugin
         return this;
     }
 
+    /**
+     * @return Minimum number of pooled connections kept open
+     */
+    public int getPoolMinSize()
+    {
+        return poolMinSize;
+    }
+
+    /**
+     * @param poolMinSize Minimum number of pooled connections kept open
+     *
+     * @return self
+     */
+    @NotNull
+    public MySQLPlugin setPoolMinSize(int poolMinSize)
+    {
+        this.poolMinSize = poolMinSize;
+
+        return this;
+    }
+
+    /**
+     * @return Maximum number of pooled connections
+     */
+    public int getPoolMaxSize()
+    {
+        return poolMaxSize;
+    }
+
+    /**
+     * @param poolMaxSize Maximum number of pooled connections
+     *
+     * @return self
+     */
+    @NotNull
+    public MySQLPlugin setPoolMaxSize(int poolMaxSize)
+    {
+        this.poolMaxSize = poolMaxSize;
+
+        return this;
+    }
+
+    /**
+     * @return Milliseconds an idle pooled connection is kept, 0 to keep forever
+     */
+    public long getPoolIdleTimeout()
+    {
+        return poolIdleTimeout;
+    }
+
+    /**
+     * @param poolIdleTimeout Milliseconds an idle pooled connection is kept, 0 to keep forever
+     *
+     * @return self
+     */
+    @NotNull
+    public MySQLPlugin setPoolIdleTimeout(long poolIdleTimeout)
+    {
+        this.poolIdleTimeout = poolIdleTimeout;
+
+        return this;
+    }
+
+    /**
+     * @return Milliseconds before a pooled connection is retired, 0 for no limit
+     */
+    public long getPoolMaxLifetime()
+    {
+        return poolMaxLifetime;
+    }
+
+    /**
+     * @param poolMaxLifetime Milliseconds before a pooled connection is retired, 0 for no limit
+     *
+     * @return self
+     */
+    @NotNull
+    public MySQLPlugin setPoolMaxLifetime(long poolMaxLifetime)
+    {
+        this.poolMaxLifetime = poolMaxLifetime;
+
+        return this;
+    }
+
+    /**
+     * @return Milliseconds to wait for a free pooled connection
+     */
+    public long getPoolBorrowTimeout()
+    {
+        return poolBorrowTimeout;
+    }
+
+    /**
+     * @param poolBorrowTimeout Milliseconds to wait for a free pooled connection
+     *
+     * @return self
+     */
+    @NotNull
+    public MySQLPlugin setPoolBorrowTimeout(long poolBorrowTimeout)
+    {
+        this.poolBorrowTimeout = poolBorrowTimeout;
+
+        return this;
+    }
+
+    /**
+     * @return Prepared statements cached per pooled connection
+     */
+    public int getStatementCacheSize()
+    {
+        return statementCacheSize;
+    }
+
+    /**
+     * @param statementCacheSize Prepared statements cached per pooled connection, 0 to disable
+     *
+     * @return self
+     */
+    @NotNull
+    public MySQLPlugin setStatementCacheSize(int statementCacheSize)
+    {
+        this.statementCacheSize = statementCacheSize;
+
+        return this;
+    }
+
     /**
      * @return A fresh Connection
      */
@@ -261,6 +400,13 @@ public class MySQLPlugin implements Plugin
         properties.setProperty("strict", String.valueOf(strict));
         properties.setProperty("engine", engine);
 
+        properties.setProperty(ConnectionPool.MIN_SIZE, String.valueOf(poolMinSize));
+        properties.setProperty(ConnectionPool.MAX_SIZE, String.valueOf(poolMaxSize));
+        properties.setProperty(ConnectionPool.IDLE_TIMEOUT, String.valueOf(poolIdleTimeout));
+        properties.setProperty(ConnectionPool.MAX_LIFETIME, String.valueOf(poolMaxLifetime));
+        properties.setProperty(ConnectionPool.BORROW_TIMEOUT, String.valueOf(poolBorrowTimeout));
+        properties.setProperty(ConnectionPool.STATEMENT_CACHE_SIZE, String.valueOf(statementCacheSize));
+
         return properties;
     }
 }
@@ -31,6 +31,17 @@ import com.jimmyhowe.jhdb.core.queries.QueryGrammar;
  */
 public class MySQLQueryGrammar extends QueryGrammar
 {
+    /**
+     * The prepared statement protocol counts placeholders in 16 bits.
+     *
+     * @return Maximum bound parameters per statement
+     */
+    @Override
+    public int getMaxParameters()
+    {
+        return 65535;
+    }
+
 //    @Override
 //    public String compileTableExists()
 //    {
@@ -26,7 +26,16 @@ package com.jimmyhowe.jhdb.sqlite;
 
 import com.jimmyhowe.jhdb.core.Connection;
 import com.jimmyhowe.jhdb.core.Plugin;
+import com.jimmyhowe.jhdb.core.queries.InsertResult;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Created by Jimmy on 05/12/2016.
@@ -40,4 +49,51 @@ public class SQLiteConnection extends Connection
     {
         super(plugin);
     }
+
+    /**
+     * Performs an INSERT statement and reads back the rowids it generated with RETURNING, so rows that set their own
+     * rowid, rows skipped by INSERT OR IGNORE and rowids picked at random once the largest is taken are all reported
+     * as they are. SQLite before 3.35 and WITHOUT ROWID tables can't return the rowid, those inserts run as they are
+     * and report no keys rather than guessed ones.
+     *
+     * @param query    SQL Query
+     * @param bindings Bindings
+     *
+     * @return Affected rows and generated keys, or null when the query failed
+     */
+    @Nullable
+    @Override
+    public InsertResult insertWithKeys(String query, @NotNull List<Object> bindings)
+    {
+        return run(query, bindings, (me, statement) ->
+        {
+            PreparedStatement returning;
+
+            try
+            {
+                returning = statement.getConnection().prepareStatement(query + " RETURNING rowid");
+            } catch ( SQLException e )
+            {
+                // No RETURNING before 3.35 and no rowid in WITHOUT ROWID tables
+                return new InsertResult(statement.executeUpdate(), Collections.emptyList());
+            }
+
+            try ( PreparedStatement insert = returning )
+            {
+                me.bindValues(insert, bindings);
+
+                List<Long> keys = new ArrayList<>();
+
+                try ( ResultSet resultSet = insert.executeQuery() )
+                {
+                    while ( resultSet.next() )
+                    {
+                        keys.add(resultSet.getLong(1));
+                    }
+                }
+
+                return new InsertResult(keys.size(), keys);
+            }
+        });
+    }
 }
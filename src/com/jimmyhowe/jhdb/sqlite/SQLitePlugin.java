@@ -25,6 +25,7 @@
 package com.jimmyhowe.jhdb.sqlite;
 
 import com.jimmyhowe.jhdb.core.Connection;
+import com.jimmyhowe.jhdb.core.ConnectionPool;
 import com.jimmyhowe.jhdb.core.Connector;
 import com.jimmyhowe.jhdb.core.Plugin;
 import com.jimmyhowe.jhdb.core.queries.QueryGrammar;
@@ -32,6 +33,7 @@ import com.jimmyhowe.jhdb.core.schema.SchemaGrammar;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Objects;
 import java.util.Properties;
 
 /**
@@ -45,6 +47,18 @@ public class SQLitePlugin implements Plugin
 
     private String prefix = "";
 
+    private int poolMinSize = 0;
+
+    private int poolMaxSize = 1;
+
+    private long poolIdleTimeout = 600000;
+
+    private long poolMaxLifetime = 1800000;
+
+    private long poolBorrowTimeout = 30000;
+
+    private int statementCacheSize = 64;
+
     /**
      * Constructs with no parameters
      */
@@ -133,6 +147,22 @@ public class SQLitePlugin implements Plugin
         properties.setProperty("database", database);
         properties.setProperty("prefix", prefix);
 
+        properties.setProperty(ConnectionPool.MIN_SIZE, String.valueOf(poolMinSize));
+        properties.setProperty(ConnectionPool.MAX_SIZE, String.valueOf(poolMaxSize));
+        properties.setProperty(ConnectionPool.IDLE_TIMEOUT, String.valueOf(poolIdleTimeout));
+        properties.setProperty(ConnectionPool.MAX_LIFETIME, String.valueOf(poolMaxLifetime));
+        properties.setProperty(ConnectionPool.BORROW_TIMEOUT, String.valueOf(poolBorrowTimeout));
+        properties.setProperty(ConnectionPool.STATEMENT_CACHE_SIZE, String.valueOf(statementCacheSize));
+
+        // An in memory database only lives as long as its one JDBC connection, so the pool must neither open a
+        // second connection nor ever retire the first.
+        if ( Objects.equals(database, ":memory:") )
+        {
+            properties.setProperty(ConnectionPool.MAX_SIZE, "1");
+            properties.setProperty(ConnectionPool.IDLE_TIMEOUT, "0");
+            properties.setProperty(ConnectionPool.MAX_LIFETIME, "0");
+        }
+
         return properties;
     }
 
@@ -178,6 +208,132 @@ public class SQLitePlugin implements Plugin
         return this;
     }
 
+    /**
+     * @return Minimum number of pooled connections kept open
+     */
+    public int getPoolMinSize()
+    {
+        return poolMinSize;
+    }
+
+    /**
+     * @param poolMinSize Minimum number of pooled connections kept open
+     *
+     * @return self
+     */
+    @NotNull
+    public SQLitePlugin setPoolMinSize(int poolMinSize)
+    {
+        this.poolMinSize = poolMinSize;
+
+        return this;
+    }
+
+    /**
+     * @return Maximum number of pooled connections
+     */
+    public int getPoolMaxSize()
+    {
+        return poolMaxSize;
+    }
+
+    /**
+     * @param poolMaxSize Maximum number of pooled connections
+     *
+     * @return self
+     */
+    @NotNull
+    public SQLitePlugin setPoolMaxSize(int poolMaxSize)
+    {
+        this.poolMaxSize = poolMaxSize;
+
+        return this;
+    }
+
+    /**
+     * @return Milliseconds an idle pooled connection is kept, 0 to keep forever
+     */
+    public long getPoolIdleTimeout()
+    {
+        return poolIdleTimeout;
+    }
+
+    /**
+     * @param poolIdleTimeout Milliseconds an idle pooled connection is kept, 0 to keep forever
+     *
+     * @return self
+     */
+    @NotNull
+    public SQLitePlugin setPoolIdleTimeout(long poolIdleTimeout)
+    {
+        this.poolIdleTimeout = poolIdleTimeout;
+
+        return this;
+    }
+
+    /**
+     * @return Milliseconds before a pooled connection is retired, 0 for no limit
+     */
+    public long getPoolMaxLifetime()
+    {
+        return poolMaxLifetime;
+    }
+
+    /**
+     * @param poolMaxLifetime Milliseconds before a pooled connection is retired, 0 for no limit
+     *
+     * @return self
+     */
+    @NotNull
+    public SQLitePlugin setPoolMaxLifetime(long poolMaxLifetime)
+    {
+        this.poolMaxLifetime = poolMaxLifetime;
+
+        return this;
+    }
+
+    /**
+     * @return Milliseconds to wait for a free pooled connection
+     */
+    public long getPoolBorrowTimeout()
+    {
+        return poolBorrowTimeout;
+    }
+
+    /**
+     * @param poolBorrowTimeout Milliseconds to wait for a free pooled connection
+     *
+     * @return self
+     */
+    @NotNull
+    public SQLitePlugin setPoolBorrowTimeout(long poolBorrowTimeout)
+    {
+        this.poolBorrowTimeout = poolBorrowTimeout;
+
+        return this;
+    }
+
+    /**
+     * @return Prepared statements cached per pooled connection
+     */
+    public int getStatementCacheSize()
+    {
+        return statementCacheSize;
+    }
+
+    /**
+     * @param statementCacheSize Prepared statements cached per pooled connection, 0 to disable
+     *
+     * @return self
+     */
+    @NotNull
+    public SQLitePlugin setStatementCacheSize(int statementCacheSize)
+    {
+        this.statementCacheSize = statementCacheSize;
+
+        return this;
+    }
+
     /**
      * Use in memory database
      *
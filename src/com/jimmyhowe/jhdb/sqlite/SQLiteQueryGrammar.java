@@ -25,12 +25,38 @@
 package com.jimmyhowe.jhdb.sqlite;
 
 import com.jimmyhowe.jhdb.core.queries.QueryGrammar;
+import org.jetbrains.annotations.NotNull;
 
 /**
  * SQLite Query Grammar
  */
 public class SQLiteQueryGrammar extends QueryGrammar
 {
+    /**
+     * SQLITE_MAX_VARIABLE_NUMBER defaults to 999 before SQLite 3.32.
+     *
+     * @return Maximum bound parameters per statement
+     */
+    @Override
+    public int getMaxParameters()
+    {
+        return 999;
+    }
+
+    /**
+     * Plain EXPLAIN lists SQLite's bytecode, the readable plan comes from EXPLAIN QUERY PLAN.
+     *
+     * @param sql Statement to explain
+     *
+     * @return SQL
+     */
+    @NotNull
+    @Override
+    public String compileExplain(@NotNull String sql)
+    {
+        return "EXPLAIN QUERY PLAN " + sql;
+    }
+
 //    @Override
 //    public String compileTableExists(QueryBuilder query)
 //    {
@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core;
+
+import com.jimmyhowe.jhdb.core.exceptions.ConnectionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionPoolTest
+{
+    private Connector connector;
+
+    @BeforeEach
+    void setUp()
+    {
+        connector = mock(Connector.class);
+
+        when(connector.connect(any())).thenAnswer(invocation -> mock(java.sql.Connection.class));
+    }
+
+    @Test
+    void it_reuses_released_connections()
+    {
+        ConnectionPool pool = new ConnectionPool(connector, settings(2, 50));
+
+        PooledConnection first = pool.borrow();
+        pool.release(first);
+
+        assertSame(first, pool.borrow());
+        assertEquals(1, pool.getTotalConnections());
+        verify(connector, times(1)).connect(any());
+    }
+
+    @Test
+    void it_times_out_when_the_pool_is_exhausted()
+    {
+        ConnectionPool pool = new ConnectionPool(connector, settings(1, 50));
+
+        pool.borrow();
+
+        assertThrows(ConnectionException.class, pool::borrow);
+    }
+
+    @Test
+    void it_replaces_invalidated_connections()
+    {
+        ConnectionPool pool = new ConnectionPool(connector, settings(1, 50));
+
+        PooledConnection first = pool.borrow();
+        pool.invalidate(first);
+
+        assertNotSame(first, pool.borrow());
+        assertEquals(1, pool.getTotalConnections());
+    }
+
+    @Test
+    void it_discards_connections_that_fail_validation() throws Exception
+    {
+        java.sql.Connection lost = mock(java.sql.Connection.class);
+        when(lost.isValid(anyInt())).thenThrow(new SQLException("Communications link failure"));
+        when(connector.connect(any())).thenReturn(lost).thenAnswer(invocation -> mock(java.sql.Connection.class));
+
+        ConnectionPool pool = new ConnectionPool(connector, settings(1, 50));
+
+        PooledConnection first = pool.borrow();
+        pool.release(first);
+
+        Thread.sleep(600);
+
+        assertNotSame(first, pool.borrow());
+        verify(lost).close();
+    }
+
+    @Test
+    void it_closes_idle_connections_when_closed() throws Exception
+    {
+        ConnectionPool pool = new ConnectionPool(connector, settings(1, 50));
+
+        PooledConnection pooled = pool.borrow();
+        pool.release(pooled);
+        pool.close();
+
+        verify(pooled.getConnection()).close();
+        assertThrows(ConnectionException.class, pool::borrow);
+    }
+
+    @Test
+    void it_closes_cached_statements_with_the_connection() throws Exception
+    {
+        ConnectionPool pool = new ConnectionPool(connector, settings(1, 50));
+
+        PooledConnection pooled = pool.borrow();
+        PreparedStatement statement = mock(PreparedStatement.class);
+
+        pooled.returnStatement("SELECT 1", statement);
+
+        assertSame(statement, pooled.takeStatement("SELECT 1"));
+
+        pooled.returnStatement("SELECT 1", statement);
+        pool.invalidate(pooled);
+
+        verify(statement).close();
+    }
+
+    private Properties settings(int maxSize, long borrowTimeout)
+    {
+        Properties properties = new Properties();
+
+        properties.setProperty(ConnectionPool.MAX_SIZE, String.valueOf(maxSize));
+        properties.setProperty(ConnectionPool.BORROW_TIMEOUT, String.valueOf(borrowTimeout));
+
+        return properties;
+    }
+}
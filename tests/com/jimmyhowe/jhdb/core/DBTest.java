@@ -27,8 +27,19 @@ package com.jimmyhowe.jhdb.core;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class DBTest
@@ -77,6 +88,75 @@ class DBTest
         assertEquals(mockConnection, DB.resolveConnectionFromPlugin(DB.DEFAULT_PLUGIN_KEY));
     }
 
+    @Test
+    void it_reuses_the_connection_created_for_a_plugin()
+    {
+        Plugin mockPlugin = getMockPlugin();
+
+        when(mockPlugin.getConnection()).thenReturn(mock(Connection.class), mock(Connection.class));
+
+        DB.register("first", mockPlugin);
+
+        assertSame(DB.getDefaultConnection(), DB.connection("first"));
+        assertSame(DB.connection("first"), DB.resolveConnectionFromPlugin("first"));
+        verify(mockPlugin, times(1)).getConnection();
+    }
+
+    @Test
+    void it_creates_a_plugins_connection_once_when_resolved_on_several_threads() throws Exception
+    {
+        Plugin mockPlugin = getMockPlugin();
+
+        when(mockPlugin.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+
+        DB.use(mockPlugin);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try
+        {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Connection>> resolved = new ArrayList<>();
+
+            for ( int i = 0; i < 8; i++ )
+            {
+                resolved.add(executor.submit(() -> {
+                    start.await();
+
+                    return DB.getDefaultConnection();
+                }));
+            }
+
+            start.countDown();
+
+            for ( Future<Connection> connection : resolved )
+            {
+                assertSame(resolved.get(0).get(), connection.get());
+            }
+
+            verify(mockPlugin, times(1)).getConnection();
+        } finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void it_closes_cached_connections_when_flushed()
+    {
+        Plugin mockPlugin = getMockPlugin();
+        Connection mockConnection = mock(Connection.class);
+
+        when(mockPlugin.getConnection()).thenReturn(mockConnection);
+
+        DB.use(mockPlugin);
+        DB.getDefaultConnection();
+        DB.flushConnections();
+
+        verify(mockConnection).closeConnection();
+        assertTrue(DB.getConnectionList().isEmpty());
+    }
+
 //    @Test
 
     void testLogWorks()
@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.events;
+
+import com.jimmyhowe.jhdb.core.Connection;
+import com.jimmyhowe.jhdb.core.utilities.QueryLog;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QueryEventsTest
+{
+    @Test
+    public void it_only_enables_levels_up_to_the_current_one() throws Exception
+    {
+        QueryEvents events = new QueryEvents();
+
+        assertFalse(events.isEnabled(LogLevel.ERROR));
+
+        events.setLevel(LogLevel.INFO);
+
+        assertTrue(events.isEnabled(LogLevel.ERROR));
+        assertTrue(events.isEnabled(LogLevel.INFO));
+        assertFalse(events.isEnabled(LogLevel.DEBUG));
+        assertFalse(events.isEnabled(LogLevel.OFF));
+    }
+
+    @Test
+    public void it_delivers_events_in_order_to_the_sinks_and_the_connection_log() throws Exception
+    {
+        QueryLog log = new QueryLog(2);
+        Connection connection = connection(log);
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+
+        QueryEvents events = new QueryEvents().addSink(event -> seen.add(event.getSql()));
+
+        for ( int i = 1; i <= 3; i++ )
+        {
+            assertTrue(events.publish(event(connection, "SELECT " + i)));
+        }
+
+        assertTrue(events.flush(5, TimeUnit.SECONDS));
+
+        assertEquals(3, events.getDelivered());
+        assertEquals(3, log.getRecorded());
+        assertEquals(2, log.size());
+        assertEquals("SELECT 2", log.getEvents().get(0).getSql());
+        assertEquals("SELECT 3", log.getEvents().get(1).getSql());
+        assertEquals(3, seen.size());
+        assertEquals("SELECT 1", seen.get(0));
+    }
+
+    @Test
+    public void it_drops_events_instead_of_blocking_when_full() throws Exception
+    {
+        Connection connection = connection(new QueryLog());
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        QueryEvents events = new QueryEvents(4).addSink(event -> {
+            entered.countDown();
+
+            try
+            {
+                release.await();
+            } catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        events.publish(event(connection, "SELECT 0"));
+
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        for ( int i = 1; i <= 4; i++ )
+        {
+            assertTrue(events.publish(event(connection, "SELECT " + i)));
+        }
+
+        assertFalse(events.publish(event(connection, "SELECT 5")));
+
+        release.countDown();
+
+        assertTrue(events.flush(5, TimeUnit.SECONDS));
+        assertEquals(5, events.getDelivered());
+        assertEquals(1, events.getDropped());
+    }
+
+    /**
+     * @param log Query log of the connection
+     *
+     * @return Connection
+     */
+    private static Connection connection(QueryLog log)
+    {
+        Connection connection = mock(Connection.class);
+
+        when(connection.getQueryLog()).thenReturn(log);
+        when(connection.getName()).thenReturn("test");
+
+        return connection;
+    }
+
+    /**
+     * @param connection Connection
+     * @param sql        SQL
+     *
+     * @return Query event
+     */
+    private static QueryEvent event(Connection connection, String sql)
+    {
+        return new QueryEvent(connection, sql, Collections.emptyList(), 1000, 1, false);
+    }
+}
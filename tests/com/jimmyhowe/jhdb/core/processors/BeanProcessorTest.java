@@ -0,0 +1,166 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.processors;
+
+import com.jimmyhowe.jhdb.core.exceptions.InvalidArgumentException;
+import com.jimmyhowe.jhdb.core.tables.rows.ResultLayout;
+import com.jimmyhowe.jhdb.core.tables.rows.Row;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeanProcessorTest
+{
+    private final ResultLayout layout = new ResultLayout(
+            new String[]{"id", "user_name", "score", "active"},
+            new int[]{Types.INTEGER, Types.VARCHAR, Types.DOUBLE, Types.BIT},
+            new String[]{"INTEGER", "VARCHAR", "DOUBLE", "BIT"},
+            new String[]{"java.lang.Integer", "java.lang.String", "java.lang.Double", "java.lang.Boolean"}
+    );
+
+    private Row row(long id, String name)
+    {
+        return new Row(layout, new Object[]{name}, new long[]{id, Double.doubleToRawLongBits(2.5), 1}, null);
+    }
+
+    @Test
+    void it_maps_columns_onto_setters()
+    {
+        User user = BeanProcessor.of(User.class).map(row(7, "Jimmy"));
+
+        assertEquals(7L, user.getId());
+        assertEquals("Jimmy", user.getUserName());
+        assertEquals(2.5, user.getScore());
+        assertTrue(user.isActive());
+    }
+
+    @Test
+    void it_maps_columns_onto_private_fields()
+    {
+        Account account = BeanProcessor.of(Account.class).map(row(3, "Brian"));
+
+        assertEquals(3, account.id);
+        assertEquals("Brian", account.userName);
+        assertEquals(Boolean.TRUE, account.active);
+    }
+
+    @Test
+    void it_builds_immutable_classes_through_their_constructor()
+    {
+        Point point = BeanProcessor.of(Point.class).map(row(9, "Jimmy"));
+
+        assertEquals(9, point.id);
+        assertEquals("Jimmy", point.name);
+        assertEquals(2.5f, point.score);
+        assertTrue(point.active);
+    }
+
+    @Test
+    void it_only_maps_rows_read_from_a_result()
+    {
+        assertThrows(InvalidArgumentException.class, () -> BeanProcessor.of(User.class).map(new Row()));
+    }
+
+    public static class User
+    {
+        private long id;
+
+        private String userName;
+
+        private double score;
+
+        private boolean active;
+
+        public long getId()
+        {
+            return id;
+        }
+
+        public void setId(long id)
+        {
+            this.id = id;
+        }
+
+        public String getUserName()
+        {
+            return userName;
+        }
+
+        public void setUserName(String userName)
+        {
+            this.userName = userName;
+        }
+
+        public double getScore()
+        {
+            return score;
+        }
+
+        public void setScore(double score)
+        {
+            this.score = score;
+        }
+
+        public boolean isActive()
+        {
+            return active;
+        }
+
+        public void setActive(boolean active)
+        {
+            this.active = active;
+        }
+    }
+
+    private static class Account
+    {
+        private int id;
+
+        private String userName;
+
+        private Boolean active;
+    }
+
+    private static class Point
+    {
+        private final int id;
+
+        private final String name;
+
+        private final float score;
+
+        private final boolean active;
+
+        Point(int id, String name, float score, boolean active)
+        {
+            this.id = id;
+            this.name = name;
+            this.score = score;
+            this.active = active;
+        }
+    }
+}
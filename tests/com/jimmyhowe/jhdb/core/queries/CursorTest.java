@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.queries;
+
+import com.jimmyhowe.jhdb.core.processors.PostProcessor;
+import com.jimmyhowe.jhdb.core.support.Callback;
+import com.jimmyhowe.jhdb.core.tables.rows.Row;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CursorTest
+{
+    private ResultSet resultSet;
+
+    private PostProcessor processor;
+
+    private Callback onClose;
+
+    @BeforeEach
+    void setUp() throws Exception
+    {
+        resultSet = mock(ResultSet.class);
+        processor = mock(PostProcessor.class);
+        onClose = mock(Callback.class);
+
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(processor.processRow(eq(resultSet), any())).thenAnswer(invocation -> new Row());
+    }
+
+    @Test
+    void it_reads_rows_lazily_and_closes_after_the_last_one() throws Exception
+    {
+        Cursor cursor = new Cursor("SELECT * FROM test", resultSet, processor, onClose);
+
+        verify(resultSet, never()).next();
+
+        cursor.next();
+        cursor.next();
+
+        verify(onClose, never()).call();
+        assertFalse(cursor.hasNext());
+        assertTrue(cursor.isClosed());
+        verify(resultSet).close();
+        verify(onClose, times(1)).call();
+    }
+
+    @Test
+    void it_closes_the_cursor_when_the_stream_is_closed() throws Exception
+    {
+        Cursor cursor = new Cursor("SELECT * FROM test", resultSet, processor, onClose);
+
+        try ( Stream<Row> stream = cursor.stream() )
+        {
+            assertTrue(stream.findFirst().isPresent());
+        }
+
+        assertTrue(cursor.isClosed());
+        verify(onClose, times(1)).call();
+    }
+}
@@ -5,11 +5,29 @@ import com.jimmyhowe.jhdb.core.processors.TableProcessor;
 import com.jimmyhowe.jhdb.core.queries.components.AndWhere;
 import com.jimmyhowe.jhdb.core.queries.components.OrWhere;
 import com.jimmyhowe.jhdb.core.queries.components.Where;
+import com.jimmyhowe.jhdb.core.support.ResultCallback;
+import com.jimmyhowe.jhdb.core.tables.columns.Column;
+import com.jimmyhowe.jhdb.core.tables.columns.Columns;
+import com.jimmyhowe.jhdb.core.tables.rows.Row;
+import com.jimmyhowe.jhdb.core.tables.rows.Rows;
+import com.jimmyhowe.jhdb.core.utilities.Expression;
+import com.jimmyhowe.jhdb.core.utilities.ResultCache;
+import com.jimmyhowe.jhdb.core.utilities.RowCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.mock;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
 
 class QueryBuilderTest
 {
@@ -69,21 +87,21 @@ class QueryBuilderTest
     @Test
     public void it_can_generate_a_simple_where_statement() throws Exception
     {
-        assertEquals("SELECT * FROM test WHERE name = 'Jimmy'",
+        assertEquals("SELECT * FROM test WHERE name = ?",
                      this.queryBuilder.where("name", "Jimmy").toSql());
     }
 
     @Test
     public void it_can_generate_a_where_statement_with_operator() throws Exception
     {
-        assertEquals("SELECT * FROM test WHERE name != 'Jimmy'",
+        assertEquals("SELECT * FROM test WHERE name != ?",
                      this.queryBuilder.where("name", "!=", "Jimmy").toSql());
     }
 
     @Test
     public void it_can_generate_a_where_not_statement() throws Exception
     {
-        assertEquals("SELECT * FROM test WHERE name != 'Jimmy'",
+        assertEquals("SELECT * FROM test WHERE name != ?",
                      this.queryBuilder.whereNot("name", "Jimmy").toSql());
     }
 
@@ -108,7 +126,7 @@ class QueryBuilderTest
     @Test
     public void it_can_generate_a_select_all_with_an_order_by_and_a_where_statement() throws Exception
     {
-        String expected = "SELECT * FROM test WHERE name = 'Jimmy' ORDER BY name DESC";
+        String expected = "SELECT * FROM test WHERE name = ? ORDER BY name DESC";
 
         Object actual = this.queryBuilder.where("name", "Jimmy").orderBy("name", "DESC").toSql();
 
@@ -118,7 +136,7 @@ class QueryBuilderTest
     @Test
     public void it_can_generate_a_select_first_with_an_order_by_and_a_where_statement() throws Exception
     {
-        String expected = "SELECT * FROM test WHERE name = 'Jimmy' ORDER BY name DESC LIMIT 1";
+        String expected = "SELECT * FROM test WHERE name = ? ORDER BY name DESC LIMIT 1";
 
         Object actual = this.queryBuilder.where("name", "Jimmy").orderBy("name", "DESC").limit(1).toSql();
 
@@ -128,7 +146,7 @@ class QueryBuilderTest
     @Test
     public void it_can_generate_select_with_and_where() throws Exception
     {
-        String expected = "SELECT * FROM test WHERE id = '1' AND id = '2'";
+        String expected = "SELECT * FROM test WHERE id = ? AND id = ?";
 
         Object actual = this.queryBuilder.where("id", 1).andWhere("id", 2).toSql();
 
@@ -138,7 +156,7 @@ class QueryBuilderTest
     @Test
     public void it_can_generate_select_with_or_where() throws Exception
     {
-        String expected = "SELECT * FROM test WHERE id = '1' OR id = '2'";
+        String expected = "SELECT * FROM test WHERE id = ? OR id = ?";
 
         Object actual = this.queryBuilder.where("id", 1).orWhere("id", 2).toSql();
 
@@ -148,7 +166,7 @@ class QueryBuilderTest
     @Test
     public void it_can_generate_select_with_multiple_wheres() throws Exception
     {
-        String expected = "SELECT * FROM test WHERE ( id = '1' AND name = 'Jimmy' )";
+        String expected = "SELECT * FROM test WHERE ( id = ? AND name = ? )";
 
         Object actual = this.queryBuilder.where(
                 new Where("id", 1),
@@ -161,7 +179,7 @@ class QueryBuilderTest
     @Test
     public void it_can_generate_select_with_multiple_wheres_and_or_where() throws Exception
     {
-        String expected = "SELECT * FROM test WHERE ( id = '1' AND name = 'Jimmy' ) OR id = '2'";
+        String expected = "SELECT * FROM test WHERE ( id = ? AND name = ? ) OR id = ?";
 
         Object actual = this.queryBuilder.where(
                 new Where("id", 1),
@@ -174,7 +192,7 @@ class QueryBuilderTest
     @Test
     public void it_can_generate_select_with_multiple_and_or_where() throws Exception
     {
-        String expected = "SELECT * FROM test WHERE ( id = '1' OR name = 'Jimmy' ) AND ( id = '2' OR name = 'Jurij' )";
+        String expected = "SELECT * FROM test WHERE ( id = ? OR name = ? ) AND ( id = ? OR name = ? )";
 
         Object actual = this.queryBuilder
                 .where(new Where("id", 1), new OrWhere("name", "Jimmy"))
@@ -184,6 +202,400 @@ class QueryBuilderTest
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void it_collects_where_bindings_in_placeholder_order() throws Exception
+    {
+        this.queryBuilder
+                .where(new Where("id", 1), new OrWhere("name", "Jimmy"))
+                .andWhere(new Where("id", 2), new OrWhere("name", "Jurij"));
+
+        assertEquals(Arrays.asList(1, "Jimmy", 2, "Jurij"), this.queryBuilder.getBindings());
+    }
+
+    @Test
+    public void it_compiles_update_and_insert_values_as_placeholders() throws Exception
+    {
+        QueryBuilder update = this.queryBuilder.set("one", "hello").set("two", "world").where("id", 1);
+
+        assertEquals("UPDATE test SET one = ?, two = ? WHERE id = ?", new StubQueryGrammar().compileUpdate(update));
+
+        QueryBuilder insert = getQueryBuilder().insertInto("name", "age");
+        insert.insertValues = new Object[]{"Jimmy", 33};
+
+        assertEquals("INSERT INTO test (name, age) VALUES (?, ?)", new StubQueryGrammar().compileInsert(insert));
+    }
+
+    @Test
+    public void it_compiles_a_multi_row_insert() throws Exception
+    {
+        QueryBuilder insert = getQueryBuilder().insertInto("name", "age");
+
+        String actual = new StubQueryGrammar().compileInsert(
+                insert, Arrays.asList(new Object[]{"Jimmy", 33}, new Object[]{"Brian", 32})
+        );
+
+        assertEquals("INSERT INTO test (name, age) VALUES (?, ?), (?, ?)", actual);
+    }
+
+    @Test
+    public void it_compiles_multiple_order_bys() throws Exception
+    {
+        assertEquals("SELECT * FROM test ORDER BY name ASC, id DESC",
+                     this.queryBuilder.orderBy("name").orderByDesc("id").toSql());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void it_chunks_by_id_after_the_last_seen_key() throws Exception
+    {
+        Connection connection = mock(Connection.class);
+        List<String> queries = new ArrayList<>();
+        List<Object> bindings = new ArrayList<>();
+
+        when(connection.select(anyString(), anyList(), any(ResultCallback.class))).thenAnswer(invocation -> {
+            queries.add((String) invocation.getArguments()[0]);
+            bindings.add(new ArrayList<>((List<Object>) invocation.getArguments()[1]));
+
+            return queries.size() == 1 ? rows(1, 2) : rows(3);
+        });
+
+        QueryBuilder query = new QueryBuilder(connection, new StubQueryGrammar(), new TableProcessor())
+                .from("test").where("name", "Jimmy").orWhere("name", "Brian");
+
+        List<Integer> pages = new ArrayList<>();
+
+        assertTrue(query.chunkById(2, (rows, page) -> pages.add(page)));
+
+        assertEquals(Arrays.asList(1, 2), pages);
+        assertEquals(Arrays.asList(
+                "SELECT * FROM test WHERE ( name = ? OR name = ? ) ORDER BY id ASC LIMIT 2",
+                "SELECT * FROM test WHERE ( name = ? OR name = ? ) AND id > ? ORDER BY id ASC LIMIT 2"
+        ), queries);
+        assertEquals(Arrays.asList("Jimmy", "Brian", 2), bindings.get(1));
+        assertEquals("SELECT * FROM test WHERE name = ? OR name = ?", query.toSql());
+        assertEquals(Arrays.asList("Jimmy", "Brian"), query.getBindings());
+    }
+
+    @Test
+    public void it_reuses_compiled_sql_for_queries_of_the_same_shape() throws Exception
+    {
+        QueryGrammar grammar = new StubQueryGrammar();
+        Connection connection = mock(Connection.class);
+
+        QueryBuilder jimmy = new QueryBuilder(connection, grammar, new TableProcessor()).from("test").where("name", "Jimmy");
+        QueryBuilder brian = new QueryBuilder(connection, grammar, new TableProcessor()).from("test").where("name", "Brian");
+
+        assertEquals(jimmy.getShape(), brian.getShape());
+        assertEquals("SELECT * FROM test WHERE name = ?", jimmy.toSql());
+        assertEquals("SELECT * FROM test WHERE name = ?", brian.toSql());
+        assertEquals(1, grammar.getCachedSelectCount());
+
+        assertEquals("SELECT * FROM test WHERE name = ? LIMIT 1", brian.limit(1).toSql());
+        assertEquals("SELECT * FROM test WHERE name = ? OR age > now()",
+                     jimmy.orWhere("age", ">", new Expression("now()")).toSql());
+        assertEquals("SELECT * FROM test WHERE name = ? OR age > then()",
+                     brian.limit(0).orWhere("age", ">", new Expression("then()")).toSql());
+        assertEquals(4, grammar.getCachedSelectCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void it_remembers_results_until_the_table_is_written() throws Exception
+    {
+        Connection connection = mock(Connection.class);
+        List<String> queries = new ArrayList<>();
+
+        when(connection.getResultCache()).thenReturn(new ResultCache());
+        when(connection.getRowCache()).thenReturn(new RowCache());
+        when(connection.select(anyString(), anyList(), any(ResultCallback.class))).thenAnswer(invocation -> {
+            queries.add((String) invocation.getArguments()[0]);
+
+            return rows(1);
+        });
+
+        QueryBuilder query = new QueryBuilder(connection, new StubQueryGrammar(), new TableProcessor())
+                .from("test").where("id", 1).remember(Duration.ofMinutes(1));
+
+        Rows first = query.get();
+
+        assertSame(first, query.get());
+        assertEquals(1, queries.size());
+
+        new QueryBuilder(connection, new StubQueryGrammar(), new TableProcessor()).from("test").where("id", 1).delete();
+
+        verify(connection).delete("DELETE FROM test WHERE id = ?", Collections.singletonList(1));
+        assertNotSame(first, query.get());
+        assertEquals(2, queries.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void it_finds_rows_by_key_from_the_row_cache_and_fetches_only_the_missing_ones() throws Exception
+    {
+        Connection connection = mock(Connection.class);
+        List<String> queries = new ArrayList<>();
+        List<Object> bindings = new ArrayList<>();
+
+        when(connection.getResultCache()).thenReturn(new ResultCache());
+        when(connection.getRowCache()).thenReturn(new RowCache());
+        when(connection.select(anyString(), anyList(), any(ResultCallback.class))).thenAnswer(invocation -> {
+            queries.add((String) invocation.getArguments()[0]);
+            bindings.add(new ArrayList<>((List<Object>) invocation.getArguments()[1]));
+
+            return rows(((List<Object>) invocation.getArguments()[1]).stream()
+                                                                    .mapToInt(id -> (Integer) id)
+                                                                    .filter(id -> id <= 3)
+                                                                    .toArray());
+        });
+
+        assertEquals(1L, ((Number) table(connection).find(1).getObject("id")).longValue());
+        assertEquals(1L, ((Number) table(connection).find(1).getObject("id")).longValue());
+        assertEquals(Collections.singletonList("SELECT * FROM test WHERE id = ? LIMIT 1"), queries);
+
+        Rows rows = table(connection).findMany(Arrays.asList(3, 1, 4, 2));
+
+        assertEquals(3, rows.count());
+        assertEquals(3, rows.data(0).getObject("id"));
+        assertEquals(1, rows.data(1).getObject("id"));
+        assertEquals(2, rows.data(2).getObject("id"));
+        assertEquals("SELECT * FROM test WHERE id IN (?, ?, ?)", queries.get(1));
+        assertEquals(Arrays.asList(3, 4, 2), bindings.get(1));
+
+        table(connection).where("id", 1).set("name", "Brian").update();
+        table(connection).find(2);
+        table(connection).find(1);
+
+        assertEquals(3, queries.size());
+        assertEquals(Collections.singletonList(1), bindings.get(2));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void it_leaves_the_query_as_it_was_after_finding_and_forgets_rows_replaced_by_inserts() throws Exception
+    {
+        Connection connection = mock(Connection.class);
+        List<String> queries = new ArrayList<>();
+        List<Object> bindings = new ArrayList<>();
+
+        when(connection.getResultCache()).thenReturn(new ResultCache());
+        when(connection.getRowCache()).thenReturn(new RowCache());
+        when(connection.select(anyString(), anyList(), any(ResultCallback.class))).thenAnswer(invocation -> {
+            queries.add((String) invocation.getArguments()[0]);
+            bindings.add(new ArrayList<>((List<Object>) invocation.getArguments()[1]));
+
+            return rows((Integer) ((List<Object>) invocation.getArguments()[1]).get(0));
+        });
+
+        QueryBuilder query = table(connection);
+
+        query.find(1);
+        query.find(2);
+
+        assertEquals(Arrays.asList("SELECT * FROM test WHERE id = ? LIMIT 1", "SELECT * FROM test WHERE id = ? LIMIT 1"),
+                     queries);
+        assertEquals(Arrays.asList(Collections.singletonList(1), Collections.singletonList(2)), bindings);
+        assertTrue(query.wheres.isEmpty());
+        assertEquals(0, query.limit);
+
+        query.find(1);
+        assertEquals(2, queries.size());
+
+        table(connection).insertInto("id", "name").values(1, "Brian");
+        table(connection).find(2);
+        table(connection).find(1);
+
+        assertEquals(3, queries.size());
+        assertEquals(Collections.singletonList(1), bindings.get(2));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void it_forgets_rows_cached_under_another_key_column_or_key_type() throws Exception
+    {
+        Connection connection = mock(Connection.class);
+        List<String> queries = new ArrayList<>();
+
+        when(connection.getResultCache()).thenReturn(new ResultCache());
+        when(connection.getRowCache()).thenReturn(new RowCache());
+        when(connection.select(anyString(), anyList(), any(ResultCallback.class))).thenAnswer(invocation -> {
+            queries.add((String) invocation.getArguments()[0]);
+
+            return rows(1);
+        });
+
+        table(connection).primaryKey("slug").find("a");
+        table(connection).primaryKey("slug").find("a");
+        assertEquals(1, queries.size());
+
+        table(connection).where("id", 1).set("name", "Changed").update();
+        table(connection).primaryKey("slug").find("a");
+        assertEquals(2, queries.size());
+
+        table(connection).find(2);
+        table(connection).where("id", "2").set("name", "Changed").update();
+        table(connection).find(2);
+        assertEquals(4, queries.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void it_compiles_aggregates_into_the_sql() throws Exception
+    {
+        Connection connection = mock(Connection.class);
+        List<String> queries = new ArrayList<>();
+
+        when(connection.select(anyString(), anyList(), any(ResultCallback.class))).thenAnswer(invocation -> {
+            queries.add((String) invocation.getArguments()[0]);
+
+            switch ( queries.size() )
+            {
+                case 1:
+                    return 42L;
+                case 4:
+                    return true;
+                case 5:
+                    return 7L;
+                default:
+                    return 2.5;
+            }
+        });
+
+        QueryBuilder query = table(connection).where("name", "Jimmy").orderBy("name");
+
+        assertEquals(42, query.count());
+        assertEquals(2.5, query.sum("score"));
+        assertEquals(2.5, table(connection).distinct().avg("score"));
+        assertTrue(query.exists());
+        assertEquals(7, table(connection).distinct().select("email").count());
+
+        assertEquals(Arrays.asList(
+                "SELECT COUNT(*) AS aggregate FROM test WHERE name = ?",
+                "SELECT SUM(\"score\") AS aggregate FROM test WHERE name = ?",
+                "SELECT AVG(DISTINCT \"score\") AS aggregate FROM test",
+                "SELECT EXISTS(SELECT * FROM test WHERE name = ? LIMIT 1) AS aggregate",
+                "SELECT COUNT(DISTINCT \"email\") AS aggregate FROM test"
+        ), queries);
+        assertEquals("SELECT * FROM test WHERE name = ? ORDER BY name ASC", query.toSql());
+    }
+
+    @Test
+    public void it_joins_tables_in_one_query() throws Exception
+    {
+        QueryBuilder query = this.queryBuilder
+                .select("test.name", "posts.title")
+                .where("test.active", true)
+                .join("posts", "posts.user_id", "=", "test.id")
+                .leftJoin("comments as c", join -> join.on("c.post_id", "=", "posts.id").where("c.approved", 1))
+                .crossJoin("sizes");
+
+        assertEquals("SELECT test.\"name\", posts.\"title\" FROM test "
+                     + "INNER JOIN posts ON posts.user_id = test.id "
+                     + "LEFT JOIN comments as c ON c.post_id = posts.id AND c.approved = ? "
+                     + "CROSS JOIN sizes WHERE test.active = ?", query.toSql());
+        assertEquals(Arrays.asList(1, true), query.getBindings());
+        assertEquals(Arrays.asList("test", "posts", "comments", "sizes"), query.getTableNames());
+        assertNotEquals(query.getShape(), getQueryBuilder()
+                .select("test.name", "posts.title")
+                .where("test.active", true)
+                .join("posts", "posts.user_id", "=", "test.id")
+                .join("comments as c", join -> join.on("c.post_id", "=", "posts.id").where("c.approved", 1))
+                .crossJoin("sizes")
+                .getShape());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void it_eager_loads_related_rows_in_chunks_and_matches_them_in_memory() throws Exception
+    {
+        Connection connection = mock(Connection.class);
+        List<String> queries = new ArrayList<>();
+        List<Object> bindings = new ArrayList<>();
+
+        when(connection.select(anyString(), anyList(), any(ResultCallback.class))).thenAnswer(invocation -> {
+            queries.add((String) invocation.getArguments()[0]);
+            bindings.add(new ArrayList<>((List<Object>) invocation.getArguments()[1]));
+
+            if ( queries.size() == 1 )
+            {
+                return rows(1, 2, 3, 4, 5);
+            }
+
+            Rows posts = new Rows();
+
+            for ( Object id : (List<Object>) invocation.getArguments()[1] )
+            {
+                for ( int i = 0; i < 2 && ! id.equals(4L); i++ )
+                {
+                    Columns columns = new Columns();
+                    columns.add(new Column("user_id", ((Long) id).intValue()));
+
+                    posts.add(new Row(columns));
+                }
+            }
+
+            return posts;
+        });
+
+        QueryGrammar grammar = new StubQueryGrammar()
+        {
+            @Override
+            public int getMaxParameters()
+            {
+                return 2;
+            }
+        };
+
+        Rows users = new QueryBuilder(connection, grammar, new TableProcessor())
+                .from("test")
+                .with("posts", "user_id")
+                .get();
+
+        assertEquals(Arrays.asList(
+                "SELECT * FROM test",
+                "SELECT * FROM posts WHERE user_id IN (?, ?)",
+                "SELECT * FROM posts WHERE user_id IN (?, ?)",
+                "SELECT * FROM posts WHERE user_id IN (?)"
+        ), queries);
+        assertEquals(Arrays.asList(1L, 2L), bindings.get(1));
+        assertEquals(Collections.singletonList(5L), bindings.get(3));
+
+        assertEquals(5, users.count());
+        assertEquals(2, users.data(0).getRelation("posts").count());
+        assertEquals(3, users.data(2).getRelation("posts").data(1).getObject("user_id"));
+        assertTrue(users.data(3).getRelation("posts").isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void it_only_binds_the_sets_and_wheres_of_updates_and_deletes() throws Exception
+    {
+        Connection connection = mock(Connection.class);
+        List<Object> bindings = new ArrayList<>();
+
+        when(connection.getResultCache()).thenReturn(new ResultCache());
+        when(connection.getRowCache()).thenReturn(new RowCache());
+        when(connection.update(anyString(), anyList())).thenAnswer(invocation -> {
+            bindings.add(invocation.getArguments()[1]);
+
+            return 1;
+        });
+        when(connection.delete(anyString(), anyList())).thenAnswer(invocation -> {
+            bindings.add(invocation.getArguments()[1]);
+
+            return 1;
+        });
+
+        table(connection).selectRaw("score * ? AS weighted", 2)
+                         .join("posts", join -> join.on("posts.user_id", "=", "test.id").where("posts.draft", 1))
+                         .having("weighted", ">", 10)
+                         .where("id", 5)
+                         .set("name", "Brian")
+                         .update();
+        table(connection).selectRaw("score * ? AS weighted", 2).where("id", 6).delete();
+
+        assertEquals(Arrays.asList(Arrays.asList("Brian", 5), Collections.singletonList(6)), bindings);
+    }
+
     @Test
     public void it_can_generate_an_update_statement() throws Exception
     {
@@ -234,28 +646,69 @@ class QueryBuilderTest
 //        assertEquals(expected, actual);
 //    }
 
-//    @Test
-//    public void it_can_use_raw_select() throws Exception
-//    {
-//        String expected = "SELECT count(*) as user_count FROM test";
-//
-//        Object actual = this.queryBuilder.select(DB.raw("count(*) as user_count")).toSql();
-//
-//        assertEquals(expected, actual);
-//    }
+    @Test
+    public void it_can_use_raw_select() throws Exception
+    {
+        String expected = "SELECT count(*) as user_count FROM test";
+
+        Object actual = this.queryBuilder.select(new Expression("count(*) as user_count")).toSql();
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void it_can_use_raw_select_and_add_selects() throws Exception
+    {
+        String expected = "SELECT *, count(*) as user_count FROM test";
+
+        Object actual = this.queryBuilder
+                .select()
+                .addSelect(new Expression("count(*) as user_count"))
+                .toSql();
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void it_groups_and_filters_groups_in_the_sql() throws Exception
+    {
+        Connection connection = mock(Connection.class);
+        List<String> queries = new ArrayList<>();
+        List<List<Object>> bindings = new ArrayList<>();
+
+        when(connection.select(anyString(), anyList(), any(ResultCallback.class))).thenAnswer(invocation -> {
+            queries.add((String) invocation.getArguments()[0]);
+            bindings.add((List<Object>) invocation.getArguments()[1]);
+
+            return 3L;
+        });
+
+        QueryBuilder query = table(connection)
+                .select("country")
+                .selectRaw("SUM(score * ?) AS weighted", 2)
+                .where("active", true)
+                .groupBy("country")
+                .having("COUNT(*)", ">", 10)
+                .orHaving("weighted", ">=", 500)
+                .orderByDesc("weighted");
+
+        assertEquals("SELECT \"country\", SUM(score * ?) AS weighted FROM test WHERE active = ? GROUP BY \"country\" "
+                     + "HAVING COUNT(*) > ? OR weighted >= ? ORDER BY weighted DESC", query.toSql());
+        assertEquals(Arrays.asList(2, true, 10, 500), query.getBindings());
+
+        assertEquals(3, query.count());
+        assertEquals(3, table(connection).selectRaw("MAX(score) AS best").where("active", true).count());
+
+        assertEquals(Arrays.asList(
+                "SELECT COUNT(*) AS aggregate FROM (SELECT \"country\", SUM(score * ?) AS weighted FROM test "
+                + "WHERE active = ? GROUP BY \"country\" HAVING COUNT(*) > ? OR weighted >= ?) AS aggregate_table",
+                "SELECT COUNT(*) AS aggregate FROM test WHERE active = ?"
+        ), queries);
+        assertEquals(Arrays.asList(Arrays.asList(2, true, 10, 500), Collections.singletonList(true)), bindings);
+        assertEquals("SELECT MAX(score) AS best FROM test", table(connection).selectRaw("MAX(score) AS best").toSql());
+    }
 
-//    @Test
-//    public void it_can_use_raw_select_and_add_selects() throws Exception
-//    {
-//        String expected = "SELECT *, count(*) as user_count FROM test";
-//
-//        Object actual = this.queryBuilder
-//                .select()
-//                .addSelect(DB.raw("count(*) as user_count"))
-//                .toSql();
-//
-//        assertEquals(expected, actual);
-//    }
 //
 //    @Test
 //    public void it_can_generate_an_insert_statement() throws Exception
@@ -266,6 +719,35 @@ class QueryBuilderTest
 //        assertEquals(expected, actual);
 //    }
 
+    /**
+     * @param connection Connection
+     *
+     * @return Query builder for the test table
+     */
+    private static QueryBuilder table(Connection connection)
+    {
+        return new QueryBuilder(connection, new StubQueryGrammar(), new TableProcessor()).from("test");
+    }
+
+    /**
+     * @param ids Values of the id column
+     *
+     * @return Rows with an id column
+     */
+    private static Rows rows(int... ids)
+    {
+        Rows rows = new Rows();
+
+        for ( int id : ids )
+        {
+            Columns columns = new Columns();
+            columns.add(new Column("id", id));
+
+            rows.add(new Row(columns));
+        }
+
+        return rows;
+    }
 }
 
 class StubQueryGrammar extends QueryGrammar
@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.tables.batches;
+
+import com.jimmyhowe.jhdb.core.exceptions.InvalidArgumentException;
+import com.jimmyhowe.jhdb.core.tables.rows.ResultLayout;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.Types;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ColumnBatchTest
+{
+    private final ResultLayout layout = new ResultLayout(
+            new String[]{"id", "status", "total"},
+            new int[]{Types.BIGINT, Types.VARCHAR, Types.DOUBLE},
+            new String[]{"BIGINT", "VARCHAR", "DOUBLE"},
+            new String[]{"java.lang.Long", "java.lang.String", "java.lang.Double"}
+    );
+
+    @Test
+    void it_reads_a_result_column_by_column() throws Exception
+    {
+        ResultSet resultSet = mock(ResultSet.class);
+
+        when(resultSet.next()).thenReturn(true, true, true, false);
+        when(resultSet.getLong(1)).thenReturn(1L, 2L, 3L);
+        when(resultSet.getString(2)).thenReturn("paid", null, "paid");
+        when(resultSet.getDouble(3)).thenReturn(10.0, 0.0, 5.5);
+        when(resultSet.wasNull()).thenReturn(false, false, false, true, false, false);
+
+        ColumnBatch batch = ColumnBatch.read(resultSet, layout);
+
+        assertEquals(3, batch.getRowCount());
+        assertArrayEquals(new long[]{1, 2, 3}, batch.getLongs("id").values());
+
+        StringVector status = batch.getStrings("status");
+
+        assertEquals(1, status.getDictionary().size());
+        assertEquals("paid", status.get(2));
+        assertTrue(status.isNull(1));
+        assertEquals(-1, status.getCode(1));
+
+        DoubleVector total = batch.getDoubles("total");
+
+        assertTrue(total.isNull(1));
+        assertNull(total.getObject(1));
+        assertEquals(15.5, total.stream().sum());
+        assertEquals(15.5, batch.indexes().filter(row -> status.getCode(row) == 0).mapToDouble(total::get).sum());
+    }
+
+    @Test
+    void it_moves_a_column_to_a_wider_vector_when_a_value_doesnt_fit() throws Exception
+    {
+        ResultSet resultSet = mock(ResultSet.class);
+
+        when(resultSet.next()).thenReturn(true, true, true, false);
+        when(resultSet.getObject(1)).thenReturn(1L, 1.5, null);
+        when(resultSet.getString(2)).thenReturn("paid");
+        when(resultSet.getObject(3)).thenReturn(10.0, 2L, "abc");
+
+        ResultLayout checked = new ResultLayout(
+                new String[]{"id", "status", "total"},
+                new int[]{Types.BIGINT, Types.VARCHAR, Types.DOUBLE},
+                new String[]{"BIGINT", "VARCHAR", "DOUBLE"},
+                new String[]{"java.lang.Long", "java.lang.String", "java.lang.Double"},
+                true
+        );
+        ColumnBatch batch = ColumnBatch.read(resultSet, checked);
+
+        DoubleVector id = batch.getDoubles("id");
+
+        assertArrayEquals(new double[]{1, 1.5, 0}, id.values());
+        assertTrue(id.isNull(2));
+
+        ObjectVector total = batch.getObjects("total");
+
+        assertEquals(10.0, total.get(0));
+        assertEquals(2.0, total.get(1));
+        assertEquals("abc", total.get(2));
+    }
+
+    @Test
+    void it_refuses_the_wrong_kind_of_vector() throws Exception
+    {
+        ResultSet resultSet = mock(ResultSet.class);
+
+        ColumnBatch batch = ColumnBatch.read(resultSet, layout);
+
+        assertEquals(0, batch.getRowCount());
+        assertThrows(InvalidArgumentException.class, () -> batch.getDoubles("id"));
+        assertThrows(InvalidArgumentException.class, () -> batch.getVector("missing"));
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.tables.rows;
+
+import com.jimmyhowe.jhdb.core.exceptions.InvalidArgumentException;
+import com.jimmyhowe.jhdb.core.tables.columns.Column;
+import com.jimmyhowe.jhdb.core.tables.columns.Columns;
+import com.jimmyhowe.jhdb.core.processors.TableProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RowTest
+{
+    private final ResultLayout layout = new ResultLayout(
+            new String[]{"id", "name"},
+            new int[]{Types.INTEGER, Types.VARCHAR},
+            new String[]{"INTEGER", "VARCHAR"},
+            new String[]{"java.lang.Integer", "java.lang.String"}
+    );
+
+    @Test
+    void it_keeps_the_collection_api_over_compact_values()
+    {
+        Row row = new Row(layout, new Object[]{1, "Jimmy"});
+
+        assertEquals(2, row.count());
+        assertFalse(row.isEmpty());
+        assertEquals("name", row.last().getName());
+        assertEquals("Jimmy", row.column("name").getValue());
+        assertNull(row.column("age"));
+    }
+
+    @Test
+    void it_keeps_changes_made_through_the_columns()
+    {
+        Row row = new Row(layout, new Object[]{1, "Jimmy"});
+
+        row.column("name").setValue("Brian");
+        row.add(new Column("age", 33));
+
+        assertEquals("Brian", row.column("name").getValue());
+        assertEquals(3, row.count());
+    }
+
+    @Test
+    void it_finds_columns_replaced_in_place()
+    {
+        Columns columns = new Columns();
+        columns.add(new Column("id", 1));
+        columns.add(new Column("name", "Jimmy"));
+
+        assertEquals(1, columns.indexOf("name"));
+
+        columns.data().set(1, new Column("username", "Jimmy"));
+
+        assertEquals(1, columns.indexOf("username"));
+        assertEquals(-1, columns.indexOf("name"));
+    }
+
+    @Test
+    void it_builds_the_columns_once_when_shared_between_threads() throws Exception
+    {
+        int width = 256;
+        String[] names = new String[width];
+        int[] types = new int[width];
+        String[] typeNames = new String[width];
+        String[] classNames = new String[width];
+        long[] primitives = new long[width];
+
+        for ( int i = 0; i < width; i++ )
+        {
+            names[i] = "column" + i;
+            types[i] = Types.BIGINT;
+            typeNames[i] = "BIGINT";
+            classNames[i] = "java.lang.Long";
+            primitives[i] = i;
+        }
+
+        ResultLayout wide = new ResultLayout(names, types, typeNames, classNames);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try
+        {
+            for ( int round = 0; round < 2000; round++ )
+            {
+                Row row = new Row(wide, null, primitives, null);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Long>> reads = new ArrayList<>();
+
+                for ( int thread = 0; thread < 4; thread++ )
+                {
+                    boolean columns = thread % 2 == 0;
+
+                    reads.add(executor.submit(() -> {
+                        start.await();
+
+                        return columns ? row.data().size() : row.getLong(width - 1) + 1;
+                    }));
+                }
+
+                start.countDown();
+
+                for ( Future<Long> read : reads )
+                {
+                    assertEquals(width, (long) read.get());
+                }
+
+                assertEquals(width, row.data().size());
+            }
+        } finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void it_reads_values_by_index_and_name()
+    {
+        Row row = new Row(layout, new Object[]{1, "Jimmy"});
+
+        assertEquals(1, row.getInt(0));
+        assertEquals(1, row.getInt("id"));
+        assertEquals("Jimmy", row.getString("name"));
+        assertEquals(1, row.indexOf("name"));
+        assertEquals(-1, row.indexOf("age"));
+        assertThrows(InvalidArgumentException.class, () -> row.getObject("age"));
+
+        row.add(new Column("age", 33));
+
+        assertEquals(33, row.getInt("age"));
+    }
+
+    @Test
+    void it_keeps_numbers_unboxed_and_boxes_them_to_the_driver_class()
+    {
+        ResultLayout numbers = new ResultLayout(
+                new String[]{"id", "name", "score", "active", "age"},
+                new int[]{Types.INTEGER, Types.VARCHAR, Types.DOUBLE, Types.BIT, Types.BIGINT},
+                new String[]{"INTEGER", "VARCHAR", "DOUBLE", "BIT", "BIGINT"},
+                new String[]{"java.lang.Integer", "java.lang.String", "java.lang.Double", "java.lang.Boolean",
+                        "java.lang.Long"}
+        );
+
+        long[] primitives = {7, Double.doubleToRawLongBits(2.5), 1, 0};
+        long[] nulls = {1L << 4};
+
+        Row row = new Row(numbers, new Object[]{"Jimmy"}, primitives, nulls);
+
+        assertEquals(7L, row.getLong("id"));
+        assertEquals(2.5, row.getDouble("score"));
+        assertTrue(row.getBoolean("active"));
+        assertEquals(0, row.getInt("age"));
+        assertTrue(row.isNull("age"));
+        assertFalse(row.isNull("id"));
+
+        assertEquals(Integer.valueOf(7), row.getObject("id"));
+        assertEquals(Boolean.TRUE, row.getObject("active"));
+        assertEquals("Jimmy", row.getString("name"));
+        assertNull(row.getObject("age"));
+        assertEquals(Double.valueOf(2.5), row.column("score").getValue());
+    }
+
+    @Test
+    void it_boxes_rows_with_values_that_dont_fit_the_reported_type() throws Exception
+    {
+        ResultLayout layout = new ResultLayout(
+                new String[]{"id", "name"},
+                new int[]{Types.INTEGER, Types.VARCHAR},
+                new String[]{"INTEGER", "VARCHAR"},
+                new String[]{"java.lang.Integer", "java.lang.String"},
+                true
+        );
+        ResultSet resultSet = mock(ResultSet.class);
+
+        when(resultSet.getObject(1)).thenReturn(1, 1.5, "abc", null);
+        when(resultSet.getObject(2)).thenReturn("Jimmy");
+
+        TableProcessor processor = new TableProcessor();
+
+        Row whole = processor.processRow(resultSet, layout);
+        Row fraction = processor.processRow(resultSet, layout);
+        Row text = processor.processRow(resultSet, layout);
+        Row missing = processor.processRow(resultSet, layout);
+
+        assertEquals(1L, whole.getLong("id"));
+        assertSame(layout, whole.getLayout());
+        assertEquals(1.5, fraction.getObject("id"));
+        assertEquals(1.5, fraction.getDouble("id"));
+        assertEquals(ResultLayout.OBJECT, fraction.getLayout().getStorage(0));
+        assertEquals("abc", text.getObject("id"));
+        assertEquals("Jimmy", text.getString("name"));
+        assertTrue(missing.isNull("id"));
+    }
+
+    @Test
+    void it_reads_numbers_with_the_primitive_getters_when_the_layout_is_trusted() throws Exception
+    {
+        ResultSet resultSet = mock(ResultSet.class);
+
+        when(resultSet.getLong(1)).thenReturn(7L, 0L);
+        when(resultSet.wasNull()).thenReturn(false, true);
+        when(resultSet.getObject(2)).thenReturn("Jimmy");
+
+        TableProcessor processor = new TableProcessor();
+
+        Row row = processor.processRow(resultSet, layout);
+        Row missing = processor.processRow(resultSet, layout);
+
+        assertEquals(7, row.getInt("id"));
+        assertEquals("Jimmy", row.getString("name"));
+        assertTrue(missing.isNull("id"));
+        verify(resultSet, never()).getObject(1);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LruCacheTest
+{
+    @Test
+    void it_evicts_the_least_recently_used_entry()
+    {
+        List<String> evicted = new ArrayList<>();
+        LruCache<String, String> cache = new LruCache<>(2, evicted::add);
+
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+        cache.put("c", "C");
+
+        assertEquals(Arrays.asList("B"), evicted);
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void it_hands_every_value_to_the_eviction_callback_when_cleared()
+    {
+        List<String> evicted = new ArrayList<>();
+        LruCache<String, String> cache = new LruCache<>(2, evicted::add);
+
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.clear();
+
+        assertEquals(Arrays.asList("A", "B"), evicted);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void it_caches_nothing_when_the_size_is_zero()
+    {
+        List<String> evicted = new ArrayList<>();
+        LruCache<String, String> cache = new LruCache<>(0, evicted::add);
+
+        cache.put("a", "A");
+
+        assertFalse(cache.containsKey("a"));
+        assertEquals(Arrays.asList("A"), evicted);
+    }
+}
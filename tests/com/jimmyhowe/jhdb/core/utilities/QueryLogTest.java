@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.utilities;
+
+import com.jimmyhowe.jhdb.core.Connection;
+import com.jimmyhowe.jhdb.core.events.QueryEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QueryLogTest
+{
+    @Test
+    public void it_keeps_percentiles_within_the_histogram_precision()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for ( long i = 1; i <= 100000; i++ )
+        {
+            histogram.record(i * 1000);
+        }
+
+        assertEquals(100000, histogram.getCount());
+        assertEquals(100000000, histogram.getMax());
+        assertEquals(50000000, histogram.getValueAtPercentile(50), 50000000 * 0.04);
+        assertEquals(99000000, histogram.getValueAtPercentile(99), 99000000 * 0.04);
+        assertEquals(100000000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void it_aggregates_queries_by_their_sql()
+    {
+        Connection connection = mock(Connection.class);
+        QueryLog log = new QueryLog(2);
+
+        log.record(new QueryEvent(connection, "SELECT * FROM \"users\"", Collections.emptyList(), 1000, 10, false));
+        log.record(new QueryEvent(connection, "SELECT * FROM \"users\"", Collections.emptyList(), 3000, 5, false));
+        log.record(new QueryEvent(connection, "SELECT * FROM \"users\"", Collections.emptyList(), 2000, -1, true));
+        log.record(new QueryEvent(connection, "DELETE FROM \"users\"", Collections.emptyList(), 500, 2, false));
+
+        List<QueryStats> stats = log.stats();
+
+        assertEquals(2, log.size());
+        assertEquals(2, stats.size());
+
+        QueryStats select = stats.get(0);
+
+        assertEquals("SELECT * FROM \"users\"", select.getSql());
+        assertEquals(3, select.getCount());
+        assertEquals(1, select.getErrors());
+        assertEquals(15, select.getRows());
+        assertEquals(6000, select.getTotalNanos());
+        assertEquals(3000, select.getMaxNanos());
+        assertEquals("DELETE FROM \"users\"", stats.get(1).getSql());
+
+        log.clear();
+
+        assertTrue(log.stats().isEmpty());
+    }
+
+    @Test
+    public void it_forgets_the_least_recently_run_shapes()
+    {
+        Connection connection = mock(Connection.class);
+        QueryLog log = new QueryLog(10, 2);
+
+        log.record(new QueryEvent(connection, "SELECT 1", Collections.emptyList(), 1, 1, false));
+        log.record(new QueryEvent(connection, "SELECT 2", Collections.emptyList(), 1, 1, false));
+        log.record(new QueryEvent(connection, "SELECT 1", Collections.emptyList(), 1, 1, false));
+        log.record(new QueryEvent(connection, "SELECT 3", Collections.emptyList(), 1, 1, false));
+
+        assertEquals(2, log.stats().size());
+        assertTrue(log.stats().stream().noneMatch(stats -> stats.getSql().equals("SELECT 2")));
+    }
+}
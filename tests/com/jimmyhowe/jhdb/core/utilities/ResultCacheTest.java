@@ -0,0 +1,164 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.utilities;
+
+import com.jimmyhowe.jhdb.core.tables.rows.ResultLayout;
+import com.jimmyhowe.jhdb.core.tables.rows.Row;
+import com.jimmyhowe.jhdb.core.tables.rows.Rows;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCacheTest
+{
+    private static final List<String> USERS = Collections.singletonList("users");
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    public void it_keeps_results_by_sql_and_bindings_until_they_expire() throws Exception
+    {
+        ResultCache cache = new ResultCache(2);
+        Rows jimmy = new Rows();
+
+        cache.put("SELECT * FROM users WHERE name = ?", Arrays.asList("Jimmy"), USERS, 0, jimmy, MINUTE);
+        cache.put("SELECT * FROM users WHERE name = ?", Arrays.asList("Brian"), USERS, 0, new Rows(), 1);
+
+        assertSame(jimmy, cache.get("SELECT * FROM users WHERE name = ?", Arrays.asList("Jimmy")));
+
+        Thread.sleep(1);
+
+        assertNull(cache.get("SELECT * FROM users WHERE name = ?", Arrays.asList("Brian")));
+
+        cache.put("SELECT 1", Collections.emptyList(), USERS, 0, new Rows(), MINUTE);
+        cache.put("SELECT 2", Collections.emptyList(), USERS, 0, new Rows(), MINUTE);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("SELECT * FROM users WHERE name = ?", Arrays.asList("Jimmy")));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void it_drops_results_of_a_table_when_it_is_written() throws Exception
+    {
+        ResultCache cache = new ResultCache();
+
+        cache.put("SELECT * FROM users", Collections.emptyList(), USERS, cache.stamp(USERS), new Rows(), MINUTE);
+        cache.put("SELECT * FROM posts", Collections.emptyList(), Collections.singletonList("posts"), 0, new Rows(), MINUTE);
+
+        long stamp = cache.stamp(USERS);
+
+        cache.invalidate("users");
+
+        assertNull(cache.get("SELECT * FROM users", Collections.emptyList()));
+        assertNotNull(cache.get("SELECT * FROM posts", Collections.emptyList()));
+
+        // Read before the write finished, so it may be stale
+        cache.put("SELECT * FROM users", Collections.emptyList(), USERS, stamp, new Rows(), MINUTE);
+
+        assertNull(cache.get("SELECT * FROM users", Collections.emptyList()));
+    }
+
+    @Test
+    public void it_shares_cached_rows_between_threads() throws Exception
+    {
+        int width = 256;
+        String[] names = new String[width];
+        int[] types = new int[width];
+        String[] typeNames = new String[width];
+        String[] classNames = new String[width];
+        Object[] values = new Object[width];
+
+        for ( int i = 0; i < width; i++ )
+        {
+            names[i] = "column" + i;
+            types[i] = Types.VARCHAR;
+            typeNames[i] = "VARCHAR";
+            classNames[i] = "java.lang.String";
+            values[i] = "value" + i;
+        }
+
+        ResultLayout layout = new ResultLayout(names, types, typeNames, classNames);
+        ResultCache cache = new ResultCache();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try
+        {
+            for ( int round = 0; round < 1000; round++ )
+            {
+                String sql = "SELECT * FROM users LIMIT " + round;
+                Rows rows = new Rows(layout);
+
+                rows.add(new Row(layout, values));
+                rows.add(new Row(layout, values));
+
+                cache.put(sql, Collections.emptyList(), USERS, cache.stamp(USERS), rows, MINUTE);
+
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Integer>> reads = new ArrayList<>();
+
+                for ( int thread = 0; thread < 4; thread++ )
+                {
+                    reads.add(executor.submit(() -> {
+                        start.await();
+
+                        int columns = 0;
+
+                        for ( Row row : cache.get(sql, Collections.emptyList()).data() )
+                        {
+                            assertEquals("value" + (width - 1), row.column("column" + (width - 1)).getValue());
+
+                            columns += row.data().size();
+                        }
+
+                        return columns;
+                    }));
+                }
+
+                start.countDown();
+
+                for ( Future<Integer> read : reads )
+                {
+                    assertEquals(2 * width, (int) read.get());
+                }
+            }
+        } finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}
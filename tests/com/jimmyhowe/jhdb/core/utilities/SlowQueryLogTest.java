@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.jimmyhowe.jhdb.core.utilities;
+
+import com.jimmyhowe.jhdb.core.Connection;
+import com.jimmyhowe.jhdb.core.events.QueryEvent;
+import com.jimmyhowe.jhdb.core.queries.QueryGrammar;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SlowQueryLogTest
+{
+    private static final String SQL = "SELECT * FROM users WHERE name = ?";
+
+    @Test
+    public void it_captures_the_plan_of_a_slow_query_once() throws Exception
+    {
+        List<Object> bindings = Collections.singletonList("Jimmy");
+        Connection connection = mock(Connection.class);
+
+        when(connection.getQueryGrammar()).thenReturn(new QueryGrammar());
+        when(connection.explain(SQL, bindings)).thenReturn("SCAN users");
+
+        SlowQueryLog log = new SlowQueryLog(10, 10);
+
+        log.record(new QueryEvent(connection, SQL, bindings, 5000000, 0, false));
+
+        for ( int i = 0; i < 500 && log.getPlan(SQL) == null; i++ )
+        {
+            Thread.sleep(10);
+        }
+
+        log.record(new QueryEvent(connection, SQL, bindings, 6000000, 0, false));
+
+        assertEquals(2, log.size());
+        assertEquals("SCAN users", log.getQueries().get(0).getPlan());
+        assertEquals("SCAN users", log.getQueries().get(1).getPlan());
+        assertEquals("Jimmy", log.getQueries().get(1).getEvent().getBindings().get(0));
+        verify(connection, times(1)).explain(SQL, bindings);
+    }
+
+    @Test
+    public void it_does_not_explain_schema_statements()
+    {
+        QueryGrammar grammar = new QueryGrammar();
+
+        assertTrue(grammar.isExplainable(SQL));
+        assertTrue(grammar.isExplainable("  update users SET name = ?"));
+        assertFalse(grammar.isExplainable("CREATE TABLE users (id INTEGER)"));
+        assertEquals("EXPLAIN " + SQL, grammar.compileExplain(SQL));
+    }
+}
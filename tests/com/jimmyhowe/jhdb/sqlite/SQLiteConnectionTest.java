@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Jimmy Howe
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.jimmyhowe.jhdb.sqlite;
+
+import com.jimmyhowe.jhdb.core.Connection;
+import com.jimmyhowe.jhdb.core.queries.InsertResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SQLiteConnectionTest
+{
+    private File file;
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws Exception
+    {
+        file = File.createTempFile("jhdb-sqlite", ".sqlite");
+        connection = new SQLitePlugin(file.getAbsolutePath()).getConnection();
+
+        connection.execute("CREATE TABLE users (id INTEGER PRIMARY KEY, name TEXT UNIQUE)");
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        connection.closeConnection();
+        file.delete();
+    }
+
+    @Test
+    void it_reports_the_keys_of_rows_that_set_their_own_ids()
+    {
+        InsertResult explicit = connection.table("users").insertInto("id", "name").insertMany(Arrays.asList(
+                new Object[]{5, "Jimmy"},
+                new Object[]{3, "Brian"}
+        ));
+
+        assertEquals(Arrays.asList(5L, 3L), explicit.getGeneratedKeys());
+
+        InsertResult generated = connection.table("users").insertInto("name").insertMany(Arrays.asList(
+                new Object[]{"Alan"},
+                new Object[]{"Carol"}
+        ));
+
+        assertEquals(Arrays.asList(6L, 7L), generated.getGeneratedKeys());
+    }
+
+    @Test
+    void it_only_reports_the_keys_of_rows_that_were_inserted()
+    {
+        connection.table("users").insertInto("id", "name").values(1, "Jimmy");
+
+        InsertResult result = connection.insertWithKeys("INSERT OR IGNORE INTO users (name) VALUES (?), (?)",
+                                                        Arrays.asList("Jimmy", "Brian"));
+
+        assertEquals(Collections.singletonList(1), result.getAffectedCounts());
+        assertEquals(Collections.singletonList(2L), result.getGeneratedKeys());
+    }
+
+    @Test
+    void it_reports_no_keys_for_tables_without_rowids()
+    {
+        connection.execute("CREATE TABLE tags (name TEXT PRIMARY KEY) WITHOUT ROWID");
+
+        InsertResult result = connection.insertWithKeys("INSERT INTO tags (name) VALUES (?)",
+                                                        Collections.singletonList("java"));
+
+        assertEquals(Collections.singletonList(1), result.getAffectedCounts());
+        assertTrue(result.getGeneratedKeys().isEmpty());
+    }
+}